@@ -0,0 +1,71 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Um histórico de 10 mil leilões encerrados de 100 lances, mantido no heap ou no
+ * {@link ArquivoDeLeiloes}: quanto custa avaliar todos e quanto dura um GC completo
+ * com o histórico vivo.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class ArquivoDeLeiloesBenchmark {
+
+    private static final int LEILOES = 10_000;
+    private static final int LANCES_POR_LEILAO = 100;
+
+    @Param({"HEAP", "ARQUIVO"})
+    String historico;
+
+    List<Leilao> encerrados;
+
+    @Setup
+    public void prepara() {
+        ArquivoDeLeiloes arquivo = new ArquivoDeLeiloes();
+        encerrados = new ArrayList<>(LEILOES);
+        for (int i = 0; i < LEILOES; i++) {
+            Leilao leilao = LeilaoBenchmark.leilaoCom(TipoDeArmazenamento.LISTA, LANCES_POR_LEILAO);
+            leilao.encerra();
+            encerrados.add("HEAP".equals(historico) ? leilao : arquivo.arquiva("leilao-" + i, leilao));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double avaliaTodos() {
+        double soma = 0;
+        for (Leilao leilao : encerrados) {
+            Avaliador avaliador = new Avaliador();
+            avaliador.avaliar(leilao);
+            soma += avaliador.getMaiorLance();
+        }
+        return soma;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public int gcCompleto() {
+        System.gc();
+        return encerrados.size();
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.persio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Avaliação completa de um leilão contra a atualização incremental por lance.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class AvaliadorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamanho;
+
+    @Param({"LISTA", "COLUNAR"})
+    TipoDeArmazenamento tipo;
+
+    Leilao leilao;
+    Avaliador acompanhando;
+    Lance lance;
+
+    @Setup
+    public void prepara() {
+        leilao = LeilaoBenchmark.leilaoCom(tipo, tamanho);
+        acompanhando = new Avaliador();
+        acompanhando.acompanhar(leilao);
+        lance = new Lance(new Usuario("novo"), Double.MAX_VALUE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double avaliar() {
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+        return avaliador.getMaiorLance();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double atualizaPorLance() {
+        acompanhando.lanceAceito(leilao, lance, tamanho);
+        return acompanhando.getMaiorLance();
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fechamento do dia: avaliação de 10 mil leilões de 100 lances, em sequência e pelo
+ * {@link AvaliadorEmLote} com paralelismo de 1 até todos os processadores. Para outras
+ * máquinas, ajuste com {@code -p paralelismo=1,2,4,8,16}.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AvaliadorEmLoteBenchmark {
+
+    private static final int LEILOES = 10_000;
+    private static final int LANCES_POR_LEILAO = 100;
+
+    @Param({"1", "2", "4", "8"})
+    int paralelismo;
+
+    @Param({"16"})
+    int tamanhoDoBloco;
+
+    List<Leilao> leiloes;
+    AvaliadorEmLote emLote;
+
+    @Setup(Level.Trial)
+    public void prepara() {
+        leiloes = new ArrayList<>(LEILOES);
+        for (int i = 0; i < LEILOES; i++) {
+            leiloes.add(LeilaoBenchmark.leilaoCom(TipoDeArmazenamento.COLUNAR, LANCES_POR_LEILAO));
+        }
+        emLote = new AvaliadorEmLote(paralelismo, tamanhoDoBloco);
+    }
+
+    @TearDown(Level.Trial)
+    public void fecha() {
+        emLote.close();
+    }
+
+    /**
+     * O mesmo trabalho do lote, em uma thread: guarda o avaliador de cada leilão e
+     * combina todos no agregado.
+     */
+    @Benchmark
+    public double emSequencia() {
+        Avaliador[] avaliadores = new Avaliador[leiloes.size()];
+        Avaliador geral = new Avaliador();
+        for (int i = 0; i < avaliadores.length; i++) {
+            avaliadores[i] = new Avaliador();
+            avaliadores[i].avaliar(leiloes.get(i));
+            geral.combina(avaliadores[i]);
+        }
+        return geral.getSoma();
+    }
+
+    @Benchmark
+    public double emLote() {
+        return emLote.avalia(leiloes).getGeral().getSoma();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.persio;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lances em leilões sorteados entre {@value #LEILOES}, com uma única faixa (um lock
+ * para tudo) e com várias. Para ver a escala com o número de núcleos, compare os
+ * métodos de 1 a 8 threads ou rode com {@code -t max}.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CasaDeLeiloesBenchmark {
+
+    private static final int LEILOES = 10_000;
+    private static final int USUARIOS = 100_000;
+
+    @Param({"1", "64"})
+    int faixas;
+
+    CasaDeLeiloes casa;
+    String[] ids;
+    Usuario[] usuarios;
+
+    @Setup(Level.Trial)
+    public void criaUsuarios() {
+        ids = new String[LEILOES];
+        for (int i = 0; i < LEILOES; i++) {
+            ids[i] = "leilao-" + i;
+        }
+        usuarios = new Usuario[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            usuarios[i] = new Usuario("u" + i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void abreLeiloes() {
+        casa = new CasaDeLeiloes(faixas);
+        for (String id : ids) {
+            casa.abre(id, "Benchmark", TipoDeArmazenamento.COLUNAR);
+        }
+    }
+
+    private Object propoe() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Lance lance = new Lance(usuarios[aleatorio.nextInt(USUARIOS)], System.nanoTime());
+        try {
+            casa.propoe(ids[aleatorio.nextInt(LEILOES)], lance);
+            return lance;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object propoe1() {
+        return propoe();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object propoe2() {
+        return propoe();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object propoe4() {
+        return propoe();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object propoe8() {
+        return propoe();
+    }
+}
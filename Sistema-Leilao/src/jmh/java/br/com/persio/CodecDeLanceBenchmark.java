@@ -0,0 +1,88 @@
+package br.com.persio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Codificação e decodificação de um lance no formato binário do {@link CodecDeLance}
+ * contra JSON com Jackson. Rode com {@code -prof gc} para ver a alocação por operação.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CodecDeLanceBenchmark {
+
+    /**
+     * O mesmo lance como objeto JSON.
+     */
+    public static class LanceJson {
+        public int idDoLeilao;
+        public int idDoUsuario;
+        public long instante;
+        public double valor;
+    }
+
+    @Param({"HEAP", "DIRETO"})
+    String memoria;
+
+    ByteBuffer buffer;
+    LanceBinario leitor = new LanceBinario();
+    ObjectMapper json = new ObjectMapper();
+    LanceJson lanceJson = new LanceJson();
+    byte[] bytesJson;
+    long instante = 1_700_000_000_000L;
+
+    @Setup
+    public void prepara() throws IOException {
+        buffer = "DIRETO".equals(memoria)
+                ? ByteBuffer.allocateDirect(CodecDeLance.TAMANHO)
+                : ByteBuffer.allocate(CodecDeLance.TAMANHO);
+        CodecDeLance.escreve(buffer, 0, 42, 1234, instante, 1500.75);
+
+        lanceJson.idDoLeilao = 42;
+        lanceJson.idDoUsuario = 1234;
+        lanceJson.instante = instante;
+        lanceJson.valor = 1500.75;
+        bytesJson = json.writeValueAsBytes(lanceJson);
+    }
+
+    @Benchmark
+    public int codificaBinario() {
+        return CodecDeLance.escreve(buffer, 0, 42, 1234, ++instante, 1500.75);
+    }
+
+    @Benchmark
+    public double decodificaBinario() {
+        LanceBinario lance = leitor.aponta(buffer, 0);
+        return lance.getValor() + lance.getIdDoUsuario() + lance.getIdDoLeilao() + lance.getInstante();
+    }
+
+    @Benchmark
+    public byte[] codificaJackson() throws IOException {
+        lanceJson.instante = ++instante;
+        return json.writeValueAsBytes(lanceJson);
+    }
+
+    @Benchmark
+    public double decodificaJackson() throws IOException {
+        LanceJson lance = json.readValue(bytesJson, LanceJson.class);
+        return lance.valor + lance.idDoUsuario + lance.idDoLeilao + lance.instante;
+    }
+}
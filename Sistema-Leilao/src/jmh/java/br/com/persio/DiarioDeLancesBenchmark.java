@@ -0,0 +1,148 @@
+package br.com.persio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lances por segundo em um leilão com {@link DiarioDeLances}, para cada política de
+ * sincronização, e o mesmo leilão sem diário como referência. Cada iteração grava em um
+ * diário novo, no diretório temporário do sistema, tantos lances quantos couberem no tempo
+ * dela; assim a política a cada lance, com um fsync por lance, não alonga a execução.
+ *
+ * <p>Os lances são criados uma única vez, antes das medições, para que a alocação de
+ * usuários e lances não seja cobrada do diário. Se uma iteração esgotar os lances prontos,
+ * o leilão (e o diário) recomeçam do zero; isso acontece no máximo a cada
+ * {@value #LANCES_PRONTOS} lances.</p>
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiarioDeLancesBenchmark {
+
+    static final int LANCES_PRONTOS = 1 << 22;
+
+    /**
+     * Lances com valores crescentes e um usuário novo a cada 5, para nenhum atingir o limite.
+     */
+    @State(Scope.Benchmark)
+    public static class LancesProntos {
+
+        Lance[] lances;
+
+        @Setup
+        public void cria() {
+            lances = new Lance[LANCES_PRONTOS];
+            Usuario usuario = null;
+            for (int i = 0; i < lances.length; i++) {
+                if (i % 5 == 0) {
+                    usuario = new Usuario("u" + i / 5);
+                }
+                lances[i] = new Lance(usuario, i + 1.0);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ComDiario {
+
+        @Param({"periodica-10ms", "lote-1000", "a-cada-lance"})
+        String politica;
+
+        Path diretorio;
+        Leilao leilao;
+        DiarioDeLances diario;
+        int proximo;
+
+        @Setup(Level.Iteration)
+        public void abreDiario() throws IOException {
+            diretorio = Files.createTempDirectory("diario-benchmark");
+            leilao = new Leilao("Benchmark", TipoDeArmazenamento.COLUNAR);
+            diario = new DiarioDeLances(diretorio, leilao, politica());
+            proximo = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void fechaDiario() throws IOException {
+            diario.close();
+            apaga(diretorio);
+        }
+
+        Lance proximoLance(LancesProntos prontos) throws IOException {
+            if (proximo == prontos.lances.length) {
+                fechaDiario();
+                abreDiario();
+            }
+            return prontos.lances[proximo++];
+        }
+
+        private PoliticaDeSincronizacao politica() {
+            switch (politica) {
+                case "periodica-10ms":
+                    return PoliticaDeSincronizacao.periodica(Duration.ofMillis(10));
+                case "lote-1000":
+                    return PoliticaDeSincronizacao.emLote(1000);
+                default:
+                    return PoliticaDeSincronizacao.aCadaLance();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SemDiario {
+
+        Leilao leilao;
+        int proximo;
+
+        @Setup(Level.Iteration)
+        public void abreLeilao() {
+            leilao = new Leilao("Benchmark", TipoDeArmazenamento.COLUNAR);
+            proximo = 0;
+        }
+
+        Lance proximoLance(LancesProntos prontos) {
+            if (proximo == prontos.lances.length) {
+                abreLeilao();
+            }
+            return prontos.lances[proximo++];
+        }
+    }
+
+    static void apaga(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+    }
+
+    @Benchmark
+    public ResultadoLance comDiario(ComDiario estado, LancesProntos prontos) throws IOException {
+        return estado.leilao.tentaPropor(estado.proximoLance(prontos));
+    }
+
+    @Benchmark
+    public ResultadoLance semDiario(SemDiario estado, LancesProntos prontos) {
+        return estado.leilao.tentaPropor(estado.proximoLance(prontos));
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.persio;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mediana, p90 e p99 de um leilão pelo {@link Histograma} do avaliador contra o
+ * método antigo de copiar a lista de lances e ordenar.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class HistogramaBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamanho;
+
+    Leilao leilao;
+    Avaliador avaliador;
+    Histograma histograma;
+    double valor;
+
+    @Setup
+    public void prepara() {
+        leilao = LeilaoBenchmark.leilaoCom(TipoDeArmazenamento.COLUNAR, tamanho);
+        avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+        histograma = new Histograma();
+    }
+
+    @Benchmark
+    public void percentisPeloHistograma(Blackhole bh) {
+        bh.consume(avaliador.getPercentil(50));
+        bh.consume(avaliador.getPercentil(90));
+        bh.consume(avaliador.getPercentil(99));
+    }
+
+    @Benchmark
+    public void percentisOrdenandoACopia(Blackhole bh) {
+        List<Lance> lances = leilao.getLances();
+        double[] valores = new double[lances.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = lances.get(i).getValor();
+        }
+        Arrays.sort(valores);
+        bh.consume(valores[(int) Math.ceil(0.50 * valores.length) - 1]);
+        bh.consume(valores[(int) Math.ceil(0.90 * valores.length) - 1]);
+        bh.consume(valores[(int) Math.ceil(0.99 * valores.length) - 1]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Histograma registra() {
+        valor = valor >= 1e9 ? 1.0 : valor * 1.01 + 1.0;
+        histograma.registra(valor);
+        return histograma;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * "Todos os lances do usuário X": pelo {@link IndiceDeLancesPorUsuario} e percorrendo
+ * todos os leilões comparando o usuário de cada lance.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class IndiceDeLancesBenchmark {
+
+    private static final int LANCES_POR_LEILAO = 100;
+    private static final int USUARIOS = 2000;
+
+    @Param({"100", "1000"})
+    int leiloes;
+
+    List<Leilao> abertos;
+    IndiceDeLancesPorUsuario indice;
+    Usuario procurado;
+
+    @Setup
+    public void prepara() {
+        abertos = new ArrayList<>(leiloes);
+        indice = new IndiceDeLancesPorUsuario(Duration.ofHours(1), 1000);
+        int proximo = 0;
+        for (int l = 0; l < leiloes; l++) {
+            Leilao leilao = new Leilao("Leilão " + l);
+            indice.acompanha("leilao-" + l, leilao);
+            for (int i = 0; i < LANCES_POR_LEILAO; i++) {
+                leilao.propoe(new Lance(new Usuario("u" + (proximo++ % USUARIOS)), i + 1.0));
+            }
+            abertos.add(leilao);
+        }
+        procurado = new Usuario("u42");
+    }
+
+    @Benchmark
+    public List<ReferenciaDeLance> peloIndice() {
+        return indice.lancesDe(procurado, Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public List<Lance> percorrendoOsLeiloes() {
+        List<Lance> encontrados = new ArrayList<>();
+        for (Leilao leilao : abertos) {
+            for (Lance lance : leilao.getLances()) {
+                if (lance.getUsuario().equals(procurado)) {
+                    encontrados.add(lance);
+                }
+            }
+        }
+        return encontrados;
+    }
+}
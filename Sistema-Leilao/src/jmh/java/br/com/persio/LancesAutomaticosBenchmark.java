@@ -0,0 +1,89 @@
+package br.com.persio;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Um leilão com N tetos automáticos e 100 lances manuais: resolvido por
+ * {@link LancesAutomaticos} e emulado como antes, com cada usuário reenviando
+ * "último + incremento" depois de cada lance manual.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LancesAutomaticosBenchmark {
+
+    private static final int LANCES_MANUAIS = 100;
+    private static final double INCREMENTO = 1.0;
+
+    @Param({"10", "1000"})
+    int procuracoes;
+
+    Usuario[] usuarios;
+    double[] tetos;
+    Lance[] manuais;
+
+    @Setup
+    public void prepara() {
+        Random aleatorio = new Random(42);
+        usuarios = new Usuario[procuracoes];
+        tetos = new double[procuracoes];
+        for (int i = 0; i < procuracoes; i++) {
+            usuarios[i] = new Usuario("p" + i);
+            tetos[i] = 1 + aleatorio.nextInt(10_000);
+        }
+        manuais = new Lance[LANCES_MANUAIS];
+        for (int i = 0; i < LANCES_MANUAIS; i++) {
+            manuais[i] = new Lance(new Usuario("m" + i), (i + 1) * 100.0 + 0.5);
+        }
+    }
+
+    @Benchmark
+    public int automaticos() {
+        Leilao leilao = new Leilao("Benchmark");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, INCREMENTO);
+        for (int i = 0; i < procuracoes; i++) {
+            automaticos.define(usuarios[i], tetos[i]);
+        }
+        for (Lance lance : manuais) {
+            leilao.tentaPropor(lance);
+        }
+        return leilao.tamanho();
+    }
+
+    @Benchmark
+    public int reenvioPeriodico() {
+        Leilao leilao = new Leilao("Benchmark");
+        reenvia(leilao);
+        for (Lance lance : manuais) {
+            leilao.tentaPropor(lance);
+            reenvia(leilao);
+        }
+        return leilao.tamanho();
+    }
+
+    private void reenvia(Leilao leilao) {
+        for (int i = 0; i < procuracoes; i++) {
+            double ultimo = Math.max(0, leilao.ultimoValor());
+            double valor = Math.min(tetos[i], ultimo + INCREMENTO);
+            if (valor > ultimo) {
+                leilao.tentaPropor(new Lance(usuarios[i], valor));
+            }
+        }
+    }
+}
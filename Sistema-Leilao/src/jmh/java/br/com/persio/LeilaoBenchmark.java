@@ -0,0 +1,108 @@
+package br.com.persio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de aceitar e de rejeitar um lance conforme o tamanho do leilão.
+ * O aceite é medido em lotes de {@value #LOTE} lances sobre um leilão recém-preenchido
+ * com {@code tamanho} lances, para que o leilão não cresça durante a medição:
+ * o tempo por lance é a pontuação dividida por {@value #LOTE}.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LeilaoBenchmark {
+
+    static final int LOTE = 10_000;
+
+    @State(Scope.Thread)
+    public static class Estado {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        int tamanho;
+
+        @Param({"LISTA", "COLUNAR"})
+        TipoDeArmazenamento tipo;
+
+        Leilao leilao;
+        Lance[] novos;
+        int proximo;
+        Lance abaixoDoUltimo;
+        Lance acimaDoLimite;
+
+        @Setup(Level.Iteration)
+        public void prepara() {
+            leilao = leilaoCom(tipo, tamanho);
+            novos = new Lance[LOTE];
+            for (int i = 0; i < LOTE; i++) {
+                novos[i] = new Lance(new Usuario("novo" + i), tamanho + i + 1.0);
+            }
+            proximo = 0;
+
+            abaixoDoUltimo = new Lance(new Usuario("atrasado"), 1.0);
+            // o último usuário do preenchimento já deu 5 lances
+            acimaDoLimite = new Lance(leilao.getLances().get(tamanho - 1).getUsuario(), Double.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Leilão com {@code tamanho} lances crescentes, cada usuário dando 5 lances seguidos.
+     */
+    static Leilao leilaoCom(TipoDeArmazenamento tipo, int tamanho) {
+        Leilao leilao = new Leilao("Benchmark", tipo);
+        Usuario usuario = null;
+        for (int i = 0; i < tamanho; i++) {
+            if (i % 5 == 0) {
+                usuario = new Usuario("u" + i / 5);
+            }
+            leilao.propoe(new Lance(usuario, i + 1.0));
+        }
+        return leilao;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 10, batchSize = LOTE)
+    @Measurement(iterations = 20, batchSize = LOTE)
+    public void aceitaLance(Estado estado) {
+        estado.leilao.propoe(estado.novos[estado.proximo++]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object rejeitaValorNaoSuperior(Estado estado) {
+        try {
+            estado.leilao.propoe(estado.abaixoDoUltimo);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object rejeitaLimiteDeLances(Estado estado) {
+        try {
+            estado.leilao.propoe(estado.acimaDoLimite);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
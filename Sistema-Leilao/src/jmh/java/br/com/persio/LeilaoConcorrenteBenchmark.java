@@ -0,0 +1,117 @@
+package br.com.persio;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vazão de decisões (aceites e rejeições) com vários licitantes no mesmo leilão:
+ * {@link LeilaoConcorrente} contra um {@link Leilao} protegido por um lock externo.
+ * Cada lance vale {@code System.nanoTime()}, então lances simultâneos disputam o topo.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeilaoConcorrenteBenchmark {
+
+    private static final int USUARIOS = 1 << 21;
+
+    @State(Scope.Benchmark)
+    public static class Estado {
+
+        Usuario[] usuarios;
+        LeilaoConcorrente concorrente;
+        Leilao comLock;
+
+        @Setup(Level.Trial)
+        public void criaUsuarios() {
+            usuarios = new Usuario[USUARIOS];
+            for (int i = 0; i < USUARIOS; i++) {
+                usuarios[i] = new Usuario("u" + i);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void criaLeiloes() {
+            concorrente = new LeilaoConcorrente("Benchmark");
+            comLock = new Leilao("Benchmark");
+        }
+
+        Lance proximoLance() {
+            return new Lance(usuarios[ThreadLocalRandom.current().nextInt(USUARIOS)], System.nanoTime());
+        }
+    }
+
+    private static ResultadoLance concorrente(Estado estado) {
+        return estado.concorrente.tentaPropor(estado.proximoLance());
+    }
+
+    private static ResultadoLance comLock(Estado estado) {
+        Lance lance = estado.proximoLance();
+        synchronized (estado.comLock) {
+            return estado.comLock.tentaPropor(lance);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ResultadoLance concorrente01(Estado estado) {
+        return concorrente(estado);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoLance concorrente04(Estado estado) {
+        return concorrente(estado);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ResultadoLance concorrente16(Estado estado) {
+        return concorrente(estado);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ResultadoLance concorrente64(Estado estado) {
+        return concorrente(estado);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ResultadoLance comLock01(Estado estado) {
+        return comLock(estado);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResultadoLance comLock04(Estado estado) {
+        return comLock(estado);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ResultadoLance comLock16(Estado estado) {
+        return comLock(estado);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ResultadoLance comLock64(Estado estado) {
+        return comLock(estado);
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.persio;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Memória ocupada por lance em um leilão de 10 milhões de lances, com armazenamento em
+ * lista de {@link Lance} e colunar. O resultado que interessa é o contador
+ * {@code bytesPorLance}: a diferença do heap usado, medida depois de um GC completo, antes
+ * e depois de preencher o leilão, dividida pelos lances. Os usuários são criados antes da
+ * medição e não entram na conta; os lances são criados durante o preenchimento e só ficam
+ * na memória se o armazenamento os guardar. O tempo da execução inclui os GCs e não é
+ * comparável com os outros benchmarks.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MemoriaDosLancesBenchmark {
+
+    @Param({"10000000"})
+    int lances;
+
+    @Param({"LISTA", "COLUNAR"})
+    TipoDeArmazenamento tipo;
+
+    Usuario[] usuarios;
+    Leilao leilao;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memoria {
+
+        public double bytesPorLance;
+    }
+
+    // cada usuário dá 5 lances seguidos, como em LeilaoBenchmark.leilaoCom
+    @Setup
+    public void criaUsuarios() {
+        usuarios = new Usuario[(lances + 4) / 5];
+        for (int i = 0; i < usuarios.length; i++) {
+            usuarios[i] = new Usuario("u" + i);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void soltaLeilao() {
+        leilao = null;
+    }
+
+    @Benchmark
+    public Leilao preenche(Memoria memoria) {
+        long antes = heapUsado();
+        leilao = new Leilao("Benchmark", tipo);
+        for (int i = 0; i < lances; i++) {
+            leilao.propoe(new Lance(usuarios[i / 5], i + 1.0));
+        }
+        memoria.bytesPorLance = (double) (heapUsado() - antes) / lances;
+        return leilao;
+    }
+
+    private static long heapUsado() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo por lance das métricas: desligadas ({@link MetricasDeLances#NENHUMA}) e em memória.
+ * Metade dos lances do lote é rejeitada, para medir os dois caminhos.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MetricasBenchmark {
+
+    private static final int LOTE = 1000;
+
+    @Param({"NENHUMA", "EM_MEMORIA"})
+    String metricas;
+
+    List<Lance> lote;
+    MetricasDeLances escolhidas;
+
+    @Setup
+    public void prepara() {
+        lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            double valor = i % 2 == 0 ? i + 10.0 : i;
+            lote.add(new Lance(new Usuario("u" + i), valor));
+        }
+        escolhidas = "NENHUMA".equals(metricas) ? MetricasDeLances.NENHUMA : new MetricasEmMemoria();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public ResultadoLance[] propoeLote() {
+        Leilao leilao = new Leilao("Benchmark");
+        leilao.setMetricas(escolhidas);
+        ResultadoLance[] resultados = leilao.propoeTodos(lote);
+        leilao.encerra();
+        return resultados;
+    }
+}
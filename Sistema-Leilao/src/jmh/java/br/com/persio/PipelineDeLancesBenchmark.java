@@ -0,0 +1,87 @@
+package br.com.persio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decisões por segundo de um {@link PipelineDeLances} com 1 e 4 produtores.
+ * Os lances são pré-alocados e o retorno é reaproveitado, então o caminho medido
+ * não aloca nada; como o buffer enche, a vazão medida é a da thread consumidora.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipelineDeLancesBenchmark {
+
+    private static final int LANCES = 1 << 20;
+
+    @State(Scope.Benchmark)
+    public static class Estado {
+
+        Lance[] lances;
+        Leilao leilao;
+        PipelineDeLances pipeline;
+        RetornoDeLance retorno = (lance, resultado) -> { };
+
+        @Setup(Level.Trial)
+        public void criaLances() {
+            lances = new Lance[LANCES];
+            Usuario usuario = null;
+            for (int i = 0; i < LANCES; i++) {
+                if (i % 5 == 0) {
+                    usuario = new Usuario("u" + i / 5);
+                }
+                lances[i] = new Lance(usuario, i + 1.0);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void abrePipeline() {
+            leilao = new Leilao("Benchmark", TipoDeArmazenamento.COLUNAR);
+            pipeline = new PipelineDeLances(4096);
+        }
+
+        @TearDown(Level.Iteration)
+        public void fechaPipeline() throws InterruptedException {
+            pipeline.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Produtor {
+
+        int proximo;
+    }
+
+    private static void publica(Estado estado, Produtor produtor) {
+        Lance lance = estado.lances[produtor.proximo++ & (LANCES - 1)];
+        estado.pipeline.publica(estado.leilao, lance, estado.retorno);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void umProdutor(Estado estado, Produtor produtor) {
+        publica(estado, produtor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void quatroProdutores(Estado estado, Produtor produtor) {
+        publica(estado, produtor);
+    }
+}
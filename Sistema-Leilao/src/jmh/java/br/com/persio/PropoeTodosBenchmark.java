@@ -0,0 +1,65 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Um lote em que metade dos lances é rejeitada, proposto lance a lance
+ * (capturando a exceção de cada rejeição) e de uma vez com {@link Leilao#propoeTodos}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PropoeTodosBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int tamanhoDoLote;
+
+    List<Lance> lote;
+
+    @Setup
+    public void criaLote() {
+        lote = new ArrayList<>(tamanhoDoLote);
+        for (int i = 0; i < tamanhoDoLote; i++) {
+            // lances pares sobem; os ímpares ficam abaixo do anterior e são rejeitados
+            double valor = i % 2 == 0 ? i + 10.0 : i;
+            lote.add(new Lance(new Usuario("u" + i), valor));
+        }
+    }
+
+    @Benchmark
+    public int porLance() {
+        Leilao leilao = new Leilao("Benchmark");
+        int aceitos = 0;
+        for (Lance lance : lote) {
+            try {
+                leilao.propoe(lance);
+                aceitos++;
+            } catch (IllegalArgumentException e) {
+                // rejeitado
+            }
+        }
+        return aceitos;
+    }
+
+    @Benchmark
+    public ResultadoLance[] emLote() {
+        return new Leilao("Benchmark").propoeTodos(lote);
+    }
+}
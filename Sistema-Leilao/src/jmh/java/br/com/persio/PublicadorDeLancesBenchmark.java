@@ -0,0 +1,92 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de avisar um lance aceito a milhares de observadores: assinantes do fluxo do
+ * leilão, que só recebem o maior lance, contra observadores que copiam
+ * {@link Leilao#getLances()} a cada lance, como faziam antes do fluxo. O leilão
+ * consultado tem 1000 lances.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PublicadorDeLancesBenchmark {
+
+    @Param({"10", "1000"})
+    int observadores;
+
+    Leilao leilao;
+    PublicadorDeLances publicador;
+    Lance lance = new Lance(new Usuario("novo"), Double.MAX_VALUE);
+    int posicao;
+
+    @Setup(Level.Iteration)
+    public void prepara() {
+        leilao = LeilaoBenchmark.leilaoCom(TipoDeArmazenamento.COLUNAR, 1000);
+        publicador = new PublicadorDeLances();
+        posicao = 1000;
+        publicador.comecaEm(posicao);
+        for (int i = 0; i < observadores; i++) {
+            publicador.assina(new Flow.Subscriber<Lance>() {
+                @Override
+                public void onSubscribe(Flow.Subscription assinatura) {
+                    assinatura.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Lance lance) {
+                }
+
+                @Override
+                public void onError(Throwable erro) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            }, PoliticaDeEntrega.soOMaiorLance());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void encerra() {
+        publicador.encerra();
+    }
+
+    @Benchmark
+    public PublicadorDeLances avisandoAssinantes() {
+        publicador.lanceAceito(leilao, lance, posicao++);
+        return publicador;
+    }
+
+    @Benchmark
+    public double copiandoALista() {
+        double topo = 0;
+        for (int i = 0; i < observadores; i++) {
+            List<Lance> lances = new ArrayList<>(leilao.getLances());
+            topo = lances.get(lances.size() - 1).getValor();
+        }
+        return topo;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.persio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tempo para reabrir um leilão com {@code lances} lances históricos, reproduzindo
+ * apenas o diário ou carregando uma fotografia, com 1 milhão e 50 milhões de lances.
+ *
+ * <p>O caso de 50 milhões (10 milhões de usuários) precisa de cerca de 2 GB livres no
+ * diretório temporário: por volta de 1 GB de segmentos do diário (17 bytes por lance mais
+ * o nome de cada usuário) e, durante a fotografia, mais uns 700 MB de colunas antes de os
+ * segmentos dobrados serem apagados. O leilão colunar recuperado e o registro de usuários
+ * ocupam perto de 2 GB de heap, e o leilão gravado no preparo ainda pode estar vivo; por
+ * isso o fork usa 6 GB. Só gravar o histórico leva alguns minutos; para rodar só o caso
+ * pequeno use {@code -p lances=1000000}.</p>
+ */
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class RecuperacaoBenchmark {
+
+    @Param({"1000000", "50000000"})
+    int lances;
+
+    @Param({"DIARIO", "FOTOGRAFIA"})
+    String origem;
+
+    Path diretorio;
+
+    @Setup
+    public void gravaHistorico() throws IOException {
+        diretorio = Files.createTempDirectory("recuperacao-benchmark");
+        Leilao leilao = new Leilao("Benchmark", TipoDeArmazenamento.COLUNAR);
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(100_000))) {
+            Usuario usuario = null;
+            for (int i = 0; i < lances; i++) {
+                if (i % 5 == 0) {
+                    usuario = new Usuario("u" + i / 5);
+                }
+                leilao.propoe(new Lance(usuario, i + 1.0));
+            }
+            if (origem.equals("FOTOGRAFIA")) {
+                diario.fotografa();
+            }
+        }
+    }
+
+    @TearDown
+    public void apagaHistorico() throws IOException {
+        DiarioDeLancesBenchmark.apaga(diretorio);
+    }
+
+    @Benchmark
+    public Leilao recupera() throws IOException {
+        Leilao leilao = new Leilao("Benchmark", TipoDeArmazenamento.COLUNAR);
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(100_000))) {
+            return leilao;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo por lance de uma disputa em que a maioria dos lances é rejeitada:
+ * {@link Leilao#propoe} capturando a exceção de cada rejeição contra
+ * {@link Leilao#tentaPropor(Lance)}, que só devolve o resultado.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RejeicaoBenchmark {
+
+    private static final int LOTE = 1000;
+
+    @Param({"50", "90"})
+    int percentualRejeitado;
+
+    List<Lance> lote;
+
+    @Setup
+    public void criaLote() {
+        lote = new ArrayList<>(LOTE);
+        int aCada = 100 / (100 - percentualRejeitado);
+        double ultimo = 0;
+        for (int i = 0; i < LOTE; i++) {
+            // um lance a cada aCada sobe; os demais repetem o último valor e são rejeitados
+            if (i % aCada == 0) {
+                ultimo += 10;
+            }
+            lote.add(new Lance(new Usuario("u" + i), ultimo));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int comExcecao() {
+        Leilao leilao = new Leilao("Benchmark");
+        int aceitos = 0;
+        for (Lance lance : lote) {
+            try {
+                leilao.propoe(lance);
+                aceitos++;
+            } catch (IllegalArgumentException e) {
+                // rejeitado
+            }
+        }
+        return aceitos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int semExcecao() {
+        Leilao leilao = new Leilao("Benchmark");
+        int aceitos = 0;
+        for (Lance lance : lote) {
+            if (leilao.tentaPropor(lance).isAceito()) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de agendar e cancelar um prazo com muitos outros já pendentes: a
+ * {@link RodaDeTempo} não depende da quantidade pendente, enquanto o
+ * {@link ScheduledThreadPoolExecutor} mantém um heap e paga O(log n).
+ */
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RodaDeTempoBenchmark {
+
+    private static final Runnable NADA = () -> { };
+
+    @Param({"1000", "100000", "500000"})
+    int pendentes;
+
+    private RodaDeTempo roda;
+    private ScheduledExecutorService executor;
+    private long sequencia;
+
+    @Setup(Level.Trial)
+    public void agendaPendentes() {
+        roda = new RodaDeTempo();
+        ScheduledThreadPoolExecutor agendador = new ScheduledThreadPoolExecutor(1);
+        agendador.setRemoveOnCancelPolicy(true);
+        executor = agendador;
+        for (int i = 0; i < pendentes; i++) {
+            // prazos espalhados em uma hora, para nada disparar durante a medição
+            roda.agenda(NADA, Duration.ofMillis(3_600_000L + i));
+            executor.schedule(NADA, 3_600_000L + i, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void fecha() throws InterruptedException {
+        roda.close();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean rodaDeTempo() {
+        Agendamento agendamento = roda.agenda(NADA, Duration.ofMillis(1_800_000L + (sequencia++ & 0xFFFF)));
+        return agendamento.cancela();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor() {
+        ScheduledFuture<?> futuro = executor.schedule(NADA, 1_800_000L + (sequencia++ & 0xFFFF), TimeUnit.MILLISECONDS);
+        return futuro.cancel(false);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.persio;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code hashCode} e busca em {@code HashMap<Usuario, ...>} com a chave calculada uma vez
+ * no construtor, comparados com o comportamento anterior (minúsculas a cada chamada),
+ * reproduzido em {@link UsuarioSemCache}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class UsuarioBenchmark {
+
+    private static final int USUARIOS = 10_000;
+
+    Map<Usuario, Integer> mapa = new HashMap<>();
+    Map<UsuarioSemCache, Integer> mapaSemCache = new HashMap<>();
+    Usuario[] buscas = new Usuario[USUARIOS];
+    UsuarioSemCache[] buscasSemCache = new UsuarioSemCache[USUARIOS];
+    int proxima;
+
+    @Setup
+    public void prepara() {
+        for (int i = 0; i < USUARIOS; i++) {
+            mapa.put(new Usuario("Usuario" + i), i);
+            mapaSemCache.put(new UsuarioSemCache("Usuario" + i), i);
+            // instâncias diferentes das chaves, como acontece com lances recebidos
+            buscas[i] = new Usuario("USUARIO" + i);
+            buscasSemCache[i] = new UsuarioSemCache("USUARIO" + i);
+        }
+    }
+
+    @Benchmark
+    public int hashCodeComCache() {
+        return buscas[proxima++ % USUARIOS].hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeSemCache() {
+        return buscasSemCache[proxima++ % USUARIOS].hashCode();
+    }
+
+    @Benchmark
+    public Integer buscaComCache() {
+        return mapa.get(buscas[proxima++ % USUARIOS]);
+    }
+
+    @Benchmark
+    public Integer buscaSemCache() {
+        return mapaSemCache.get(buscasSemCache[proxima++ % USUARIOS]);
+    }
+
+    /**
+     * Igualdade e hash como eram em {@link Usuario} antes da chave em cache.
+     */
+    static final class UsuarioSemCache {
+
+        private final String nome;
+
+        UsuarioSemCache(String nome) {
+            this.nome = nome;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            return nome.equalsIgnoreCase(((UsuarioSemCache) obj).nome);
+        }
+
+        @Override
+        public int hashCode() {
+            return nome.toLowerCase().hashCode();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.persio;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uma tarefa agendada em uma {@link RodaDeTempo}, que pode ser cancelada até disparar.
+ */
+public final class Agendamento {
+
+    static final int AGENDADO = 0;
+    static final int CANCELADO = 1;
+    static final int EXECUTADO = 2;
+
+    final Runnable tarefa;
+    final long prazoEmNanos;
+    final AtomicInteger estado = new AtomicInteger(AGENDADO);
+    private final RodaDeTempo roda;
+
+    // mantidos apenas pela thread da roda
+    long voltas;
+    RodaDeTempo.Fatia fatia;
+    Agendamento anterior;
+    Agendamento proximo;
+
+    Agendamento(RodaDeTempo roda, Runnable tarefa, long prazoEmNanos) {
+        this.roda = roda;
+        this.tarefa = tarefa;
+        this.prazoEmNanos = prazoEmNanos;
+    }
+
+    /**
+     * @return {@code true} se a tarefa foi cancelada; {@code false} se já tinha disparado
+     *         ou sido cancelada antes
+     */
+    public boolean cancela() {
+        if (!estado.compareAndSet(AGENDADO, CANCELADO)) {
+            return false;
+        }
+        roda.cancelado(this);
+        return true;
+    }
+
+    public boolean isCancelado() {
+        return estado.get() == CANCELADO;
+    }
+
+    public boolean isExecutado() {
+        return estado.get() == EXECUTADO;
+    }
+}
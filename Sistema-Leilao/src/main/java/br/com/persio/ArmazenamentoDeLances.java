@@ -0,0 +1,32 @@
+package br.com.persio;
+
+import java.util.List;
+
+/**
+ * Guarda os lances aceitos por um {@link Leilao} e a contagem de lances por usuário.
+ */
+interface ArmazenamentoDeLances {
+
+    int tamanho();
+
+    double valor(int posicao);
+
+    Lance lance(int posicao);
+
+    int lancesDo(Usuario usuario);
+
+    /**
+     * @return posição em que o lance foi guardado
+     */
+    int adiciona(Lance lance);
+
+    /**
+     * Garante espaço para mais {@code adicionais} lances sem novas realocações.
+     */
+    void reserva(int adicionais);
+
+    /**
+     * @return visão somente leitura dos lances guardados
+     */
+    List<Lance> comoLista();
+}
@@ -0,0 +1,130 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Arquivo dos leilões encerrados, guardados fora do heap para que o heap vivo só
+ * contenha leilões abertos e as pausas do GC não cresçam com o histórico.
+ *
+ * <p>Os lances de cada leilão arquivado ocupam 12 bytes (valor e id do usuário) em
+ * colunas dentro de blocos de {@link ByteBuffer} direto. No heap ficam só a descrição,
+ * uma visão de poucos objetos e um único {@link Usuario} por participante, compartilhado
+ * por todos os leilões do arquivo. A visão é um {@link Leilao} encerrado: pode ser lida,
+ * avaliada por um {@link Avaliador} ou um {@link AvaliadorEmLote}, e rejeita novos lances
+ * com {@link ResultadoLance#LEILAO_ENCERRADO}.</p>
+ *
+ * <p>Arquivar é sincronizado; ler leilões arquivados pode ser feito de várias threads.</p>
+ */
+public class ArquivoDeLeiloes {
+
+    public static final int TAMANHO_PADRAO_DO_BLOCO = 4 * 1024 * 1024;
+
+    private final int tamanhoDoBloco;
+    private final RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+    private final ConcurrentHashMap<String, Leilao> leiloes = new ConcurrentHashMap<>();
+
+    private ByteBuffer bloco;
+    private long bytesAlocados;
+    private long bytesUsados;
+
+    public ArquivoDeLeiloes() {
+        this(TAMANHO_PADRAO_DO_BLOCO);
+    }
+
+    /**
+     * @param tamanhoDoBloco bytes de cada bloco direto; um leilão maior que o bloco
+     *                       ganha um bloco só para ele
+     */
+    public ArquivoDeLeiloes(int tamanhoDoBloco) {
+        if (tamanhoDoBloco <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser maior que zero.");
+        }
+        this.tamanhoDoBloco = tamanhoDoBloco;
+    }
+
+    /**
+     * Copia os lances do leilão encerrado para fora do heap. O leilão original pode ser
+     * descartado em seguida; o arquivo devolve (e guarda pelo id) a visão arquivada.
+     *
+     * @return o leilão arquivado, encerrado e somente leitura
+     */
+    public synchronized Leilao arquiva(String id, Leilao leilao) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Id do leilão não pode ser vazio ou nulo.");
+        }
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        if (!leilao.isEncerrado()) {
+            throw new IllegalArgumentException("Só leilões encerrados podem ser arquivados.");
+        }
+        if (leiloes.containsKey(id)) {
+            throw new IllegalArgumentException("Já existe um leilão arquivado com o id " + id + ".");
+        }
+
+        ArmazenamentoDeLances lances = leilao.lances();
+        ByteBuffer colunas = aloca(LancesArquivados.bytesPara(lances.tamanho()));
+        LancesArquivados.grava(lances, colunas, usuarios);
+
+        Leilao arquivado = new Leilao(leilao.getDescricao(),
+                new LancesArquivados(colunas, lances.tamanho(), usuarios), leilao.getPrazo());
+        arquivado.encerra();
+        leiloes.put(id, arquivado);
+        return arquivado;
+    }
+
+    /**
+     * Encerra o leilão na casa (que deixa de referenciá-lo) e o arquiva com o mesmo id.
+     */
+    public Leilao encerraEArquiva(CasaDeLeiloes casa, String id) {
+        if (casa == null) {
+            throw new IllegalArgumentException("Casa de leilões não pode ser nula.");
+        }
+        return arquiva(id, casa.encerra(id));
+    }
+
+    public Leilao getLeilao(String id) {
+        Leilao leilao = id == null ? null : leiloes.get(id);
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão " + id + " não arquivado.");
+        }
+        return leilao;
+    }
+
+    public int getQuantidadeDeLeiloes() {
+        return leiloes.size();
+    }
+
+    /**
+     * @return bytes de memória direta reservados pelos blocos do arquivo
+     */
+    public synchronized long getBytesAlocados() {
+        return bytesAlocados;
+    }
+
+    /**
+     * @return bytes dos blocos ocupados por lances arquivados
+     */
+    public synchronized long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    // fatia do bloco atual, alinhada em 8 bytes para que os doubles não cruzem palavras
+    private ByteBuffer aloca(int bytes) {
+        bytesUsados += bytes;
+        if (bytes > tamanhoDoBloco) {
+            bytesAlocados += bytes;
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        int alinhado = (bytes + 7) & ~7;
+        if (bloco == null || bloco.remaining() < alinhado) {
+            bloco = ByteBuffer.allocateDirect(tamanhoDoBloco);
+            bytesAlocados += tamanhoDoBloco;
+        }
+        ByteBuffer fatia = bloco.slice(bloco.position(), bytes).order(ByteOrder.nativeOrder());
+        bloco.position(Math.min(bloco.limit(), bloco.position() + alinhado));
+        return fatia;
+    }
+}
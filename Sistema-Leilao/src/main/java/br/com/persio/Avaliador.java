@@ -1,39 +1,284 @@
 package br.com.persio;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Avaliador é responsável por analisar os lances de um leilão
  * e determinar o maior e o menor valor ofertado.
+ * Também pode acompanhar um leilão, atualizando os valores a cada lance aceito
+ * sem precisar percorrer a lista de lances novamente.
+ * A distribuição dos valores fica em um {@link Histograma}, que responde
+ * mediana, percentis e desvio padrão sem ordenar os lances.
  */
-public class Avaliador {
+public class Avaliador implements OuvinteDeLances {
 
     private double maiorLance = Double.NEGATIVE_INFINITY;
     private double menorLance = Double.POSITIVE_INFINITY;
+    private long quantidade;
+    private double soma;
+    private final Histograma distribuicao = new Histograma();
 
-    public void avaliar(Leilao leilao) {
+    // Heap de mínimo limitado aos N maiores lances: a raiz é o menor deles
+    private final int quantidadeDeMaiores;
+    private final PriorityQueue<Lance> maiores;
+
+    private static final Object DESEMPATE = new Object();
+
+    // leilão acompanhado e quantos lances dele a varredura inicial já contou
+    private Leilao acompanhado;
+    private int avaliadosAte;
+
+    public Avaliador() {
+        this(3);
+    }
+
+    public Avaliador(int quantidadeDeMaiores) {
+        if (quantidadeDeMaiores <= 0) {
+            throw new IllegalArgumentException("A quantidade de maiores lances deve ser maior que zero.");
+        }
+        this.quantidadeDeMaiores = quantidadeDeMaiores;
+        this.maiores = new PriorityQueue<>(quantidadeDeMaiores, Comparator.comparingDouble(Lance::getValor));
+    }
+
+    public synchronized void avaliar(Leilao leilao) {
         if (leilao == null) {
             throw new IllegalArgumentException("Leilão não pode ser nulo.");
         }
 
-        if (leilao.getLances().isEmpty()) {
+        ArmazenamentoDeLances lances = leilao.lances();
+        if (lances.tamanho() == 0) {
             throw new IllegalArgumentException("Não há lances para avaliar.");
         }
 
-        maiorLance = leilao.getLances().stream()
-                .max(Comparator.comparingDouble(Lance::getValor))
-                .get().getValor();
+        avaliaTodos(lances, lances.tamanho());
+    }
+
+    /**
+     * Avalia os lances já existentes e passa a receber cada novo lance aceito pelo leilão.
+     * O ouvinte é registrado antes da varredura: em um {@link LeilaoConcorrente}, um lance
+     * aceito no meio dela é contado uma única vez, pela varredura ou pelo aviso.
+     */
+    public synchronized void acompanhar(Leilao leilao) {
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+
+        leilao.adicionaOuvinte(this);
+        ArmazenamentoDeLances lances = leilao.lances();
+        // todo lance desta posição em diante foi aceito depois do registro e será avisado
+        int tamanho = lances.tamanho();
+        avaliaTodos(lances, tamanho);
+        acompanhado = leilao;
+        avaliadosAte = tamanho;
+    }
+
+    /**
+     * Acrescenta a esta avaliação os lances já avaliados por outro avaliador, como se
+     * tivessem sido avaliados juntos: maior, menor, soma, distribuição e maiores lances.
+     */
+    public void combina(Avaliador outro) {
+        if (outro == null || outro == this) {
+            throw new IllegalArgumentException("Avaliador a combinar não pode ser nulo nem o próprio avaliador.");
+        }
+
+        // os dois locks são sempre tomados na mesma ordem, para não haver deadlock
+        int esteHash = System.identityHashCode(this);
+        int outroHash = System.identityHashCode(outro);
+        if (esteHash < outroHash) {
+            synchronized (this) {
+                synchronized (outro) {
+                    acrescenta(outro);
+                }
+            }
+        } else if (esteHash > outroHash) {
+            synchronized (outro) {
+                synchronized (this) {
+                    acrescenta(outro);
+                }
+            }
+        } else {
+            synchronized (DESEMPATE) {
+                synchronized (this) {
+                    synchronized (outro) {
+                        acrescenta(outro);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return um avaliador independente com os mesmos agregados deste
+     */
+    synchronized Avaliador copia() {
+        Avaliador copia = new Avaliador(quantidadeDeMaiores);
+        copia.acrescenta(this);
+        return copia;
+    }
+
+    /**
+     * Grava os agregados (maior, menor, quantidade, soma, distribuição e maiores lances),
+     * para que o avaliador possa ser recriado por {@link #le(DataInput)} sem reler os lances.
+     */
+    synchronized void grava(DataOutput saida) throws IOException {
+        saida.writeInt(quantidadeDeMaiores);
+        saida.writeDouble(maiorLance);
+        saida.writeDouble(menorLance);
+        saida.writeLong(quantidade);
+        saida.writeDouble(soma);
+        distribuicao.grava(saida);
+        saida.writeInt(maiores.size());
+        for (Lance lance : maiores) {
+            saida.writeUTF(lance.getUsuario().getNome());
+            saida.writeDouble(lance.getValor());
+        }
+    }
+
+    static Avaliador le(DataInput entrada) throws IOException {
+        Avaliador avaliador = new Avaliador(entrada.readInt());
+        avaliador.maiorLance = entrada.readDouble();
+        avaliador.menorLance = entrada.readDouble();
+        avaliador.quantidade = entrada.readLong();
+        avaliador.soma = entrada.readDouble();
+        avaliador.distribuicao.restaura(entrada);
+        int maiores = entrada.readInt();
+        for (int i = 0; i < maiores; i++) {
+            avaliador.guardaEntreOsMaiores(new Lance(new Usuario(entrada.readUTF()), entrada.readDouble()));
+        }
+        return avaliador;
+    }
+
+    private void acrescenta(Avaliador outro) {
+        maiorLance = Math.max(maiorLance, outro.maiorLance);
+        menorLance = Math.min(menorLance, outro.menorLance);
+        quantidade += outro.quantidade;
+        soma += outro.soma;
+        distribuicao.combina(outro.distribuicao);
+        for (Lance lance : outro.maiores) {
+            if (entraEntreOsMaiores(lance.getValor())) {
+                guardaEntreOsMaiores(lance);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void lanceAceito(Leilao leilao, Lance lance, int posicao) {
+        if (leilao == acompanhado && posicao < avaliadosAte) {
+            return;
+        }
+        registra(lance);
+    }
+
+    private void limpa() {
+        maiorLance = Double.NEGATIVE_INFINITY;
+        menorLance = Double.POSITIVE_INFINITY;
+        quantidade = 0;
+        soma = 0;
+        distribuicao.limpa();
+        maiores.clear();
+    }
 
-        menorLance = leilao.getLances().stream()
-                .min(Comparator.comparingDouble(Lance::getValor))
-                .get().getValor();
+    // Percorre apenas os valores; o Lance só é lido quando entra entre os maiores
+    private void avaliaTodos(ArmazenamentoDeLances lances, int tamanho) {
+        limpa();
+        for (int i = 0; i < tamanho; i++) {
+            double valor = lances.valor(i);
+            registraValor(valor);
+            if (entraEntreOsMaiores(valor)) {
+                guardaEntreOsMaiores(lances.lance(i));
+            }
+        }
     }
 
-    public double getMaiorLance() {
+    private void registra(Lance lance) {
+        registraValor(lance.getValor());
+        if (entraEntreOsMaiores(lance.getValor())) {
+            guardaEntreOsMaiores(lance);
+        }
+    }
+
+    private void registraValor(double valor) {
+        if (valor > maiorLance) {
+            maiorLance = valor;
+        }
+        if (valor < menorLance) {
+            menorLance = valor;
+        }
+        quantidade++;
+        soma += valor;
+        distribuicao.registra(valor);
+    }
+
+    private boolean entraEntreOsMaiores(double valor) {
+        return maiores.size() < quantidadeDeMaiores || valor > maiores.peek().getValor();
+    }
+
+    private void guardaEntreOsMaiores(Lance lance) {
+        if (maiores.size() == quantidadeDeMaiores) {
+            maiores.poll();
+        }
+        maiores.add(lance);
+    }
+
+    public synchronized double getMaiorLance() {
         return maiorLance;
     }
 
-    public double getMenorLance() {
+    public synchronized double getMenorLance() {
         return menorLance;
     }
+
+    /**
+     * @return os maiores lances avaliados, do maior para o menor
+     */
+    public synchronized List<Lance> getMaioresLances() {
+        List<Lance> lista = new ArrayList<>(maiores);
+        lista.sort(Comparator.comparingDouble(Lance::getValor).reversed());
+        return lista;
+    }
+
+    public synchronized long getQuantidade() {
+        return quantidade;
+    }
+
+    public synchronized double getSoma() {
+        return soma;
+    }
+
+    public synchronized double getMedia() {
+        return quantidade == 0 ? 0.0 : soma / quantidade;
+    }
+
+    public synchronized double getMediana() {
+        return getPercentil(50);
+    }
+
+    /**
+     * @param percentil de 0 a 100
+     * @return o valor aproximado do percentil, com erro relativo abaixo de 0,4%
+     */
+    public synchronized double getPercentil(double percentil) {
+        if (quantidade == 0) {
+            throw new IllegalStateException("Não há lances avaliados.");
+        }
+        return distribuicao.percentil(percentil);
+    }
+
+    public synchronized double getDesvioPadrao() {
+        return distribuicao.getDesvioPadrao();
+    }
+
+    /**
+     * @return uma cópia da distribuição dos valores, que pode ser combinada com a de
+     *         outros leilões por {@link Histograma#combina(Histograma)}
+     */
+    public synchronized Histograma getHistograma() {
+        return distribuicao.copia();
+    }
 }
@@ -0,0 +1,106 @@
+package br.com.persio;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Avalia muitos leilões de uma vez, dividindo o trabalho em um {@link ForkJoinPool}.
+ * Cada tarefa avalia um bloco de leilões e devolve um {@link Avaliador} com o
+ * agregado do bloco; os agregados são combinados ao juntar as tarefas, de modo que
+ * nenhuma thread disputa um acumulador comum.
+ */
+public class AvaliadorEmLote implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final int tamanhoDoBloco;
+
+    /**
+     * Uma thread por processador e blocos de 16 leilões.
+     */
+    public AvaliadorEmLote() {
+        this(Runtime.getRuntime().availableProcessors(), 16);
+    }
+
+    /**
+     * @param paralelismo    threads do pool
+     * @param tamanhoDoBloco quantidade de leilões que uma tarefa avalia sem se dividir
+     */
+    public AvaliadorEmLote(int paralelismo, int tamanhoDoBloco) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("O paralelismo deve ser maior que zero.");
+        }
+        if (tamanhoDoBloco <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser maior que zero.");
+        }
+        this.pool = new ForkJoinPool(paralelismo);
+        this.tamanhoDoBloco = tamanhoDoBloco;
+    }
+
+    /**
+     * @return um avaliador por leilão, na ordem da coleção, e o agregado de todos
+     */
+    public ResultadoDoLote avalia(Collection<? extends Leilao> leiloes) {
+        if (leiloes == null) {
+            throw new IllegalArgumentException("Coleção de leilões não pode ser nula.");
+        }
+
+        Leilao[] todos = leiloes.toArray(new Leilao[0]);
+        if (Arrays.asList(todos).contains(null)) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        Avaliador[] avaliadores = new Avaliador[todos.length];
+        Avaliador geral = pool.invoke(new Bloco(todos, avaliadores, 0, todos.length));
+        return new ResultadoDoLote(avaliadores, geral);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private final class Bloco extends RecursiveTask<Avaliador> {
+
+        private final Leilao[] leiloes;
+        private final Avaliador[] avaliadores;
+        private final int inicio;
+        private final int fim;
+
+        private Bloco(Leilao[] leiloes, Avaliador[] avaliadores, int inicio, int fim) {
+            this.leiloes = leiloes;
+            this.avaliadores = avaliadores;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Avaliador compute() {
+            if (fim - inicio <= tamanhoDoBloco) {
+                return avaliaBloco();
+            }
+
+            int meio = (inicio + fim) >>> 1;
+            Bloco esquerda = new Bloco(leiloes, avaliadores, inicio, meio);
+            esquerda.fork();
+            Avaliador direita = new Bloco(leiloes, avaliadores, meio, fim).compute();
+            Avaliador geral = esquerda.join();
+            geral.combina(direita);
+            return geral;
+        }
+
+        private Avaliador avaliaBloco() {
+            Avaliador geral = new Avaliador();
+            for (int i = inicio; i < fim; i++) {
+                if (leiloes[i].ultimoValor() == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                Avaliador avaliador = new Avaliador();
+                avaliador.avaliar(leiloes[i]);
+                avaliadores[i] = avaliador;
+                geral.combina(avaliador);
+            }
+            return geral;
+        }
+    }
+}
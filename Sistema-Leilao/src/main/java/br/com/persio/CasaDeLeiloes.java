@@ -0,0 +1,225 @@
+package br.com.persio;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Mantém vários leilões abertos, identificados por um id, e permite que várias threads
+ * deem lances ao mesmo tempo. Os leilões são divididos em faixas, cada uma com o seu
+ * próprio lock, de modo que lances em leilões de faixas diferentes nunca disputam o mesmo lock.
+ * Cada leilão é acompanhado por um {@link Avaliador} desde a abertura, de modo que avaliar
+ * não percorre os lances segurando o lock da faixa.
+ */
+public class CasaDeLeiloes {
+
+    private final Faixa[] faixas;
+    private final int mascara;
+    private final MetricasDeLances metricas;
+    // cada leilão aberto recebe o ouvinte criado a partir do seu id
+    private final List<Function<String, OuvinteDeLances>> ouvintes = new CopyOnWriteArrayList<>();
+
+    public CasaDeLeiloes() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param quantidadeDeFaixas quantidade mínima de faixas; é arredondada para a próxima potência de 2
+     */
+    public CasaDeLeiloes(int quantidadeDeFaixas) {
+        this(quantidadeDeFaixas, MetricasDeLances.NENHUMA);
+    }
+
+    /**
+     * @param metricas métricas ligadas a todo leilão aberto na casa
+     */
+    public CasaDeLeiloes(int quantidadeDeFaixas, MetricasDeLances metricas) {
+        if (metricas == null) {
+            throw new IllegalArgumentException("Métricas não podem ser nulas; use MetricasDeLances.NENHUMA.");
+        }
+        if (quantidadeDeFaixas <= 0) {
+            throw new IllegalArgumentException("A quantidade de faixas deve ser maior que zero.");
+        }
+        int tamanho = Integer.highestOneBit(quantidadeDeFaixas);
+        if (tamanho < quantidadeDeFaixas) {
+            tamanho <<= 1;
+        }
+
+        this.faixas = new Faixa[tamanho];
+        this.mascara = tamanho - 1;
+        this.metricas = metricas;
+        for (int i = 0; i < tamanho; i++) {
+            faixas[i] = new Faixa();
+        }
+    }
+
+    public void abre(String id, String descricao) {
+        abre(id, descricao, TipoDeArmazenamento.LISTA);
+    }
+
+    public void abre(String id, String descricao, TipoDeArmazenamento tipoDeArmazenamento) {
+        verificaId(id);
+        Leilao leilao = new Leilao(descricao, tipoDeArmazenamento);
+        leilao.setMetricas(metricas);
+        Avaliador avaliador = new Avaliador();
+        avaliador.acompanhar(leilao);
+
+        Faixa faixa = faixaDe(id);
+        faixa.lock.lock();
+        try {
+            if (faixa.leiloes.putIfAbsent(id, leilao) != null) {
+                throw new IllegalArgumentException("Já existe um leilão com o id " + id + ".");
+            }
+            faixa.avaliadores.put(id, avaliador);
+            for (Function<String, OuvinteDeLances> ouvinte : ouvintes) {
+                leilao.adicionaOuvinte(ouvinte.apply(id));
+            }
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    /**
+     * Liga o ouvinte a todos os leilões abertos na casa, os de agora e os que ainda serão abertos.
+     */
+    public void adicionaOuvinte(OuvinteDeLances ouvinte) {
+        if (ouvinte == null) {
+            throw new IllegalArgumentException("Ouvinte não pode ser nulo.");
+        }
+        adicionaOuvintePorId(id -> ouvinte);
+    }
+
+    /**
+     * Como {@link #adicionaOuvinte(OuvinteDeLances)}, mas cada leilão recebe um ouvinte
+     * próprio, criado a partir do id com que foi aberto na casa.
+     */
+    void adicionaOuvintePorId(Function<String, OuvinteDeLances> ouvinte) {
+        // com todas as faixas travadas, nenhum leilão é aberto entre a lista e a varredura
+        for (Faixa faixa : faixas) {
+            faixa.lock.lock();
+        }
+        try {
+            ouvintes.add(ouvinte);
+            for (Faixa faixa : faixas) {
+                for (Map.Entry<String, Leilao> leilao : faixa.leiloes.entrySet()) {
+                    leilao.getValue().adicionaOuvinte(ouvinte.apply(leilao.getKey()));
+                }
+            }
+        } finally {
+            for (Faixa faixa : faixas) {
+                faixa.lock.unlock();
+            }
+        }
+    }
+
+    public void propoe(String id, Lance lance) {
+        ResultadoLance resultado = tentaPropor(id, lance);
+        if (!resultado.isAceito()) {
+            throw new IllegalArgumentException(resultado.getMensagem());
+        }
+    }
+
+    /**
+     * Como {@link #propoe(String, Lance)}, mas devolve a rejeição em vez de lançar exceção.
+     * Um leilão inexistente ou um id inválido continuam sendo exceção.
+     */
+    public ResultadoLance tentaPropor(String id, Lance lance) {
+        verificaId(id);
+        Faixa faixa = faixaDe(id);
+        faixa.lock.lock();
+        try {
+            return leilaoDa(faixa, id).tentaPropor(lance);
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    /**
+     * @return uma cópia da avaliação mantida a cada lance; o lock da faixa só é usado para
+     *         achar o leilão, e a cópia não depende da quantidade de lances
+     */
+    public Avaliador avaliar(String id) {
+        verificaId(id);
+        Faixa faixa = faixaDe(id);
+        Avaliador acompanhando;
+        faixa.lock.lock();
+        try {
+            leilaoDa(faixa, id);
+            acompanhando = faixa.avaliadores.get(id);
+        } finally {
+            faixa.lock.unlock();
+        }
+
+        Avaliador avaliador = acompanhando.copia();
+        if (avaliador.getQuantidade() == 0) {
+            throw new IllegalArgumentException("Não há lances para avaliar.");
+        }
+        return avaliador;
+    }
+
+    /**
+     * Retira o leilão da casa e o congela; a partir daí ele não recebe mais lances.
+     *
+     * @return o leilão encerrado
+     */
+    public Leilao encerra(String id) {
+        verificaId(id);
+        Faixa faixa = faixaDe(id);
+        faixa.lock.lock();
+        try {
+            Leilao leilao = leilaoDa(faixa, id);
+            faixa.leiloes.remove(id);
+            faixa.avaliadores.remove(id);
+            leilao.encerra();
+            return leilao;
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    public int getQuantidadeDeLeiloes() {
+        int total = 0;
+        for (Faixa faixa : faixas) {
+            faixa.lock.lock();
+            try {
+                total += faixa.leiloes.size();
+            } finally {
+                faixa.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    int getQuantidadeDeFaixas() {
+        return faixas.length;
+    }
+
+    private Faixa faixaDe(String id) {
+        int hash = id.hashCode();
+        return faixas[(hash ^ (hash >>> 16)) & mascara];
+    }
+
+    private static Leilao leilaoDa(Faixa faixa, String id) {
+        Leilao leilao = faixa.leiloes.get(id);
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão " + id + " não encontrado.");
+        }
+        return leilao;
+    }
+
+    private static void verificaId(String id) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Id do leilão não pode ser vazio ou nulo.");
+        }
+    }
+
+    private static final class Faixa {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Leilao> leiloes = new HashMap<>();
+        private final Map<String, Avaliador> avaliadores = new HashMap<>();
+    }
+}
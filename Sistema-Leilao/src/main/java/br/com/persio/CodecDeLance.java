@@ -0,0 +1,75 @@
+package br.com.persio;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Formato binário fixo de um lance, para trafegar entre o gateway e o motor de leilões
+ * sem JSON. Cada lance ocupa {@link #TAMANHO} bytes, em little-endian:
+ *
+ * <pre>
+ * 0   int    id do leilão
+ * 4   int    id do usuário (de um {@link RegistroDeUsuarios} comum aos dois lados)
+ * 8   long   instante do lance, em milissegundos desde a época
+ * 16  double valor
+ * </pre>
+ *
+ * <p>A leitura e a escrita são absolutas, na posição informada: não alteram a posição
+ * nem o limite do buffer e valem igualmente para buffers na heap ou diretos,
+ * independentemente da ordem configurada neles. Para ler sem criar objetos use
+ * {@link LanceBinario}.</p>
+ */
+public final class CodecDeLance {
+
+    public static final int TAMANHO = 24;
+
+    static final int ID_DO_LEILAO = 0;
+    static final int ID_DO_USUARIO = 4;
+    static final int INSTANTE = 8;
+    static final int VALOR = 16;
+
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle DOUBLE = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private CodecDeLance() {
+    }
+
+    /**
+     * Grava um lance a partir dos seus campos, sem nenhum objeto intermediário.
+     *
+     * @return a posição logo depois do lance gravado
+     */
+    public static int escreve(ByteBuffer destino, int posicao,
+                              int idDoLeilao, int idDoUsuario, long instante, double valor) {
+        INT.set(destino, posicao + ID_DO_LEILAO, idDoLeilao);
+        INT.set(destino, posicao + ID_DO_USUARIO, idDoUsuario);
+        LONG.set(destino, posicao + INSTANTE, instante);
+        DOUBLE.set(destino, posicao + VALOR, valor);
+        return posicao + TAMANHO;
+    }
+
+    /**
+     * Grava um {@link Lance}, registrando o usuário no registro se ainda não tiver id.
+     *
+     * @return a posição logo depois do lance gravado
+     */
+    public static int escreve(ByteBuffer destino, int posicao, int idDoLeilao, Lance lance, long instante,
+                              RegistroDeUsuarios usuarios) {
+        if (lance == null) {
+            throw new IllegalArgumentException("Lance não pode ser nulo.");
+        }
+        return escreve(destino, posicao, idDoLeilao, usuarios.idDe(lance.getUsuario()), instante, lance.getValor());
+    }
+
+    /**
+     * Materializa o lance gravado na posição, com a instância canônica do usuário.
+     */
+    public static Lance le(ByteBuffer origem, int posicao, RegistroDeUsuarios usuarios) {
+        int idDoUsuario = (int) INT.get(origem, posicao + ID_DO_USUARIO);
+        double valor = (double) DOUBLE.get(origem, posicao + VALOR);
+        return new Lance(usuarios.porId(idDoUsuario), valor);
+    }
+}
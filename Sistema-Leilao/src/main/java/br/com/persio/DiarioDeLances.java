@@ -0,0 +1,582 @@
+package br.com.persio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário que grava em disco cada lance aceito por um {@link Leilao}, para que o leilão
+ * possa ser reconstruído depois de um reinício.
+ *
+ * <p>Os registros são acrescentados a segmentos de tamanho fixo mapeados em memória
+ * ({@code diario-000000.log}, {@code diario-000001.log}, ...). Cada lance ocupa um registro
+ * binário de tamanho fixo (tipo, soma de verificação, id do usuário e valor); o nome de cada
+ * usuário é gravado uma única vez, na primeira vez em que ele aparece. A soma de verificação
+ * (CRC32C) cobre o número de sequência do registro no diário além do conteúdo, porque o
+ * sistema operacional pode levar ao disco as páginas mapeadas em qualquer ordem. Na
+ * recuperação, o diário termina no primeiro registro que não confere: o segmento é truncado
+ * ali e os segmentos seguintes são apagados.</p>
+ *
+ * <p>Para que a recuperação não cresça com toda a história do leilão, o diário pode ser
+ * fotografado ({@link #fotografa()}): o segmento atual é fechado e, em segundo plano, os
+ * lances dos segmentos fechados são acrescentados a uma {@link FotografiaDoDiario}, que guarda
+ * colunas que só crescem e um resumo pequeno; os segmentos que ela passa a cobrir são apagados.
+ * Na recuperação, as colunas são mapeadas sem cópia como o início da história do leilão e só
+ * os segmentos posteriores são reproduzidos. Os agregados de {@link #getAvaliador()} também
+ * vêm do resumo, sem reler os lances.</p>
+ *
+ * <p>Os lances são gravados na ordem em que o leilão avisa o diário, por isso o leilão deve
+ * ser usado por uma thread de cada vez (por exemplo, dentro de uma {@link CasaDeLeiloes}).</p>
+ *
+ * <p>O diário grava o lance depois que o leilão já o aceitou; uma falha ao gravar não
+ * desfaz nem transforma o lance aceito em exceção. Ela deixa o diário falho: nenhum lance
+ * seguinte é gravado, para não deixar buracos na história, a falha fica em
+ * {@link #getFalha()} e {@link #close()} a relança como {@link IOException}.</p>
+ */
+public class DiarioDeLances implements OuvinteDeLances, Closeable {
+
+    static final byte REGISTRO_DE_USUARIO = 1;
+    static final byte REGISTRO_DE_LANCE = 2;
+
+    static final int TAMANHO_DO_LANCE = 1 + Integer.BYTES + Integer.BYTES + Double.BYTES;
+    static final int CABECALHO_DO_USUARIO = 1 + Integer.BYTES + Integer.BYTES + Short.BYTES;
+
+    private static final int SOMA = 1;
+    private static final int ID = SOMA + Integer.BYTES;
+    private static final int CONTEUDO = ID + Integer.BYTES;
+
+    public static final int TAMANHO_PADRAO_DO_SEGMENTO = 64 * 1024 * 1024;
+
+    private static final String PREFIXO = "diario-";
+    private static final String SUFIXO = ".log";
+
+    private static final String PREFIXO_DA_FOTOGRAFIA = "fotografia-";
+    private static final String SUFIXO_DA_FOTOGRAFIA = ".bin";
+
+    private final Path diretorio;
+    private final Leilao leilao;
+    private final PoliticaDeSincronizacao politica;
+    private final int tamanhoDoSegmento;
+    private final RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+    private final ScheduledExecutorService sincronizador;
+    private final SomaDeVerificacao soma = new SomaDeVerificacao();
+    private final FotografiaDoDiario fotografia;
+    private final Avaliador avaliador;
+    private ExecutorService fotografo;
+
+    private FileChannel canal;
+    private MappedByteBuffer segmento;
+    private int numeroDoSegmento;
+    private int posicao;
+    private int inicioNaoSincronizado;
+    private int lancesNaoSincronizados;
+    private int registrosGravados;
+    private int intervaloDeFotografias;
+    private int lancesDesdeAFotografia;
+    private boolean fechado;
+    private volatile RuntimeException falha;
+
+    public DiarioDeLances(Path diretorio, Leilao leilao, PoliticaDeSincronizacao politica) throws IOException {
+        this(diretorio, leilao, politica, TAMANHO_PADRAO_DO_SEGMENTO);
+    }
+
+    /**
+     * Abre (ou cria) o diário no diretório, reproduz no leilão os lances já gravados
+     * e passa a gravar cada novo lance aceito por ele.
+     *
+     * @param leilao leilão ainda sem lances, que será reconstruído a partir do diário
+     */
+    public DiarioDeLances(Path diretorio, Leilao leilao, PoliticaDeSincronizacao politica,
+                          int tamanhoDoSegmento) throws IOException {
+        if (diretorio == null) {
+            throw new IllegalArgumentException("Diretório do diário não pode ser nulo.");
+        }
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        if (!leilao.getLances().isEmpty()) {
+            throw new IllegalArgumentException("O leilão a ser recuperado não pode ter lances.");
+        }
+        if (politica == null) {
+            throw new IllegalArgumentException("Política de sincronização não pode ser nula.");
+        }
+        if (tamanhoDoSegmento < 1024) {
+            throw new IllegalArgumentException("O segmento deve ter pelo menos 1024 bytes.");
+        }
+
+        this.diretorio = diretorio;
+        this.leilao = leilao;
+        this.politica = politica;
+        this.tamanhoDoSegmento = tamanhoDoSegmento;
+
+        Files.createDirectories(diretorio);
+        List<Path> fotografias = arquivosDe(diretorio, PREFIXO_DA_FOTOGRAFIA, SUFIXO_DA_FOTOGRAFIA);
+        fotografia = fotografias.isEmpty()
+                ? new FotografiaDoDiario(diretorio)
+                : FotografiaDoDiario.le(diretorio, fotografias.get(fotografias.size() - 1));
+        int primeiroSegmento = fotografia.getPrimeiroSegmento();
+        for (int id = 0; id < fotografia.getQuantidadeDeUsuarios(); id++) {
+            usuarios.idDe(fotografia.usuario(id));
+        }
+        if (fotografia.getQuantidadeDeLances() > 0) {
+            leilao.retoma(fotografia.mapeia(usuarios));
+        }
+        registrosGravados = fotografia.sequencia();
+        avaliador = fotografia.getAvaliador().copia();
+
+        // Um segmento só continua o anterior se o seu primeiro registro tiver a sequência
+        // esperada; depois do primeiro registro inválido nada mais é reproduzido.
+        int ultimoSegmento = primeiroSegmento;
+        int fimDoUltimo = 0;
+        boolean reproduziuAlgum = false;
+        boolean interrompido = false;
+        for (Path arquivo : arquivosDe(diretorio, PREFIXO, SUFIXO)) {
+            int numero = numeroDe(arquivo, PREFIXO, SUFIXO);
+            if (numero < primeiroSegmento) {
+                continue;
+            }
+            if (interrompido) {
+                Files.delete(arquivo);
+                continue;
+            }
+            int fim = percorre(arquivo, new Reproducao(), soma);
+            if (fim == 0 && reproduziuAlgum) {
+                interrompido = true;
+                Files.delete(arquivo);
+                continue;
+            }
+            ultimoSegmento = numero;
+            fimDoUltimo = fim;
+            reproduziuAlgum = true;
+        }
+
+        abreSegmento(ultimoSegmento, fimDoUltimo);
+        // sobras de uma fotografia interrompida antes de apagar os arquivos antigos
+        apagaAnterioresA(diretorio, primeiroSegmento);
+        leilao.adicionaOuvinte(this);
+
+        if (politica.getTipo() == PoliticaDeSincronizacao.Tipo.PERIODICA) {
+            long intervalo = politica.getIntervalo().toNanos();
+            sincronizador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "sincronizador-" + diretorio.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            sincronizador.scheduleAtFixedRate(this::sincroniza, intervalo, intervalo, TimeUnit.NANOSECONDS);
+        } else {
+            sincronizador = null;
+        }
+    }
+
+    @Override
+    public synchronized void lanceAceito(Leilao leilao, Lance lance, int posicaoDoLance) {
+        if (falha != null) {
+            return;
+        }
+        if (fechado) {
+            falha = new IllegalStateException("O diário de lances já foi fechado.");
+            return;
+        }
+        try {
+            grava(leilao, lance, posicaoDoLance);
+        } catch (RuntimeException e) {
+            falha = e;
+        }
+    }
+
+    /**
+     * @return a falha que fez o diário parar de gravar lances, ou {@code null} se não houve
+     */
+    public RuntimeException getFalha() {
+        return falha;
+    }
+
+    private void grava(Leilao leilao, Lance lance, int posicaoDoLance) {
+        Usuario usuario = lance.getUsuario();
+        int id = usuarios.buscaId(usuario);
+        if (id < 0) {
+            id = usuarios.idDe(usuario);
+            escreveUsuario(id, usuario.getNome());
+        }
+        escreveLance(id, lance.getValor());
+        avaliador.lanceAceito(leilao, lance, posicaoDoLance);
+
+        switch (politica.getTipo()) {
+            case A_CADA_LANCE:
+                sincroniza();
+                break;
+            case EM_LOTE:
+                if (++lancesNaoSincronizados >= politica.getLancesPorLote()) {
+                    sincroniza();
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (intervaloDeFotografias > 0 && ++lancesDesdeAFotografia >= intervaloDeFotografias) {
+            try {
+                iniciaFotografia();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível abrir um novo segmento do diário.", e);
+            }
+        }
+    }
+
+    /**
+     * Faz o diário se fotografar sozinho a cada {@code lances} lances gravados. A thread que
+     * deu o lance só fecha o segmento atual; a fotografia é feita em segundo plano, e uma falha
+     * nela aparece no {@link #close()}. Zero desliga as fotografias automáticas.
+     */
+    public synchronized void setIntervaloDeFotografias(int lances) {
+        if (lances < 0) {
+            throw new IllegalArgumentException("O intervalo de fotografias não pode ser negativo.");
+        }
+        this.intervaloDeFotografias = lances;
+        this.lancesDesdeAFotografia = 0;
+    }
+
+    /**
+     * Acrescenta à fotografia todos os lances gravados até agora e apaga os segmentos que ela
+     * passa a cobrir. Só retorna quando a fotografia estiver no disco.
+     */
+    public void fotografa() throws IOException {
+        Future<?> emAndamento;
+        synchronized (this) {
+            if (fechado) {
+                throw new IllegalStateException("O diário de lances já foi fechado.");
+            }
+            emAndamento = iniciaFotografia();
+        }
+        try {
+            emAndamento.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido esperando a fotografia do diário.");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException
+                    ? (IOException) e.getCause()
+                    : new IOException("Não foi possível fotografar o diário.", e.getCause());
+        }
+    }
+
+    /**
+     * @return avaliador de todos os lances do diário, inclusive os recuperados na abertura
+     */
+    public Avaliador getAvaliador() {
+        return avaliador;
+    }
+
+    /**
+     * Fecha o segmento atual e agenda a fotografia dos segmentos anteriores a ele.
+     */
+    private Future<?> iniciaFotografia() throws IOException {
+        int ateOSegmento = numeroDoSegmento;
+        if (posicao > 0) {
+            ateOSegmento++;
+            sincroniza();
+            canal.close();
+            abreSegmento(ateOSegmento, 0);
+        }
+        lancesDesdeAFotografia = 0;
+
+        if (fotografo == null) {
+            fotografo = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "fotografo-" + diretorio.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        int segmento = ateOSegmento;
+        return fotografo.submit(() -> {
+            fotografia.dobra(segmento);
+            return null;
+        });
+    }
+
+    /**
+     * Força a gravação no disco de tudo o que foi escrito desde a última sincronização.
+     */
+    public synchronized void sincroniza() {
+        if (fechado || posicao == inicioNaoSincronizado) {
+            return;
+        }
+        segmento.force(inicioNaoSincronizado, posicao - inicioNaoSincronizado);
+        inicioNaoSincronizado = posicao;
+        lancesNaoSincronizados = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+        }
+        leilao.removeOuvinte(this);
+        ExecutorService fotografo;
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            sincroniza();
+            fechado = true;
+            segmento = null;
+            canal.close();
+            fotografo = this.fotografo;
+        }
+
+        // as fotografias já agendadas terminam antes de as colunas serem fechadas
+        if (fotografo != null) {
+            fotografo.shutdown();
+            try {
+                while (!fotografo.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // uma fotografia grande pode demorar; continua esperando
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido esperando a fotografia do diário.");
+            }
+        }
+        fotografia.fecha();
+        if (fotografia.getFalha() != null) {
+            throw new IOException("Não foi possível fotografar o diário.", fotografia.getFalha());
+        }
+        if (falha != null) {
+            throw new IOException("O diário parou de gravar lances por uma falha.", falha);
+        }
+    }
+
+    private void escreveUsuario(int id, String nome) {
+        byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+        int tamanho = CABECALHO_DO_USUARIO + bytes.length;
+        if (bytes.length > Short.MAX_VALUE || tamanho > tamanhoDoSegmento) {
+            throw new IllegalArgumentException("Nome de usuário longo demais para o diário.");
+        }
+
+        garanteEspaco(tamanho);
+        segmento.putInt(posicao + SOMA, soma.doUsuario(registrosGravados, id, bytes));
+        segmento.putInt(posicao + ID, id);
+        segmento.putShort(posicao + CONTEUDO, (short) bytes.length);
+        segmento.put(posicao + CABECALHO_DO_USUARIO, bytes);
+        segmento.put(posicao, REGISTRO_DE_USUARIO);
+        posicao += tamanho;
+        registrosGravados++;
+    }
+
+    private void escreveLance(int id, double valor) {
+        garanteEspaco(TAMANHO_DO_LANCE);
+        segmento.putInt(posicao + SOMA, soma.doLance(registrosGravados, id, valor));
+        segmento.putInt(posicao + ID, id);
+        segmento.putDouble(posicao + CONTEUDO, valor);
+        segmento.put(posicao, REGISTRO_DE_LANCE);
+        posicao += TAMANHO_DO_LANCE;
+        registrosGravados++;
+    }
+
+    private void garanteEspaco(int tamanho) {
+        if (posicao + tamanho <= tamanhoDoSegmento) {
+            return;
+        }
+        try {
+            sincroniza();
+            canal.close();
+            abreSegmento(numeroDoSegmento + 1, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir um novo segmento do diário.", e);
+        }
+    }
+
+    /**
+     * Abre o segmento para gravar a partir de {@code inicio}, descartando o que houver depois.
+     */
+    private void abreSegmento(int numero, int inicio) throws IOException {
+        Path arquivo = diretorio.resolve(nomeDoSegmento(numero));
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canal.truncate(inicio);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(tamanhoDoSegmento, canal.size()));
+        numeroDoSegmento = numero;
+        posicao = inicio;
+        inicioNaoSincronizado = inicio;
+        lancesNaoSincronizados = 0;
+    }
+
+    /**
+     * Lê os registros de um segmento, na ordem, até o primeiro que não confere: soma de
+     * verificação errada, sequência fora de ordem ou conteúdo recusado pelo destino.
+     *
+     * @return posição logo após o último registro válido
+     */
+    static int percorre(Path arquivo, DestinoDosRegistros destino, SomaDeVerificacao soma) throws IOException {
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer dados = leitura.map(FileChannel.MapMode.READ_ONLY, 0, leitura.size());
+            int limite = dados.limit();
+            int atual = 0;
+
+            while (atual < limite) {
+                byte tipo = dados.get(atual);
+                if (tipo == REGISTRO_DE_LANCE && atual + TAMANHO_DO_LANCE <= limite) {
+                    int id = dados.getInt(atual + ID);
+                    double valor = dados.getDouble(atual + CONTEUDO);
+                    if (dados.getInt(atual + SOMA) != soma.doLance(destino.sequencia(), id, valor)
+                            || !destino.lance(id, valor)) {
+                        break;
+                    }
+                    atual += TAMANHO_DO_LANCE;
+                } else if (tipo == REGISTRO_DE_USUARIO && atual + CABECALHO_DO_USUARIO <= limite) {
+                    int id = dados.getInt(atual + ID);
+                    int tamanho = dados.getShort(atual + CONTEUDO);
+                    if (tamanho < 0 || atual + CABECALHO_DO_USUARIO + tamanho > limite) {
+                        break;
+                    }
+                    byte[] bytes = new byte[tamanho];
+                    dados.get(atual + CABECALHO_DO_USUARIO, bytes);
+                    if (dados.getInt(atual + SOMA) != soma.doUsuario(destino.sequencia(), id, bytes)
+                            || !destino.usuario(id, bytes)) {
+                        break;
+                    }
+                    atual += CABECALHO_DO_USUARIO + tamanho;
+                } else {
+                    // espaço ainda não usado do segmento, ou registro interrompido no meio
+                    break;
+                }
+            }
+            return atual;
+        }
+    }
+
+    /**
+     * Recebe os registros lidos de um segmento. Cada registro aceito avança a sequência.
+     */
+    interface DestinoDosRegistros {
+
+        /**
+         * @return número de sequência esperado para o próximo registro
+         */
+        int sequencia();
+
+        /**
+         * @return se o registro é coerente com os anteriores e foi aplicado
+         */
+        boolean usuario(int id, byte[] nome) throws IOException;
+
+        /**
+         * @return se o registro é coerente com os anteriores e foi aplicado
+         */
+        boolean lance(int id, double valor) throws IOException;
+    }
+
+    /**
+     * CRC32C de um registro, calculado sobre a sequência, o tipo e o conteúdo.
+     * Não é seguro entre threads; cada leitor ou escritor tem a sua.
+     */
+    static final class SomaDeVerificacao {
+
+        private final CRC32C crc = new CRC32C();
+        private final ByteBuffer rascunho = ByteBuffer.allocate(Integer.BYTES + TAMANHO_DO_LANCE);
+
+        int doLance(int sequencia, int id, double valor) {
+            rascunho.clear();
+            rascunho.putInt(sequencia).put(REGISTRO_DE_LANCE).putInt(id).putDouble(valor).flip();
+            crc.reset();
+            crc.update(rascunho);
+            return (int) crc.getValue();
+        }
+
+        int doUsuario(int sequencia, int id, byte[] nome) {
+            rascunho.clear();
+            rascunho.putInt(sequencia).put(REGISTRO_DE_USUARIO).putInt(id).putShort((short) nome.length).flip();
+            crc.reset();
+            crc.update(rascunho);
+            crc.update(nome);
+            return (int) crc.getValue();
+        }
+    }
+
+    /**
+     * Reproduz no leilão os registros dos segmentos posteriores à fotografia. Os lances são
+     * restaurados sem reaplicar as regras, pois já foram aceitos uma vez.
+     */
+    private class Reproducao implements DestinoDosRegistros {
+
+        @Override
+        public int sequencia() {
+            return registrosGravados;
+        }
+
+        @Override
+        public boolean usuario(int id, byte[] nome) {
+            if (id != usuarios.tamanho() || usuarios.idDe(new Usuario(new String(nome, StandardCharsets.UTF_8))) != id) {
+                return false;
+            }
+            registrosGravados++;
+            return true;
+        }
+
+        @Override
+        public boolean lance(int id, double valor) {
+            if (id < 0 || id >= usuarios.tamanho() || !(valor > 0)) {
+                return false;
+            }
+            Lance lance = new Lance(usuarios.porId(id), valor);
+            leilao.restaura(lance);
+            avaliador.lanceAceito(leilao, lance, leilao.tamanho() - 1);
+            registrosGravados++;
+            return true;
+        }
+    }
+
+    static void apagaAnterioresA(Path diretorio, int primeiroSegmento) throws IOException {
+        for (Path segmento : arquivosDe(diretorio, PREFIXO, SUFIXO)) {
+            if (numeroDe(segmento, PREFIXO, SUFIXO) < primeiroSegmento) {
+                Files.delete(segmento);
+            }
+        }
+        for (Path fotografia : arquivosDe(diretorio, PREFIXO_DA_FOTOGRAFIA, SUFIXO_DA_FOTOGRAFIA)) {
+            if (numeroDe(fotografia, PREFIXO_DA_FOTOGRAFIA, SUFIXO_DA_FOTOGRAFIA) < primeiroSegmento) {
+                Files.delete(fotografia);
+            }
+        }
+    }
+
+    private static List<Path> arquivosDe(Path diretorio, String prefixo, String sufixo) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(arquivo -> {
+                        String nome = arquivo.getFileName().toString();
+                        return nome.startsWith(prefixo) && nome.endsWith(sufixo);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int numeroDe(Path arquivo, String prefixo, String sufixo) {
+        String nome = arquivo.getFileName().toString();
+        return Integer.parseInt(nome.substring(prefixo.length(), nome.length() - sufixo.length()));
+    }
+
+    static String nomeDoSegmento(int numero) {
+        return String.format("%s%06d%s", PREFIXO, numero, SUFIXO);
+    }
+
+    static String nomeDaFotografia(int primeiroSegmento) {
+        return String.format("%s%06d%s", PREFIXO_DA_FOTOGRAFIA, primeiroSegmento, SUFIXO_DA_FOTOGRAFIA);
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.persio;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Como os intervalos entre os lances de um licitante simulado são sorteados.
+ */
+public enum DistribuicaoDeChegada {
+
+    /** Sempre o intervalo médio. */
+    CONSTANTE {
+        @Override
+        long sorteiaIntervalo(long mediaEmNanos, ThreadLocalRandom aleatorio) {
+            return mediaEmNanos;
+        }
+    },
+
+    /** Uniforme entre zero e o dobro da média. */
+    UNIFORME {
+        @Override
+        long sorteiaIntervalo(long mediaEmNanos, ThreadLocalRandom aleatorio) {
+            return (long) (aleatorio.nextDouble() * 2 * mediaEmNanos);
+        }
+    },
+
+    /** Exponencial: chegadas de Poisson, com rajadas e pausas. */
+    EXPONENCIAL {
+        @Override
+        long sorteiaIntervalo(long mediaEmNanos, ThreadLocalRandom aleatorio) {
+            return (long) (-Math.log(1.0 - aleatorio.nextDouble()) * mediaEmNanos);
+        }
+    };
+
+    abstract long sorteiaIntervalo(long mediaEmNanos, ThreadLocalRandom aleatorio);
+}
@@ -0,0 +1,91 @@
+package br.com.persio;
+
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Encerra leilões no prazo: agenda o fechamento em uma {@link RodaDeTempo} e, quando o
+ * prazo chega, congela o leilão, avalia os lances e avisa o ouvinte.
+ *
+ * <p>Só o fechamento roda na thread da roda, que precisa de tarefas curtas; a avaliação,
+ * que percorre os lances, e o aviso ao ouvinte rodam no executor. Um {@link Leilao} comum
+ * não é seguro entre threads; se outras threads dão lances nele, use
+ * {@link LeilaoConcorrente} ou registre o leilão por uma {@link CasaDeLeiloes}.</p>
+ */
+public class EncerradorDeLeiloes {
+
+    private final RodaDeTempo roda;
+    private final Executor executor;
+
+    public EncerradorDeLeiloes(RodaDeTempo roda) {
+        this(roda, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor onde rodam a avaliação e o aviso de cada leilão encerrado
+     */
+    public EncerradorDeLeiloes(RodaDeTempo roda, Executor executor) {
+        if (roda == null) {
+            throw new IllegalArgumentException("Roda de tempo não pode ser nula.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor não pode ser nulo.");
+        }
+        this.roda = roda;
+        this.executor = executor;
+    }
+
+    /**
+     * Agenda o encerramento do leilão no seu {@link Leilao#getPrazo() prazo}.
+     */
+    public Agendamento agenda(Leilao leilao, OuvinteDeEncerramento ouvinte) {
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        if (leilao.getPrazo() == null) {
+            throw new IllegalArgumentException("Leilão não tem prazo de encerramento.");
+        }
+        verificaOuvinte(ouvinte);
+
+        return roda.agenda(() -> {
+            leilao.encerra();
+            avisa(leilao, ouvinte);
+        }, leilao.getPrazo());
+    }
+
+    /**
+     * Agenda o encerramento de um leilão da casa; no prazo ele é retirado da casa por
+     * {@link CasaDeLeiloes#encerra(String)}, que o congela sob o lock da sua faixa.
+     */
+    public Agendamento agenda(CasaDeLeiloes casa, String id, Instant prazo, OuvinteDeEncerramento ouvinte) {
+        if (casa == null) {
+            throw new IllegalArgumentException("Casa de leilões não pode ser nula.");
+        }
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Id do leilão não pode ser vazio ou nulo.");
+        }
+        verificaOuvinte(ouvinte);
+
+        return roda.agenda(() -> avisa(casa.encerra(id), ouvinte), prazo);
+    }
+
+    private void avisa(Leilao leilao, OuvinteDeEncerramento ouvinte) {
+        executor.execute(() -> ouvinte.leilaoEncerrado(leilao, avalia(leilao)));
+    }
+
+    private static Avaliador avalia(Leilao leilao) {
+        if (leilao.lances().tamanho() == 0) {
+            return null;
+        }
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+        return avaliador;
+    }
+
+    private static void verificaOuvinte(OuvinteDeEncerramento ouvinte) {
+        if (ouvinte == null) {
+            throw new IllegalArgumentException("Ouvinte não pode ser nulo.");
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.persio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fotografia incremental de um {@link DiarioDeLances}: os lances dos segmentos já fechados
+ * são acrescentados a colunas que só crescem ({@code colunas-ids.bin},
+ * {@code colunas-valores.bin} e os nomes em {@code colunas-usuarios.bin}), e um resumo
+ * pequeno ({@code fotografia-NNNNNN.bin}) diz até onde as colunas valem, junto com o último
+ * valor, a contagem de lances de cada usuário e os agregados de um {@link Avaliador}.
+ *
+ * <p>Cada fotografia só lê os segmentos novos e só escreve o que eles acrescentam, então
+ * o custo total é proporcional aos lances, não ao quadrado deles. A recuperação lê o resumo
+ * e os nomes e mapeia as colunas sem carregá-las, de modo que o trabalho dela é limitado
+ * pelo intervalo entre fotografias.</p>
+ *
+ * <p>Depois de criada, é usada por uma única thread de cada vez (a que fotografa).</p>
+ */
+final class FotografiaDoDiario implements DiarioDeLances.DestinoDosRegistros {
+
+    private static final int ASSINATURA = 0x4C454932;
+
+    private static final String IDS = "colunas-ids.bin";
+    private static final String VALORES = "colunas-valores.bin";
+    private static final String NOMES = "colunas-usuarios.bin";
+
+    private static final int LANCES_POR_ESCRITA = 8192;
+    private static final int MAXIMO_DE_LANCES = Integer.MAX_VALUE / Double.BYTES;
+
+    private final Path diretorio;
+    private final RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+    private final DiarioDeLances.SomaDeVerificacao soma = new DiarioDeLances.SomaDeVerificacao();
+
+    private int primeiroSegmento;
+    private int quantidadeDeUsuarios;
+    private int quantidadeDeLances;
+    private long bytesDosNomes;
+    private double ultimoValor;
+    private int[] lancesPorId = new int[16];
+    private Avaliador avaliador = new Avaliador();
+
+    // lances e nomes lidos dos segmentos e ainda não escritos nas colunas
+    private FileChannel ids;
+    private FileChannel valores;
+    private FileChannel nomes;
+    private final ByteBuffer idsPendentes = ByteBuffer.allocate(LANCES_POR_ESCRITA * Integer.BYTES);
+    private final ByteBuffer valoresPendentes = ByteBuffer.allocate(LANCES_POR_ESCRITA * Double.BYTES);
+    private final ByteBuffer nomesPendentes = ByteBuffer.allocate(64 * 1024);
+    private int lancesNasColunas;
+    private long bytesNasColunas;
+
+    private Exception falha;
+
+    /**
+     * Fotografia vazia, para um diário que ainda não foi fotografado.
+     */
+    FotografiaDoDiario(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Lê o resumo e os nomes dos usuários e descarta das colunas o que passar do resumo,
+     * sobra de uma fotografia interrompida antes de gravá-lo.
+     */
+    static FotografiaDoDiario le(Path diretorio, Path resumo) throws IOException {
+        FotografiaDoDiario fotografia = new FotografiaDoDiario(diretorio);
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(resumo)))) {
+            if (entrada.readInt() != ASSINATURA) {
+                throw new IOException("Arquivo " + resumo + " não é uma fotografia de leilão.");
+            }
+            fotografia.primeiroSegmento = entrada.readInt();
+            fotografia.quantidadeDeUsuarios = entrada.readInt();
+            fotografia.bytesDosNomes = entrada.readLong();
+            fotografia.quantidadeDeLances = entrada.readInt();
+            fotografia.ultimoValor = entrada.readDouble();
+            fotografia.lancesPorId = new int[Math.max(16, fotografia.quantidadeDeUsuarios)];
+            for (int id = 0; id < fotografia.quantidadeDeUsuarios; id++) {
+                fotografia.lancesPorId[id] = entrada.readInt();
+            }
+            fotografia.avaliador = Avaliador.le(entrada);
+        }
+
+        fotografia.leNomes();
+        fotografia.lancesNasColunas = fotografia.quantidadeDeLances;
+        fotografia.bytesNasColunas = fotografia.bytesDosNomes;
+        trunca(diretorio.resolve(IDS), (long) fotografia.quantidadeDeLances * Integer.BYTES);
+        trunca(diretorio.resolve(VALORES), (long) fotografia.quantidadeDeLances * Double.BYTES);
+        trunca(diretorio.resolve(NOMES), fotografia.bytesDosNomes);
+        return fotografia;
+    }
+
+    private void leNomes() throws IOException {
+        Path arquivo = diretorio.resolve(NOMES);
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            for (int id = 0; id < quantidadeDeUsuarios; id++) {
+                byte[] nome = new byte[entrada.readShort()];
+                entrada.readFully(nome);
+                if (usuarios.idDe(new Usuario(new String(nome, StandardCharsets.UTF_8))) != id) {
+                    throw new IOException("Fotografia corrompida: usuário repetido em " + arquivo + ".");
+                }
+            }
+        }
+    }
+
+    private static void trunca(Path arquivo, long tamanho) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (canal.size() < tamanho) {
+                throw new IOException("Fotografia incompleta: " + arquivo + " é menor que o resumo indica.");
+            }
+            canal.truncate(tamanho);
+        }
+    }
+
+    /**
+     * @return os lances da fotografia, lidos das colunas mapeadas; os usuários são os do
+     *         registro do diário, que tem os mesmos ids
+     */
+    LancesFotografados mapeia(RegistroDeUsuarios usuariosDoDiario) throws IOException {
+        MappedByteBuffer colunaDeIds = mapeia(IDS, (long) quantidadeDeLances * Integer.BYTES);
+        MappedByteBuffer colunaDeValores = mapeia(VALORES, (long) quantidadeDeLances * Double.BYTES);
+        if (quantidadeDeLances > 0 && colunaDeValores.getDouble((quantidadeDeLances - 1) * Double.BYTES) != ultimoValor) {
+            throw new IOException("Fotografia corrompida: o último valor não confere com o resumo.");
+        }
+        return new LancesFotografados(colunaDeIds, colunaDeValores, quantidadeDeLances, usuariosDoDiario,
+                Arrays.copyOf(lancesPorId, quantidadeDeUsuarios));
+    }
+
+    private MappedByteBuffer mapeia(String nome, long tamanho) throws IOException {
+        try (FileChannel leitura = FileChannel.open(diretorio.resolve(nome), StandardOpenOption.READ)) {
+            return leitura.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+        }
+    }
+
+    /**
+     * Acrescenta às colunas os lances dos segmentos ainda não fotografados, anteriores a
+     * {@code ateOSegmento}, grava o resumo e apaga os segmentos e resumos que ele substitui.
+     * Depois de uma falha, a fotografia fica inutilizável: as colunas podem ter sobras que
+     * só a próxima recuperação descarta.
+     */
+    void dobra(int ateOSegmento) throws IOException {
+        if (falha != null) {
+            throw new IOException("Uma fotografia anterior do diário falhou.", falha);
+        }
+        try {
+            for (int numero = primeiroSegmento; numero < ateOSegmento; numero++) {
+                Path segmento = diretorio.resolve(DiarioDeLances.nomeDoSegmento(numero));
+                if (Files.exists(segmento)) {
+                    DiarioDeLances.percorre(segmento, this, soma);
+                }
+            }
+            descarrega();
+            gravaResumo(ateOSegmento);
+            primeiroSegmento = ateOSegmento;
+            DiarioDeLances.apagaAnterioresA(diretorio, ateOSegmento);
+        } catch (IOException | RuntimeException e) {
+            falha = e;
+            throw e;
+        }
+    }
+
+    @Override
+    public int sequencia() {
+        return quantidadeDeUsuarios + quantidadeDeLances;
+    }
+
+    @Override
+    public boolean usuario(int id, byte[] nome) throws IOException {
+        if (id != quantidadeDeUsuarios
+                || usuarios.idDe(new Usuario(new String(nome, StandardCharsets.UTF_8))) != id) {
+            return false;
+        }
+        if (nomesPendentes.remaining() < Short.BYTES + nome.length) {
+            descarregaNomes();
+        }
+        nomesPendentes.putShort((short) nome.length).put(nome);
+        bytesDosNomes += Short.BYTES + nome.length;
+        if (id == lancesPorId.length) {
+            lancesPorId = Arrays.copyOf(lancesPorId, id + (id >> 1));
+        }
+        quantidadeDeUsuarios++;
+        return true;
+    }
+
+    @Override
+    public boolean lance(int id, double valor) throws IOException {
+        if (id < 0 || id >= quantidadeDeUsuarios || !(valor > 0)) {
+            return false;
+        }
+        if (quantidadeDeLances == MAXIMO_DE_LANCES) {
+            throw new IOException("Leilão grande demais para a fotografia.");
+        }
+        if (!idsPendentes.hasRemaining()) {
+            descarregaLances();
+        }
+        idsPendentes.putInt(id);
+        valoresPendentes.putDouble(valor);
+        lancesPorId[id]++;
+        ultimoValor = valor;
+        avaliador.lanceAceito(null, new Lance(usuarios.porId(id), valor), quantidadeDeLances);
+        quantidadeDeLances++;
+        return true;
+    }
+
+    /**
+     * Fecha as colunas; chamado quando nenhuma fotografia está em andamento.
+     */
+    void fecha() throws IOException {
+        for (FileChannel canal : new FileChannel[] { ids, valores, nomes }) {
+            if (canal != null) {
+                canal.close();
+            }
+        }
+    }
+
+    private void descarrega() throws IOException {
+        descarregaLances();
+        descarregaNomes();
+        if (ids != null) {
+            ids.force(false);
+            valores.force(false);
+            nomes.force(false);
+        }
+    }
+
+    private void descarregaLances() throws IOException {
+        abreColunas();
+        int pendentes = idsPendentes.position() / Integer.BYTES;
+        escreve(ids, idsPendentes, (long) lancesNasColunas * Integer.BYTES);
+        escreve(valores, valoresPendentes, (long) lancesNasColunas * Double.BYTES);
+        lancesNasColunas += pendentes;
+    }
+
+    private void descarregaNomes() throws IOException {
+        abreColunas();
+        long pendentes = nomesPendentes.position();
+        escreve(nomes, nomesPendentes, bytesNasColunas);
+        bytesNasColunas += pendentes;
+    }
+
+    private static void escreve(FileChannel canal, ByteBuffer pendentes, long posicao) throws IOException {
+        pendentes.flip();
+        while (pendentes.hasRemaining()) {
+            posicao += canal.write(pendentes, posicao);
+        }
+        pendentes.clear();
+    }
+
+    private void abreColunas() throws IOException {
+        if (ids == null) {
+            ids = FileChannel.open(diretorio.resolve(IDS), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            valores = FileChannel.open(diretorio.resolve(VALORES), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            nomes = FileChannel.open(diretorio.resolve(NOMES), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * Formato: assinatura, primeiro segmento posterior, quantidade de usuários, bytes dos
+     * nomes, quantidade de lances, último valor, lances por usuário e os agregados do avaliador.
+     */
+    private void gravaResumo(int ateOSegmento) throws IOException {
+        Path destino = diretorio.resolve(DiarioDeLances.nomeDaFotografia(ateOSegmento));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        try (FileChannel escrita = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(escrita)));
+            saida.writeInt(ASSINATURA);
+            saida.writeInt(ateOSegmento);
+            saida.writeInt(quantidadeDeUsuarios);
+            saida.writeLong(bytesDosNomes);
+            saida.writeInt(quantidadeDeLances);
+            saida.writeDouble(ultimoValor);
+            for (int id = 0; id < quantidadeDeUsuarios; id++) {
+                saida.writeInt(lancesPorId[id]);
+            }
+            avaliador.grava(saida);
+            saida.flush();
+            escrita.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int getPrimeiroSegmento() {
+        return primeiroSegmento;
+    }
+
+    int getQuantidadeDeUsuarios() {
+        return quantidadeDeUsuarios;
+    }
+
+    int getQuantidadeDeLances() {
+        return quantidadeDeLances;
+    }
+
+    Usuario usuario(int id) {
+        return usuarios.porId(id);
+    }
+
+    Avaliador getAvaliador() {
+        return avaliador;
+    }
+
+    Exception getFalha() {
+        return falha;
+    }
+}
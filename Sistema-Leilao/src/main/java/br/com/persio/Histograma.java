@@ -0,0 +1,312 @@
+package br.com.persio;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma de memória fixa com faixas logarítmicas, no estilo do HdrHistogram:
+ * cada potência de 2 entre o menor e o maior valor rastreado é dividida em
+ * subfaixas iguais, de modo que o erro relativo de um percentil é limitado pela
+ * precisão escolhida, qualquer que seja a ordem de grandeza do valor.
+ *
+ * <p>Registrar um valor é O(1). Percentis percorrem as faixas, não os valores,
+ * então custam o mesmo com mil ou com um bilhão de registros. Média e desvio padrão
+ * são mantidos incrementalmente (Welford). Dois histogramas com a mesma configuração
+ * podem ser combinados, por exemplo para um relatório de todos os leilões de uma
+ * categoria. Não é seguro entre threads.</p>
+ *
+ * <p>As contagens de cada potência de 2 só são alocadas quando recebem o primeiro
+ * valor: a memória nunca passa do limite da configuração, mas um leilão cujos lances
+ * ficam em poucas ordens de grandeza ocupa poucos kilobytes.</p>
+ */
+public class Histograma {
+
+    private final double menorValor;
+    private final double maiorValor;
+    private final int digitosSignificativos;
+
+    private final int bitsDeSubfaixa;
+    private final int menorExpoente;
+    private final int quantidadeDeFaixas;
+    // uma linha por potência de 2, criada no primeiro valor que cai nela
+    private final long[][] contagens;
+
+    private long quantidade;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+    private double media;
+    private double somaDosQuadradosDosDesvios;
+
+    /**
+     * Valores de 0,01 a 10 bilhões, com 2 dígitos significativos.
+     */
+    public Histograma() {
+        this(0.01, 1e10, 2);
+    }
+
+    /**
+     * @param menorValor            menor valor distinguido; valores abaixo caem na primeira faixa
+     * @param maiorValor            maior valor distinguido; valores acima caem na última faixa
+     * @param digitosSignificativos precisão dos percentis, de 1 a 4 dígitos
+     */
+    public Histograma(double menorValor, double maiorValor, int digitosSignificativos) {
+        if (!(menorValor > 0) || !(maiorValor > menorValor) || Double.isInfinite(maiorValor)) {
+            throw new IllegalArgumentException("A faixa do histograma deve ser positiva e crescente.");
+        }
+        if (digitosSignificativos < 1 || digitosSignificativos > 4) {
+            throw new IllegalArgumentException("Os dígitos significativos devem estar entre 1 e 4.");
+        }
+        this.menorValor = menorValor;
+        this.maiorValor = maiorValor;
+        this.digitosSignificativos = digitosSignificativos;
+
+        // subfaixas suficientes para separar valores que diferem em 1 no último dígito
+        this.bitsDeSubfaixa = 64 - Long.numberOfLeadingZeros((long) Math.pow(10, digitosSignificativos) - 1);
+        this.menorExpoente = Math.getExponent(menorValor);
+        int oitavas = Math.getExponent(maiorValor) - menorExpoente + 1;
+        this.quantidadeDeFaixas = oitavas << bitsDeSubfaixa;
+        this.contagens = new long[oitavas][];
+    }
+
+    private Histograma(Histograma original) {
+        this.menorValor = original.menorValor;
+        this.maiorValor = original.maiorValor;
+        this.digitosSignificativos = original.digitosSignificativos;
+        this.bitsDeSubfaixa = original.bitsDeSubfaixa;
+        this.menorExpoente = original.menorExpoente;
+        this.quantidadeDeFaixas = original.quantidadeDeFaixas;
+        this.contagens = new long[original.contagens.length][];
+        for (int i = 0; i < contagens.length; i++) {
+            if (original.contagens[i] != null) {
+                contagens[i] = original.contagens[i].clone();
+            }
+        }
+        this.quantidade = original.quantidade;
+        this.minimo = original.minimo;
+        this.maximo = original.maximo;
+        this.media = original.media;
+        this.somaDosQuadradosDosDesvios = original.somaDosQuadradosDosDesvios;
+    }
+
+    public void registra(double valor) {
+        if (Double.isNaN(valor)) {
+            throw new IllegalArgumentException("Valor do histograma não pode ser NaN.");
+        }
+        int faixa = faixaDe(valor);
+        oitava(faixa >>> bitsDeSubfaixa)[faixa & ((1 << bitsDeSubfaixa) - 1)]++;
+        quantidade++;
+        if (valor < minimo) {
+            minimo = valor;
+        }
+        if (valor > maximo) {
+            maximo = valor;
+        }
+        double desvio = valor - media;
+        media += desvio / quantidade;
+        somaDosQuadradosDosDesvios += desvio * (valor - media);
+    }
+
+    /**
+     * Acrescenta a este histograma todos os valores de outro com a mesma configuração.
+     */
+    public void combina(Histograma outro) {
+        if (outro == null) {
+            throw new IllegalArgumentException("Histograma não pode ser nulo.");
+        }
+        if (outro.menorValor != menorValor || outro.maiorValor != maiorValor
+                || outro.digitosSignificativos != digitosSignificativos) {
+            throw new IllegalArgumentException("Só é possível combinar histogramas com a mesma configuração.");
+        }
+        if (outro.quantidade == 0) {
+            return;
+        }
+
+        for (int i = 0; i < contagens.length; i++) {
+            long[] doOutro = outro.contagens[i];
+            if (doOutro != null) {
+                long[] destas = oitava(i);
+                for (int j = 0; j < destas.length; j++) {
+                    destas[j] += doOutro[j];
+                }
+            }
+        }
+        long total = quantidade + outro.quantidade;
+        double diferenca = outro.media - media;
+        somaDosQuadradosDosDesvios += outro.somaDosQuadradosDosDesvios
+                + diferenca * diferenca * ((double) quantidade * outro.quantidade / total);
+        media += diferenca * outro.quantidade / total;
+        quantidade = total;
+        minimo = Math.min(minimo, outro.minimo);
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    public Histograma copia() {
+        return new Histograma(this);
+    }
+
+    public void limpa() {
+        Arrays.fill(contagens, null);
+        quantidade = 0;
+        minimo = Double.POSITIVE_INFINITY;
+        maximo = Double.NEGATIVE_INFINITY;
+        media = 0;
+        somaDosQuadradosDosDesvios = 0;
+    }
+
+    /**
+     * Grava a configuração, as estatísticas e as contagens das oitavas alocadas.
+     */
+    void grava(DataOutput saida) throws IOException {
+        saida.writeDouble(menorValor);
+        saida.writeDouble(maiorValor);
+        saida.writeInt(digitosSignificativos);
+        saida.writeLong(quantidade);
+        saida.writeDouble(minimo);
+        saida.writeDouble(maximo);
+        saida.writeDouble(media);
+        saida.writeDouble(somaDosQuadradosDosDesvios);
+        for (long[] oitava : contagens) {
+            saida.writeBoolean(oitava != null);
+            if (oitava != null) {
+                for (long contagem : oitava) {
+                    saida.writeLong(contagem);
+                }
+            }
+        }
+    }
+
+    /**
+     * Substitui o conteúdo deste histograma pelo gravado por {@link #grava(DataOutput)}
+     * em um histograma com a mesma configuração.
+     */
+    void restaura(DataInput entrada) throws IOException {
+        if (entrada.readDouble() != menorValor || entrada.readDouble() != maiorValor
+                || entrada.readInt() != digitosSignificativos) {
+            throw new IOException("Histograma gravado com outra configuração.");
+        }
+        quantidade = entrada.readLong();
+        minimo = entrada.readDouble();
+        maximo = entrada.readDouble();
+        media = entrada.readDouble();
+        somaDosQuadradosDosDesvios = entrada.readDouble();
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = null;
+            if (entrada.readBoolean()) {
+                long[] oitava = oitava(i);
+                for (int j = 0; j < oitava.length; j++) {
+                    oitava[j] = entrada.readLong();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param percentil de 0 a 100
+     * @return um valor cujo erro relativo em relação ao percentil exato é limitado pela
+     *         precisão do histograma, dentro da faixa rastreada
+     */
+    public double percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("O percentil deve estar entre 0 e 100.");
+        }
+        if (quantidade == 0) {
+            throw new IllegalStateException("O histograma está vazio.");
+        }
+
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100 * quantidade));
+        // as pontas são guardadas exatas
+        if (posicao == 1) {
+            return minimo;
+        }
+        if (posicao == quantidade) {
+            return maximo;
+        }
+
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            long[] oitava = contagens[i];
+            if (oitava == null) {
+                continue;
+            }
+            for (int j = 0; j < oitava.length; j++) {
+                acumulado += oitava[j];
+                if (acumulado >= posicao) {
+                    return Math.min(maximo, Math.max(minimo, meioDaFaixa((i << bitsDeSubfaixa) + j)));
+                }
+            }
+        }
+        return maximo;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * @return o desvio padrão populacional dos valores registrados
+     */
+    public double getDesvioPadrao() {
+        return quantidade == 0 ? 0.0 : Math.sqrt(somaDosQuadradosDosDesvios / quantidade);
+    }
+
+    int getQuantidadeDeFaixas() {
+        return quantidadeDeFaixas;
+    }
+
+    int getOitavasAlocadas() {
+        int alocadas = 0;
+        for (long[] oitava : contagens) {
+            if (oitava != null) {
+                alocadas++;
+            }
+        }
+        return alocadas;
+    }
+
+    private long[] oitava(int indice) {
+        long[] oitava = contagens[indice];
+        if (oitava == null) {
+            oitava = new long[1 << bitsDeSubfaixa];
+            contagens[indice] = oitava;
+        }
+        return oitava;
+    }
+
+    /**
+     * O expoente e os primeiros bits da mantissa do double formam o índice da faixa.
+     */
+    private int faixaDe(double valor) {
+        if (!(valor > menorValor)) {
+            return 0;
+        }
+        if (valor >= maiorValor) {
+            return quantidadeDeFaixas - 1;
+        }
+        int expoente = Math.getExponent(valor);
+        int subfaixa = (int) ((Double.doubleToRawLongBits(valor) >>> (52 - bitsDeSubfaixa))
+                & ((1 << bitsDeSubfaixa) - 1));
+        int faixa = ((expoente - menorExpoente) << bitsDeSubfaixa) + subfaixa;
+        return Math.min(faixa, quantidadeDeFaixas - 1);
+    }
+
+    private double meioDaFaixa(int faixa) {
+        int expoente = (faixa >>> bitsDeSubfaixa) + menorExpoente;
+        int subfaixa = faixa & ((1 << bitsDeSubfaixa) - 1);
+        double largura = Math.scalb(1.0, expoente - bitsDeSubfaixa);
+        return Math.scalb(1.0, expoente) + (subfaixa + 0.5) * largura;
+    }
+}
@@ -0,0 +1,248 @@
+package br.com.persio;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice secundário dos lances de cada usuário em todos os leilões que acompanha.
+ * É mantido por ouvintes: cada lance aceito entra no histórico do seu usuário, um
+ * buffer circular em ordem de tempo com quatro colunas (id do leilão, posição, lance,
+ * instante). O índice guarda o próprio {@link Lance} e o id do leilão, e não o leilão:
+ * ler o lance de uma referência não percorre o leilão, e um leilão descartado não fica
+ * preso aqui.
+ *
+ * <p>Uma consulta acha o primeiro lance do período por busca binária e copia só os
+ * lances do resultado, sem percorrer leilões nem outros usuários. A memória é limitada
+ * pela retenção: cada histórico guarda no máximo {@code maximoPorUsuario} lances e
+ * descarta os mais antigos que a janela de retenção sempre que recebe um novo;
+ * {@link #expurga()} faz o mesmo para os usuários que pararam de dar lances.</p>
+ */
+public class IndiceDeLancesPorUsuario {
+
+    private final long retencaoEmMillis;
+    private final int maximoPorUsuario;
+    private final Clock relogio;
+    private final ConcurrentHashMap<Usuario, Historico> historicos = new ConcurrentHashMap<>();
+
+    /**
+     * Retenção de 24 horas e até 1000 lances por usuário.
+     */
+    public IndiceDeLancesPorUsuario() {
+        this(Duration.ofHours(24), 1000);
+    }
+
+    public IndiceDeLancesPorUsuario(Duration retencao, int maximoPorUsuario) {
+        this(retencao, maximoPorUsuario, Clock.systemUTC());
+    }
+
+    IndiceDeLancesPorUsuario(Duration retencao, int maximoPorUsuario, Clock relogio) {
+        if (retencao == null || retencao.isNegative() || retencao.isZero()) {
+            throw new IllegalArgumentException("A retenção deve ser positiva.");
+        }
+        if (maximoPorUsuario <= 0) {
+            throw new IllegalArgumentException("O máximo de lances por usuário deve ser maior que zero.");
+        }
+        this.retencaoEmMillis = retencao.toMillis();
+        this.maximoPorUsuario = maximoPorUsuario;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Passa a indexar os lances aceitos pelo leilão a partir de agora.
+     *
+     * @param idDoLeilao id que identifica o leilão nas {@link ReferenciaDeLance referências}
+     */
+    public void acompanha(String idDoLeilao, Leilao leilao) {
+        if (idDoLeilao == null || idDoLeilao.isBlank()) {
+            throw new IllegalArgumentException("Id do leilão não pode ser vazio ou nulo.");
+        }
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        leilao.adicionaOuvinte(ouvinteDe(idDoLeilao));
+    }
+
+    /**
+     * Passa a indexar os lances de todos os leilões da casa, inclusive os abertos depois,
+     * identificados pelo id com que foram abertos.
+     */
+    public void acompanha(CasaDeLeiloes casa) {
+        if (casa == null) {
+            throw new IllegalArgumentException("Casa de leilões não pode ser nula.");
+        }
+        casa.adicionaOuvintePorId(this::ouvinteDe);
+    }
+
+    private OuvinteDeLances ouvinteDe(String idDoLeilao) {
+        return (leilao, lance, posicao) -> indexa(idDoLeilao, lance, posicao);
+    }
+
+    private void indexa(String idDoLeilao, Lance lance, int posicao) {
+        long agora = relogio.millis();
+        // dentro do compute: expurga não remove o histórico entre a busca e o acréscimo
+        historicos.compute(lance.getUsuario(), (usuario, historico) -> {
+            if (historico == null) {
+                historico = new Historico();
+            }
+            historico.adiciona(idDoLeilao, posicao, lance, agora, agora - retencaoEmMillis, maximoPorUsuario);
+            return historico;
+        });
+    }
+
+    /**
+     * @return os lances do usuário aceitos a partir do instante, do mais antigo ao mais novo
+     */
+    public List<ReferenciaDeLance> lancesDe(Usuario usuario, Instant desde) {
+        if (usuario == null || desde == null) {
+            throw new IllegalArgumentException("Usuário e instante não podem ser nulos.");
+        }
+        Historico historico = historicos.get(usuario);
+        if (historico == null) {
+            return Collections.emptyList();
+        }
+        long limite = Math.max(desde.toEpochMilli(), relogio.millis() - retencaoEmMillis);
+        return historico.desde(limite);
+    }
+
+    /**
+     * @return os lances do usuário aceitos no último {@code periodo}
+     */
+    public List<ReferenciaDeLance> lancesDe(Usuario usuario, Duration periodo) {
+        if (periodo == null) {
+            throw new IllegalArgumentException("Período não pode ser nulo.");
+        }
+        return lancesDe(usuario, relogio.instant().minus(periodo));
+    }
+
+    /**
+     * Descarta os lances fora da retenção de todos os usuários e esquece quem ficou sem
+     * nenhum. Deve ser chamado periodicamente, por exemplo por uma {@link RodaDeTempo}.
+     *
+     * @return quantos lances foram descartados
+     */
+    public long expurga() {
+        long limite = relogio.millis() - retencaoEmMillis;
+        long descartados = 0;
+        for (Usuario usuario : historicos.keySet()) {
+            long[] expirados = new long[1];
+            // atômico com indexa: um histórico que acabou de receber um lance não é removido
+            historicos.computeIfPresent(usuario, (u, historico) -> {
+                expirados[0] = historico.expira(limite);
+                return historico.isVazio() ? null : historico;
+            });
+            descartados += expirados[0];
+        }
+        return descartados;
+    }
+
+    public int getQuantidadeDeUsuarios() {
+        return historicos.size();
+    }
+
+    /**
+     * Buffer circular dos lances de um usuário, em colunas, cuja capacidade dobra até o máximo.
+     */
+    private static final class Historico {
+
+        private String[] leiloes = new String[4];
+        private int[] posicoes = new int[4];
+        private Lance[] lances = new Lance[4];
+        private long[] instantes = new long[4];
+        private int inicio;
+        private int tamanho;
+
+        private synchronized void adiciona(String idDoLeilao, int posicao, Lance lance, long instante,
+                                           long limite, int maximo) {
+            expira(limite);
+            if (tamanho == maximo) {
+                descartaOMaisAntigo();
+            } else if (tamanho == leiloes.length) {
+                cresce();
+            }
+
+            // lances de threads diferentes podem chegar com o relógio um pouco fora de ordem
+            if (tamanho > 0) {
+                instante = Math.max(instante, instantes[fisica(tamanho - 1)]);
+            }
+            int i = fisica(tamanho);
+            leiloes[i] = idDoLeilao;
+            posicoes[i] = posicao;
+            lances[i] = lance;
+            instantes[i] = instante;
+            tamanho++;
+        }
+
+        private synchronized List<ReferenciaDeLance> desde(long limite) {
+            int primeiro = primeiroDesde(limite);
+            List<ReferenciaDeLance> resultado = new ArrayList<>(tamanho - primeiro);
+            for (int j = primeiro; j < tamanho; j++) {
+                int i = fisica(j);
+                resultado.add(new ReferenciaDeLance(leiloes[i], posicoes[i], lances[i], instantes[i]));
+            }
+            return resultado;
+        }
+
+        private synchronized int expira(long limite) {
+            int antigos = primeiroDesde(limite);
+            for (int j = 0; j < antigos; j++) {
+                descartaOMaisAntigo();
+            }
+            return antigos;
+        }
+
+        private synchronized boolean isVazio() {
+            return tamanho == 0;
+        }
+
+        // busca binária pelo primeiro lance com instante >= limite
+        private int primeiroDesde(long limite) {
+            int baixo = 0;
+            int alto = tamanho;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (instantes[fisica(meio)] < limite) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+
+        private void descartaOMaisAntigo() {
+            leiloes[inicio] = null;
+            lances[inicio] = null;
+            inicio = (inicio + 1) & (leiloes.length - 1);
+            tamanho--;
+        }
+
+        private void cresce() {
+            int capacidade = leiloes.length * 2;
+            String[] novosLeiloes = new String[capacidade];
+            int[] novasPosicoes = new int[capacidade];
+            Lance[] novosLances = new Lance[capacidade];
+            long[] novosInstantes = new long[capacidade];
+            for (int j = 0; j < tamanho; j++) {
+                int i = fisica(j);
+                novosLeiloes[j] = leiloes[i];
+                novasPosicoes[j] = posicoes[i];
+                novosLances[j] = lances[i];
+                novosInstantes[j] = instantes[i];
+            }
+            leiloes = novosLeiloes;
+            posicoes = novasPosicoes;
+            lances = novosLances;
+            instantes = novosInstantes;
+            inicio = 0;
+        }
+
+        private int fisica(int logica) {
+            return (inicio + logica) & (leiloes.length - 1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Leitor reaproveitável de lances no formato do {@link CodecDeLance}: aponta para uma
+ * posição de um buffer e lê cada campo direto dos bytes, sem copiar nem criar objetos.
+ * Um único leitor pode percorrer um buffer inteiro de lances.
+ *
+ * <p>{@link Leilao#tentaPropor(LanceBinario, int, RegistroDeUsuarios)} valida o lance a partir
+ * deste leitor e só cria o {@link Lance} quando ele é aceito.</p>
+ */
+public final class LanceBinario {
+
+    private ByteBuffer buffer;
+    private int posicao;
+
+    /**
+     * @return este mesmo leitor, apontando para o lance na posição informada
+     */
+    public LanceBinario aponta(ByteBuffer buffer, int posicao) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer não pode ser nulo.");
+        }
+        if (posicao < 0 || posicao > buffer.limit() - CodecDeLance.TAMANHO) {
+            throw new IndexOutOfBoundsException("Não há um lance completo na posição " + posicao + ".");
+        }
+        this.buffer = buffer;
+        this.posicao = posicao;
+        return this;
+    }
+
+    public int getPosicao() {
+        return posicao;
+    }
+
+    public int getIdDoLeilao() {
+        return (int) CodecDeLance.INT.get(buffer, posicao + CodecDeLance.ID_DO_LEILAO);
+    }
+
+    public int getIdDoUsuario() {
+        return (int) CodecDeLance.INT.get(buffer, posicao + CodecDeLance.ID_DO_USUARIO);
+    }
+
+    public long getInstante() {
+        return (long) CodecDeLance.LONG.get(buffer, posicao + CodecDeLance.INSTANTE);
+    }
+
+    public double getValor() {
+        return (double) CodecDeLance.DOUBLE.get(buffer, posicao + CodecDeLance.VALOR);
+    }
+}
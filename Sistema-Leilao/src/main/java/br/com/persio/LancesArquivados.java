@@ -0,0 +1,121 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lances de um leilão arquivado, lidos de um {@link ByteBuffer} direto, fora do heap.
+ * O buffer tem duas colunas: primeiro os valores ({@code double}), depois os ids dos
+ * usuários ({@code int}) no {@link RegistroDeUsuarios} do arquivo. Somente leitura.
+ */
+class LancesArquivados implements ArmazenamentoDeLances {
+
+    private final ByteBuffer colunas;
+    private final int tamanho;
+    private final int inicioDosUsuarios;
+    private final RegistroDeUsuarios usuarios;
+
+    private final List<Lance> visao = new Visao();
+
+    LancesArquivados(ByteBuffer colunas, int tamanho, RegistroDeUsuarios usuarios) {
+        this.colunas = colunas;
+        this.tamanho = tamanho;
+        this.inicioDosUsuarios = tamanho * Double.BYTES;
+        this.usuarios = usuarios;
+    }
+
+    /**
+     * @return quantos bytes as colunas de {@code tamanho} lances ocupam
+     */
+    static int bytesPara(int tamanho) {
+        return tamanho * (Double.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Grava os lances nas colunas do buffer, a partir da posição zero.
+     */
+    static void grava(ArmazenamentoDeLances origem, ByteBuffer destino, RegistroDeUsuarios usuarios) {
+        int tamanho = origem.tamanho();
+        int inicioDosUsuarios = tamanho * Double.BYTES;
+        for (int i = 0; i < tamanho; i++) {
+            Lance lance = origem.lance(i);
+            destino.putDouble(i * Double.BYTES, lance.getValor());
+            destino.putInt(inicioDosUsuarios + i * Integer.BYTES, usuarios.idDe(lance.getUsuario()));
+        }
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public double valor(int posicao) {
+        return colunas.getDouble(verifica(posicao) * Double.BYTES);
+    }
+
+    @Override
+    public Lance lance(int posicao) {
+        return new Lance(usuarios.porId(idDoUsuario(verifica(posicao))), valor(posicao));
+    }
+
+    // um leilão arquivado não recebe lances, então a contagem não precisa de índice
+    @Override
+    public int lancesDo(Usuario usuario) {
+        int id = usuarios.buscaId(usuario);
+        if (id < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (idDoUsuario(i) == id) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int adiciona(Lance lance) {
+        throw new UnsupportedOperationException("Leilão arquivado é somente leitura.");
+    }
+
+    @Override
+    public void reserva(int adicionais) {
+        // nenhum lance novo entra; não há o que reservar
+    }
+
+    @Override
+    public List<Lance> comoLista() {
+        return visao;
+    }
+
+    private int idDoUsuario(int posicao) {
+        return colunas.getInt(inicioDosUsuarios + posicao * Integer.BYTES);
+    }
+
+    private int verifica(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo de " + tamanho + " lances.");
+        }
+        return posicao;
+    }
+
+    /**
+     * Lista somente leitura que materializa cada {@link Lance} ao ser lida.
+     */
+    private class Visao extends AbstractList<Lance> implements RandomAccess {
+
+        @Override
+        public Lance get(int index) {
+            return lance(index);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.persio;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Lances automáticos (por procuração) em um {@link Leilao}: cada usuário informa o
+ * máximo que aceita pagar e o sistema dá lances por ele só quando é preciso.
+ *
+ * <p>As procurações ficam em uma árvore ordenada pelo teto, do maior para o menor; no
+ * empate vence a mais antiga. A cada lance aceito no leilão bastam as duas primeiras
+ * procurações ainda capazes de dar lance: a maior cobre a segunda por um incremento,
+ * limitado ao próprio teto, com um único lance. Assim uma disputa entre procurações
+ * gera um lance real, não uma escalada de lances de um em um, e custa O(log n) no
+ * número de procurações. Os lances passam por {@link Leilao#tentaPropor(Lance)} e
+ * respeitam as regras do leilão; uma procuração cujo usuário esgotou os 5 lances,
+ * ou cujo teto foi superado, é descartada.</p>
+ *
+ * <p>Um lance aceito no leilão não é respondido de dentro do aviso: a resposta fica para
+ * {@link Leilao#depoisDosAvisos(Runnable)}, de modo que os ouvintes registrados depois
+ * deste, como um {@link DiarioDeLances}, recebem o lance manual antes do automático.</p>
+ */
+public class LancesAutomaticos implements OuvinteDeLances {
+
+    private static final Comparator<Procuracao> MAIOR_TETO_PRIMEIRO =
+            Comparator.comparingDouble((Procuracao p) -> p.teto).reversed()
+                    .thenComparingLong(p -> p.ordem);
+
+    private final Leilao leilao;
+    private final double incremento;
+    private final TreeSet<Procuracao> procuracoes = new TreeSet<>(MAIOR_TETO_PRIMEIRO);
+    private final Map<Usuario, Procuracao> porUsuario = new HashMap<>();
+    private long proximaOrdem;
+
+    // os lances dados aqui voltam como avisos do próprio leilão; esses avisos são ignorados
+    private boolean resolvendo;
+    // já há uma resolução esperando o fim do aviso em andamento
+    private boolean agendado;
+
+    /**
+     * Acompanha o leilão com incremento mínimo de 1,0 entre lances automáticos.
+     */
+    public LancesAutomaticos(Leilao leilao) {
+        this(leilao, 1.0);
+    }
+
+    public LancesAutomaticos(Leilao leilao, double incremento) {
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        if (!(incremento > 0) || Double.isInfinite(incremento)) {
+            throw new IllegalArgumentException("O incremento deve ser maior que zero.");
+        }
+        this.leilao = leilao;
+        this.incremento = incremento;
+        leilao.adicionaOuvinte(this);
+    }
+
+    /**
+     * Registra (ou aumenta) o teto do usuário e dá imediatamente os lances que ele exigir.
+     */
+    public synchronized void define(Usuario usuario, double teto) {
+        if (usuario == null) {
+            throw new IllegalArgumentException("Usuário não pode ser nulo.");
+        }
+        if (!(teto > 0) || Double.isInfinite(teto)) {
+            throw new IllegalArgumentException("O teto deve ser maior que zero.");
+        }
+        if (leilao.isEncerrado()) {
+            throw new IllegalArgumentException(ResultadoLance.LEILAO_ENCERRADO.getMensagem());
+        }
+        Procuracao anterior = porUsuario.get(usuario);
+        if (anterior != null) {
+            if (teto <= anterior.teto) {
+                throw new IllegalArgumentException("O novo teto deve ser maior que o anterior.");
+            }
+            procuracoes.remove(anterior);
+        }
+
+        Procuracao procuracao = new Procuracao(usuario, teto, proximaOrdem++);
+        procuracoes.add(procuracao);
+        porUsuario.put(usuario, procuracao);
+        resolve();
+    }
+
+    @Override
+    public synchronized void lanceAceito(Leilao leilao, Lance lance, int posicao) {
+        if (!resolvendo && !agendado) {
+            agendado = true;
+            Leilao.depoisDosAvisos(this::resolveAgendado);
+        }
+    }
+
+    private synchronized void resolveAgendado() {
+        agendado = false;
+        resolve();
+    }
+
+    /**
+     * @return o teto registrado para o usuário, ou {@code null} se ele não tiver
+     *         procuração ativa
+     */
+    public synchronized Double getTeto(Usuario usuario) {
+        Procuracao procuracao = porUsuario.get(usuario);
+        return procuracao == null ? null : procuracao.teto;
+    }
+
+    public synchronized int getQuantidadeDeProcuracoes() {
+        return procuracoes.size();
+    }
+
+    private void resolve() {
+        resolvendo = true;
+        try {
+            while (!leilao.isEncerrado()) {
+                Lance proximo = proximoLance();
+                if (proximo == null) {
+                    return;
+                }
+                ResultadoLance resultado = leilao.tentaPropor(proximo);
+                if (resultado == ResultadoLance.LIMITE_DE_LANCES) {
+                    descarta(porUsuario.get(proximo.getUsuario()));
+                }
+                // aceito ou superado por um lance de outra thread: recalcula sobre o novo topo
+            }
+        } finally {
+            resolvendo = false;
+        }
+    }
+
+    /**
+     * @return o lance que a maior procuração precisa dar para liderar, ou {@code null}
+     *         se nenhum lance automático for necessário
+     */
+    private Lance proximoLance() {
+        Lance ultimo = leilao.ultimoLance();
+        double preco = ultimo == null ? 0 : ultimo.getValor();
+
+        // as duas maiores procurações que ainda podem dar lance acima do preço
+        Procuracao maior = null;
+        Procuracao segunda = null;
+        Iterator<Procuracao> iterador = procuracoes.iterator();
+        while (segunda == null && iterador.hasNext()) {
+            Procuracao procuracao = iterador.next();
+            if (procuracao.teto <= preco) {
+                // o preço só sobe: esta e todas as seguintes nunca mais darão lance
+                descartaAPartirDe(procuracao);
+                break;
+            }
+            if (leilao.lancesDo(procuracao.usuario) >= Leilao.LIMITE_DE_LANCES_POR_USUARIO) {
+                iterador.remove();
+                porUsuario.remove(procuracao.usuario);
+            } else if (maior == null) {
+                maior = procuracao;
+            } else {
+                segunda = procuracao;
+            }
+        }
+
+        if (maior == null) {
+            return null;
+        }
+        boolean lidera = ultimo != null && ultimo.getUsuario().equals(maior.usuario);
+        if (lidera && segunda == null) {
+            return null;
+        }
+        // cobre a segunda (ou o lance atual) por um incremento, sem passar do próprio teto;
+        // com tetos iguais o lance fica no teto e a procuração mais antiga vence
+        double aCobrir = segunda == null ? preco : segunda.teto;
+        return new Lance(maior.usuario, Math.min(maior.teto, aCobrir + incremento));
+    }
+
+    private void descartaAPartirDe(Procuracao primeira) {
+        Iterator<Procuracao> iterador = procuracoes.tailSet(primeira, true).iterator();
+        while (iterador.hasNext()) {
+            porUsuario.remove(iterador.next().usuario);
+            iterador.remove();
+        }
+    }
+
+    private void descarta(Procuracao procuracao) {
+        if (procuracao != null) {
+            procuracoes.remove(procuracao);
+            porUsuario.remove(procuracao.usuario);
+        }
+    }
+
+    private static final class Procuracao {
+
+        private final Usuario usuario;
+        private final double teto;
+        private final long ordem;
+
+        private Procuracao(Usuario usuario, double teto, long ordem) {
+            this.usuario = usuario;
+            this.teto = teto;
+            this.ordem = ordem;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.persio;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Armazenamento em colunas de tipos primitivos: os valores ficam em um {@code double[]}
+ * contíguo e cada usuário vira um identificador {@code int}, atribuído na primeira vez
+ * que ele dá um lance. Os objetos {@link Lance} são criados apenas quando lidos.
+ */
+class LancesColunares implements ArmazenamentoDeLances {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private double[] valores = new double[CAPACIDADE_INICIAL];
+    private int[] usuarios = new int[CAPACIDADE_INICIAL];
+    private int tamanho;
+
+    private final RegistroDeUsuarios usuariosDoLeilao = new RegistroDeUsuarios();
+    private int[] lancesPorId = new int[CAPACIDADE_INICIAL];
+
+    private final List<Lance> visao = new Visao();
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public double valor(int posicao) {
+        return valores[verifica(posicao)];
+    }
+
+    @Override
+    public Lance lance(int posicao) {
+        verifica(posicao);
+        return new Lance(usuariosDoLeilao.porId(usuarios[posicao]), valores[posicao]);
+    }
+
+    @Override
+    public int lancesDo(Usuario usuario) {
+        int id = usuariosDoLeilao.buscaId(usuario);
+        return id < 0 ? 0 : lancesPorId[id];
+    }
+
+    @Override
+    public int adiciona(Lance lance) {
+        int id = idDe(lance.getUsuario());
+        if (tamanho == valores.length) {
+            cresce(tamanho + (tamanho >> 1));
+        }
+        valores[tamanho] = lance.getValor();
+        usuarios[tamanho] = id;
+        lancesPorId[id]++;
+        return tamanho++;
+    }
+
+    @Override
+    public void reserva(int adicionais) {
+        if (tamanho + adicionais > valores.length) {
+            cresce(tamanho + adicionais);
+        }
+    }
+
+    @Override
+    public List<Lance> comoLista() {
+        return visao;
+    }
+
+    private void cresce(int capacidade) {
+        valores = Arrays.copyOf(valores, capacidade);
+        usuarios = Arrays.copyOf(usuarios, capacidade);
+    }
+
+    private int idDe(Usuario usuario) {
+        int id = usuariosDoLeilao.idDe(usuario);
+        if (id == lancesPorId.length) {
+            lancesPorId = Arrays.copyOf(lancesPorId, id + (id >> 1));
+        }
+        return id;
+    }
+
+    private int verifica(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo de " + tamanho + " lances.");
+        }
+        return posicao;
+    }
+
+    /**
+     * Lista somente leitura que materializa cada {@link Lance} ao ser lida.
+     */
+    private class Visao extends AbstractList<Lance> implements RandomAccess {
+
+        @Override
+        public Lance get(int index) {
+            return lance(index);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
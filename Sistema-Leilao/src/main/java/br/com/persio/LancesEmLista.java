@@ -0,0 +1,63 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento padrão: uma lista de {@link Lance} e um mapa com a contagem por usuário.
+ */
+class LancesEmLista implements ArmazenamentoDeLances {
+
+    private final ArrayList<Lance> lances = new ArrayList<>();
+
+    // Índice de lances por usuário, atualizado a cada lance aceito,
+    // para que a Regra 2 não precise percorrer a lista inteira.
+    private final Map<Usuario, Integer> lancesPorUsuario = new HashMap<>();
+
+    LancesEmLista() {
+    }
+
+    LancesEmLista(List<Lance> lances) {
+        lances.forEach(this::adiciona);
+    }
+
+    @Override
+    public int tamanho() {
+        return lances.size();
+    }
+
+    @Override
+    public double valor(int posicao) {
+        return lances.get(posicao).getValor();
+    }
+
+    @Override
+    public Lance lance(int posicao) {
+        return lances.get(posicao);
+    }
+
+    @Override
+    public int lancesDo(Usuario usuario) {
+        return lancesPorUsuario.getOrDefault(usuario, 0);
+    }
+
+    @Override
+    public int adiciona(Lance lance) {
+        lances.add(lance);
+        lancesPorUsuario.merge(lance.getUsuario(), 1, Integer::sum);
+        return lances.size() - 1;
+    }
+
+    @Override
+    public void reserva(int adicionais) {
+        lances.ensureCapacity(lances.size() + adicionais);
+    }
+
+    @Override
+    public List<Lance> comoLista() {
+        return Collections.unmodifiableList(lances);
+    }
+}
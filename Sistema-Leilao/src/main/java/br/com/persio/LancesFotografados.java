@@ -0,0 +1,92 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lances de uma fotografia do {@link DiarioDeLances}, lidos das colunas mapeadas do disco
+ * (ids dos usuários e valores) sem carregá-los no heap. A contagem de lances por usuário
+ * vem do resumo da fotografia, indexada pelo id no {@link RegistroDeUsuarios} do diário.
+ * Somente leitura.
+ */
+class LancesFotografados implements ArmazenamentoDeLances {
+
+    private final ByteBuffer ids;
+    private final ByteBuffer valores;
+    private final int tamanho;
+    private final RegistroDeUsuarios usuarios;
+    private final int[] lancesPorId;
+
+    private final List<Lance> visao = new Visao();
+
+    LancesFotografados(ByteBuffer ids, ByteBuffer valores, int tamanho, RegistroDeUsuarios usuarios,
+                       int[] lancesPorId) {
+        this.ids = ids;
+        this.valores = valores;
+        this.tamanho = tamanho;
+        this.usuarios = usuarios;
+        this.lancesPorId = lancesPorId;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public double valor(int posicao) {
+        return valores.getDouble(verifica(posicao) * Double.BYTES);
+    }
+
+    @Override
+    public Lance lance(int posicao) {
+        return new Lance(usuarios.porId(ids.getInt(verifica(posicao) * Integer.BYTES)), valor(posicao));
+    }
+
+    // usuários registrados depois da fotografia não têm lances nela
+    @Override
+    public int lancesDo(Usuario usuario) {
+        int id = usuarios.buscaId(usuario);
+        return id < 0 || id >= lancesPorId.length ? 0 : lancesPorId[id];
+    }
+
+    @Override
+    public int adiciona(Lance lance) {
+        throw new UnsupportedOperationException("A fotografia do leilão é somente leitura.");
+    }
+
+    @Override
+    public void reserva(int adicionais) {
+        throw new UnsupportedOperationException("A fotografia do leilão é somente leitura.");
+    }
+
+    @Override
+    public List<Lance> comoLista() {
+        return visao;
+    }
+
+    private int verifica(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo de " + tamanho + " lances.");
+        }
+        return posicao;
+    }
+
+    /**
+     * Lista somente leitura que materializa cada {@link Lance} ao ser lida.
+     */
+    private class Visao extends AbstractList<Lance> implements RandomAccess {
+
+        @Override
+        public Lance get(int index) {
+            return lance(index);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
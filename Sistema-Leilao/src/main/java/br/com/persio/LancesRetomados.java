@@ -0,0 +1,87 @@
+package br.com.persio;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lances de um leilão retomado de uma fotografia: as primeiras posições são as da
+ * fotografia, lidas sem cópia, e os lances seguintes vão para o armazenamento do leilão.
+ */
+class LancesRetomados implements ArmazenamentoDeLances {
+
+    private final ArmazenamentoDeLances fotografados;
+    private final ArmazenamentoDeLances novos;
+    private final int inicioDosNovos;
+
+    private final List<Lance> visao = new Visao();
+
+    LancesRetomados(ArmazenamentoDeLances fotografados, ArmazenamentoDeLances novos) {
+        this.fotografados = fotografados;
+        this.novos = novos;
+        this.inicioDosNovos = fotografados.tamanho();
+    }
+
+    @Override
+    public int tamanho() {
+        return inicioDosNovos + novos.tamanho();
+    }
+
+    @Override
+    public double valor(int posicao) {
+        return verifica(posicao) < inicioDosNovos
+                ? fotografados.valor(posicao)
+                : novos.valor(posicao - inicioDosNovos);
+    }
+
+    @Override
+    public Lance lance(int posicao) {
+        return verifica(posicao) < inicioDosNovos
+                ? fotografados.lance(posicao)
+                : novos.lance(posicao - inicioDosNovos);
+    }
+
+    @Override
+    public int lancesDo(Usuario usuario) {
+        return fotografados.lancesDo(usuario) + novos.lancesDo(usuario);
+    }
+
+    @Override
+    public int adiciona(Lance lance) {
+        return inicioDosNovos + novos.adiciona(lance);
+    }
+
+    @Override
+    public void reserva(int adicionais) {
+        novos.reserva(adicionais);
+    }
+
+    @Override
+    public List<Lance> comoLista() {
+        return visao;
+    }
+
+    private int verifica(int posicao) {
+        int tamanho = tamanho();
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo de " + tamanho + " lances.");
+        }
+        return posicao;
+    }
+
+    /**
+     * Lista somente leitura sobre as duas partes.
+     */
+    private class Visao extends AbstractList<Lance> implements RandomAccess {
+
+        @Override
+        public Lance get(int index) {
+            return lance(index);
+        }
+
+        @Override
+        public int size() {
+            return tamanho();
+        }
+    }
+}
@@ -1,58 +1,433 @@
 package br.com.persio;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Representa um leilão contendo vários lances de diferentes usuários.
  * Regras de negócio:
  * - Cada usuário pode dar no máximo 5 lances.
  * - Não aceita lances com valor menor que o último.
+ * - Depois de encerrado, não aceita mais lances.
+ * Também é um {@link Flow.Publisher} dos lances aceitos: cada assinante recebe os
+ * novos lances conforme a demanda que pedir, sem precisar copiar a lista de lances.
  */
-public class Leilao {
+public class Leilao implements Flow.Publisher<Lance> {
+
+    static final int CAPACIDADE_PADRAO_DE_ENTREGA = 256;
+
+    static final int LIMITE_DE_LANCES_POR_USUARIO = 5;
+
+    private static final ThreadLocal<Avisos> AVISOS = ThreadLocal.withInitial(Avisos::new);
 
     private String descricao;
-    private List<Lance> lances = new ArrayList<>();
+    private ArmazenamentoDeLances lances;
+    private Instant prazo;
+    private final AtomicBoolean encerrado = new AtomicBoolean();
+    private volatile MetricasDeLances metricas = MetricasDeLances.NENHUMA;
+
+    private List<OuvinteDeLances> ouvintes = new CopyOnWriteArrayList<>();
+    private volatile PublicadorDeLances publicador;
 
     public Leilao(String descricao) {
+        this(descricao, TipoDeArmazenamento.LISTA);
+    }
+
+    public Leilao(String descricao, TipoDeArmazenamento tipoDeArmazenamento) {
         if (descricao == null || descricao.isBlank()) {
             throw new IllegalArgumentException("Descrição do leilão não pode ser vazia ou nula.");
         }
+        if (tipoDeArmazenamento == null) {
+            throw new IllegalArgumentException("Tipo de armazenamento não pode ser nulo.");
+        }
         this.descricao = descricao;
+        this.lances = tipoDeArmazenamento == TipoDeArmazenamento.COLUNAR
+                ? new LancesColunares()
+                : new LancesEmLista();
+    }
+
+    /**
+     * @param prazo instante em que o leilão deve ser encerrado por um {@link EncerradorDeLeiloes}
+     */
+    public Leilao(String descricao, TipoDeArmazenamento tipoDeArmazenamento, Instant prazo) {
+        this(descricao, tipoDeArmazenamento);
+        if (prazo == null) {
+            throw new IllegalArgumentException("Prazo do leilão não pode ser nulo.");
+        }
+        this.prazo = prazo;
+    }
+
+    /**
+     * Leilão sobre um armazenamento já preenchido, como o de um {@link ArquivoDeLeiloes}.
+     */
+    Leilao(String descricao, ArmazenamentoDeLances lances, Instant prazo) {
+        if (descricao == null || descricao.isBlank()) {
+            throw new IllegalArgumentException("Descrição do leilão não pode ser vazia ou nula.");
+        }
+        this.descricao = descricao;
+        this.lances = lances;
+        this.prazo = prazo;
     }
 
     public String getDescricao() {
         return descricao;
     }
 
+    /**
+     * @return o prazo de encerramento, ou {@code null} se o leilão não tiver prazo
+     */
+    public Instant getPrazo() {
+        return prazo;
+    }
+
+    /**
+     * Congela o leilão: a partir daqui todo lance é rejeitado com
+     * {@link ResultadoLance#LEILAO_ENCERRADO}. Encerrar mais de uma vez não tem efeito,
+     * mesmo de threads diferentes ao mesmo tempo: só uma delas avisa o encerramento.
+     */
+    public void encerra() {
+        if (encerrado.compareAndSet(false, true)) {
+            aoEncerrar();
+        }
+    }
+
+    /**
+     * Avisa as métricas e completa o fluxo de cada assinante.
+     */
+    void aoEncerrar() {
+        metricas.leilaoEncerrado(this);
+        PublicadorDeLances publicador = this.publicador;
+        if (publicador != null) {
+            publicador.encerra();
+        }
+    }
+
+    public boolean isEncerrado() {
+        return encerrado.get();
+    }
+
     public List<Lance> getLances() {
-        return Collections.unmodifiableList(lances);
+        return lances.comoLista();
+    }
+
+    /**
+     * Acesso direto ao armazenamento, usado pelo {@link Avaliador} para ler os valores
+     * sem materializar um {@link Lance} por posição.
+     */
+    ArmazenamentoDeLances lances() {
+        return lances;
+    }
+
+    /**
+     * Passa a medir cada lance proposto; {@link MetricasDeLances#NENHUMA} desliga a medição.
+     */
+    public void setMetricas(MetricasDeLances metricas) {
+        if (metricas == null) {
+            throw new IllegalArgumentException("Métricas não podem ser nulas; use MetricasDeLances.NENHUMA.");
+        }
+        this.metricas = metricas;
+    }
+
+    public MetricasDeLances getMetricas() {
+        return metricas;
+    }
+
+    public void adicionaOuvinte(OuvinteDeLances ouvinte) {
+        if (ouvinte == null) {
+            throw new IllegalArgumentException("Ouvinte não pode ser nulo.");
+        }
+        ouvintes.add(ouvinte);
+    }
+
+    public void removeOuvinte(OuvinteDeLances ouvinte) {
+        ouvintes.remove(ouvinte);
     }
 
+    /**
+     * Assina os lances aceitos a partir de agora, com uma fila de 256 lances por assinante.
+     * O fluxo termina com {@code onComplete} quando o leilão é encerrado.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Lance> assinante) {
+        subscribe(assinante, PoliticaDeEntrega.emFila(CAPACIDADE_PADRAO_DE_ENTREGA));
+    }
+
+    /**
+     * Assina os lances aceitos a partir de agora, com a política de entrega escolhida;
+     * {@link PoliticaDeEntrega#soOMaiorLance()} serve a assinantes lentos que só precisam do topo.
+     */
+    public void subscribe(Flow.Subscriber<? super Lance> assinante, PoliticaDeEntrega politica) {
+        publicador().assina(assinante, politica);
+    }
+
+    private synchronized PublicadorDeLances publicador() {
+        if (publicador == null) {
+            publicador = new PublicadorDeLances();
+            adicionaOuvinte(publicador);
+            // lido depois de registrar: todo lance desta posição em diante avisa o publicador
+            publicador.comecaEm(tamanho());
+            if (isEncerrado()) {
+                publicador.encerra();
+            }
+        }
+        return publicador;
+    }
+
+    /**
+     * Propõe o lance e lança {@link IllegalArgumentException} se ele for rejeitado.
+     * Sob muitas rejeições prefira {@link #tentaPropor(Lance)}, que não cria exceções.
+     */
     public void propoe(Lance lance) {
+        ResultadoLance resultado = tentaPropor(lance);
+        if (!resultado.isAceito()) {
+            throw new IllegalArgumentException(resultado.getMensagem());
+        }
+    }
+
+    /**
+     * Propõe vários lances de uma vez, na ordem da lista, sem lançar exceção para os rejeitados.
+     * Cada lance é validado contra o estado deixado pelos anteriores do mesmo lote.
+     *
+     * @return o resultado de cada lance, na mesma posição da lista recebida
+     */
+    public ResultadoLance[] propoeTodos(List<Lance> lote) {
+        if (lote == null) {
+            throw new IllegalArgumentException("Lote de lances não pode ser nulo.");
+        }
+
+        ResultadoLance[] resultados = new ResultadoLance[lote.size()];
+        if (!isEncerrado()) {
+            reservaEspaco(lote.size());
+        }
+        int i = 0;
+        for (Lance lance : lote) {
+            resultados[i++] = tentaPropor(lance);
+        }
+        return resultados;
+    }
+
+    /**
+     * Propõe o lance sem lançar exceção: uma rejeição é só o {@link ResultadoLance}
+     * devolvido, sem o custo de criar uma exceção e o seu stack trace.
+     * Com métricas ligadas, mede também quanto tempo a decisão levou.
+     */
+    public ResultadoLance tentaPropor(Lance lance) {
+        MetricasDeLances metricas = this.metricas;
+        if (metricas == MetricasDeLances.NENHUMA) {
+            return decide(lance);
+        }
+        long inicio = System.nanoTime();
+        ResultadoLance resultado = decide(lance);
+        mede(metricas, resultado, System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    /**
+     * Propõe um lance lido direto de um buffer no formato do {@link CodecDeLance}.
+     * As rejeições por outro leilão, leilão encerrado, valor inválido ou não superior e
+     * usuário desconhecido são decididas pelos bytes, sem criar objetos nem lançar exceção;
+     * o {@link Lance} só é criado quando passa por essas regras.
+     *
+     * @param idDoLeilao id deste leilão no formato binário; lances gravados com outro id são rejeitados
+     * @param usuarios registro que traduz o id gravado no buffer para o usuário
+     */
+    public ResultadoLance tentaPropor(LanceBinario lance, int idDoLeilao, RegistroDeUsuarios usuarios) {
+        if (usuarios == null) {
+            throw new IllegalArgumentException("Registro de usuários não pode ser nulo.");
+        }
+
+        MetricasDeLances metricas = this.metricas;
+        if (metricas == MetricasDeLances.NENHUMA) {
+            return decide(lance, idDoLeilao, usuarios);
+        }
+        long inicio = System.nanoTime();
+        ResultadoLance resultado = decide(lance, idDoLeilao, usuarios);
+        mede(metricas, resultado, System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private ResultadoLance decide(LanceBinario lance, int idDoLeilao, RegistroDeUsuarios usuarios) {
+        if (lance == null) {
+            return ResultadoLance.LANCE_NULO;
+        }
+        if (lance.getIdDoLeilao() != idDoLeilao) {
+            return ResultadoLance.LEILAO_DIFERENTE;
+        }
+        if (isEncerrado()) {
+            return ResultadoLance.LEILAO_ENCERRADO;
+        }
+
+        double valor = lance.getValor();
+        if (!(valor > 0)) {
+            return ResultadoLance.VALOR_INVALIDO;
+        }
+        if (valor <= ultimoValor()) {
+            return ResultadoLance.VALOR_NAO_SUPERIOR;
+        }
+        Usuario usuario = usuarios.buscaPorId(lance.getIdDoUsuario());
+        if (usuario == null) {
+            return ResultadoLance.USUARIO_DESCONHECIDO;
+        }
+        return decide(new Lance(usuario, valor));
+    }
+
+    /**
+     * @return o valor do último lance aceito, ou menos infinito se não houver nenhum
+     */
+    double ultimoValor() {
+        int tamanho = lances.tamanho();
+        return tamanho == 0 ? Double.NEGATIVE_INFINITY : lances.valor(tamanho - 1);
+    }
+
+    private void mede(MetricasDeLances metricas, ResultadoLance resultado, long duracaoEmNanos) {
+        if (resultado.isAceito()) {
+            metricas.lanceAceito(this, tamanho(), duracaoEmNanos);
+        } else {
+            metricas.lanceRejeitado(this, resultado, duracaoEmNanos);
+        }
+    }
+
+    int tamanho() {
+        return lances.tamanho();
+    }
+
+    /**
+     * @return o último lance aceito, ou {@code null} se não houver nenhum
+     */
+    Lance ultimoLance() {
+        int tamanho = lances.tamanho();
+        return tamanho == 0 ? null : lances.lance(tamanho - 1);
+    }
+
+    int lancesDo(Usuario usuario) {
+        return lances.lancesDo(usuario);
+    }
+
+    /**
+     * Aplica as regras e, se o lance for aceito, guarda-o e avisa os ouvintes.
+     */
+    ResultadoLance decide(Lance lance) {
         if (lance == null) {
-            throw new IllegalArgumentException("Lance não pode ser nulo.");
+            return ResultadoLance.LANCE_NULO;
         }
 
-        if (!lances.isEmpty()) {
-            Lance ultimoLance = lances.get(lances.size() - 1);
+        if (encerrado.get()) {
+            return ResultadoLance.LEILAO_ENCERRADO;
+        }
+
+        if (lances.tamanho() > 0) {
+            double ultimoValor = lances.valor(lances.tamanho() - 1);
 
             // Regra 1: valor decrescente não permitido
-            if (lance.getValor() <= ultimoLance.getValor()) {
-                throw new IllegalArgumentException("Lance deve ser maior que o anterior.");
+            if (lance.getValor() <= ultimoValor) {
+                return ResultadoLance.VALOR_NAO_SUPERIOR;
             }
 
             // Regra 2: máximo de 5 lances por usuário
-            long totalLancesUsuario = lances.stream()
-                    .filter(l -> l.getUsuario().equals(lance.getUsuario()))
-                    .count();
+            if (lances.lancesDo(lance.getUsuario()) >= LIMITE_DE_LANCES_POR_USUARIO) {
+                return ResultadoLance.LIMITE_DE_LANCES;
+            }
+        }
 
-            if (totalLancesUsuario >= 5) {
-                throw new IllegalArgumentException("Usuário atingiu o limite de 5 lances.");
+        int posicao = lances.adiciona(lance);
+        notificaOuvintes(lance, posicao);
+        return ResultadoLance.ACEITO;
+    }
+
+    void reservaEspaco(int adicionais) {
+        lances.reserva(adicionais);
+    }
+
+    /**
+     * Acrescenta um lance já validado anteriormente, sem reaplicar as regras.
+     * Usado apenas na recuperação de leilões gravados em disco.
+     */
+    void restaura(Lance lance) {
+        int posicao = lances.adiciona(lance);
+        notificaOuvintes(lance, posicao);
+    }
+
+    /**
+     * Retoma o leilão a partir dos lances de uma fotografia, sem copiá-los: eles passam a
+     * ser as primeiras posições e os próximos lances vão para o armazenamento do leilão.
+     * Usado apenas na recuperação, com o leilão ainda sem lances.
+     */
+    void retoma(ArmazenamentoDeLances fotografados) {
+        lances = new LancesRetomados(fotografados, lances);
+    }
+
+    void notificaOuvintes(Lance lance, int posicao) {
+        if (ouvintes.isEmpty()) {
+            return;
+        }
+        Avisos avisos = AVISOS.get();
+        avisos.profundidade++;
+        RuntimeException falha = null;
+        try {
+            for (OuvinteDeLances ouvinte : ouvintes) {
+                try {
+                    ouvinte.lanceAceito(this, lance, posicao);
+                } catch (RuntimeException e) {
+                    // os ouvintes seguintes recebem o lance mesmo assim; a falha é relançada no fim
+                    if (falha == null) {
+                        falha = e;
+                    } else {
+                        falha.addSuppressed(e);
+                    }
+                }
             }
+        } finally {
+            if (--avisos.profundidade == 0) {
+                avisos.executaPendentes();
+            }
+        }
+        if (falha != null) {
+            throw falha;
         }
+    }
 
-        lances.add(lance);
+    /**
+     * Executa a tarefa quando terminar o aviso em andamento nesta thread, depois que todos
+     * os ouvintes receberam o lance; fora de um aviso, executa já. Um ouvinte que dá lances
+     * deve dá-los por aqui: um lance dado de dentro do aviso chegaria aos ouvintes seguintes
+     * antes do lance que o provocou.
+     */
+    static void depoisDosAvisos(Runnable tarefa) {
+        Avisos avisos = AVISOS.get();
+        if (avisos.profundidade == 0) {
+            tarefa.run();
+        } else {
+            avisos.pendentes.add(tarefa);
+        }
+    }
+
+    /**
+     * Avisos em andamento na thread e as tarefas que esperam o fim deles.
+     */
+    private static final class Avisos {
+
+        private final ArrayDeque<Runnable> pendentes = new ArrayDeque<>();
+        private int profundidade;
+        private boolean executando;
+
+        private void executaPendentes() {
+            // as tarefas dão lances e voltam aqui ao fim de cada aviso; o laço mais externo segue
+            if (executando) {
+                return;
+            }
+            executando = true;
+            try {
+                Runnable tarefa;
+                while ((tarefa = pendentes.poll()) != null) {
+                    tarefa.run();
+                }
+            } finally {
+                executando = false;
+            }
+        }
     }
 }
@@ -0,0 +1,351 @@
+package br.com.persio;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Leilão que aceita lances de várias threads ao mesmo tempo, sem lock externo.
+ * As regras são as mesmas de {@link Leilao}; o lance do topo é trocado por CAS,
+ * de modo que dois lances que violem a ordem crescente nunca são aceitos juntos.
+ */
+public class LeilaoConcorrente extends Leilao {
+
+    private final AtomicReference<No> topo = new AtomicReference<>();
+    private final ConcurrentHashMap<Usuario, Vagas> lancesPorUsuario = new ConcurrentHashMap<>();
+    private final Posicoes posicoes = new Posicoes();
+    // lances de uma fotografia retomada, abaixo da pilha de nós
+    private volatile ArmazenamentoDeLances fotografados = new LancesEmLista();
+
+    public LeilaoConcorrente(String descricao) {
+        super(descricao);
+    }
+
+    public LeilaoConcorrente(String descricao, Instant prazo) {
+        super(descricao, TipoDeArmazenamento.LISTA, prazo);
+    }
+
+    @Override
+    public List<Lance> getLances() {
+        return lances().comoLista();
+    }
+
+    /**
+     * Troca o topo por uma cópia marcada como encerrada; como todo lance aceito também
+     * passa por um CAS no topo, nenhum lance entra depois que esta troca acontece.
+     */
+    @Override
+    public void encerra() {
+        while (true) {
+            No atual = topo.get();
+            if (atual != null && atual.encerrado) {
+                return;
+            }
+            if (topo.compareAndSet(atual, No.encerrado(atual))) {
+                aoEncerrar();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isEncerrado() {
+        No atual = topo.get();
+        return atual != null && atual.encerrado;
+    }
+
+    @Override
+    double ultimoValor() {
+        No atual = topo.get();
+        return atual == null || atual.tamanho == 0 ? Double.NEGATIVE_INFINITY : atual.lance.getValor();
+    }
+
+    @Override
+    Lance ultimoLance() {
+        No atual = topo.get();
+        return atual == null || atual.tamanho == 0 ? null : atual.lance;
+    }
+
+    @Override
+    int lancesDo(Usuario usuario) {
+        Vagas vagas = lancesPorUsuario.get(usuario);
+        return vagas == null ? fotografados.lancesDo(usuario) : vagas.confirmadas.get();
+    }
+
+    /**
+     * @return uma visão dos lances aceitos até agora, sem copiá-los
+     */
+    @Override
+    ArmazenamentoDeLances lances() {
+        return new Visao(topo.get());
+    }
+
+    @Override
+    int tamanho() {
+        No atual = topo.get();
+        return atual == null ? 0 : atual.tamanho;
+    }
+
+    @Override
+    ResultadoLance decide(Lance lance) {
+        if (lance == null) {
+            return ResultadoLance.LANCE_NULO;
+        }
+
+        // Rejeição rápida, sem reservar nada, quando o lance já está abaixo do topo
+        No atual = topo.get();
+        if (atual != null && atual.encerrado) {
+            return ResultadoLance.LEILAO_ENCERRADO;
+        }
+        if (atual != null && lance.getValor() <= atual.lance.getValor()) {
+            return ResultadoLance.VALOR_NAO_SUPERIOR;
+        }
+
+        // A vaga do usuário é reservada antes do CAS e devolvida se o lance perder a disputa;
+        // assim nenhum usuário passa de 5 lances, mesmo com lances simultâneos.
+        Vagas vagas = vagasDo(lance.getUsuario());
+        if (!reserva(vagas)) {
+            return ResultadoLance.LIMITE_DE_LANCES;
+        }
+
+        while (true) {
+            atual = topo.get();
+            if (atual != null && atual.encerrado) {
+                vagas.reservadas.decrementAndGet();
+                return ResultadoLance.LEILAO_ENCERRADO;
+            }
+            if (atual != null && lance.getValor() <= atual.lance.getValor()) {
+                vagas.reservadas.decrementAndGet();
+                return ResultadoLance.VALOR_NAO_SUPERIOR;
+            }
+            No novo = new No(lance, atual);
+            if (topo.compareAndSet(atual, novo)) {
+                vagas.confirmadas.incrementAndGet();
+                posicoes.grava(novo.tamanho - 1 - fotografados.tamanho(), lance);
+                notificaOuvintes(lance, novo.tamanho - 1);
+                return ResultadoLance.ACEITO;
+            }
+        }
+    }
+
+    @Override
+    void reservaEspaco(int adicionais) {
+        // os nós são alocados um a um; não há o que reservar
+    }
+
+    @Override
+    void restaura(Lance lance) {
+        Vagas vagas = vagasDo(lance.getUsuario());
+        vagas.reservadas.incrementAndGet();
+        vagas.confirmadas.incrementAndGet();
+        while (true) {
+            No atual = topo.get();
+            No novo = new No(lance, atual);
+            if (topo.compareAndSet(atual, novo)) {
+                posicoes.grava(novo.tamanho - 1 - fotografados.tamanho(), lance);
+                notificaOuvintes(lance, novo.tamanho - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Os lances da fotografia ficam abaixo de um nó sentinela com o último deles; a pilha
+     * de nós e as posições gravadas só cobrem os lances posteriores.
+     */
+    @Override
+    void retoma(ArmazenamentoDeLances fotografados) {
+        this.fotografados = fotografados;
+        int tamanho = fotografados.tamanho();
+        if (tamanho > 0) {
+            topo.set(new No(fotografados.lance(tamanho - 1), null, tamanho, false));
+        }
+    }
+
+    private Vagas vagasDo(Usuario usuario) {
+        return lancesPorUsuario.computeIfAbsent(usuario, u -> new Vagas(fotografados.lancesDo(u)));
+    }
+
+    /**
+     * Reserva uma vaga do usuário sem esperar por nenhuma outra reserva: rejeita quando as
+     * 5 vagas estão reservadas, mesmo que uma delas ainda esteja em disputa no topo e
+     * acabe devolvida. Nesse caso raro o lance é recusado por limite e pode ser repetido.
+     */
+    private static boolean reserva(Vagas vagas) {
+        while (true) {
+            int reservadas = vagas.reservadas.get();
+            if (reservadas >= LIMITE_DE_LANCES_POR_USUARIO) {
+                return false;
+            }
+            if (vagas.reservadas.compareAndSet(reservadas, reservadas + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Vagas de lance de um usuário: reservadas antes do CAS no topo e confirmadas
+     * depois que ele é vencido.
+     */
+    private static final class Vagas {
+
+        private final AtomicInteger reservadas;
+        private final AtomicInteger confirmadas;
+
+        private Vagas(int jaConfirmadas) {
+            this.reservadas = new AtomicInteger(jaConfirmadas);
+            this.confirmadas = new AtomicInteger(jaConfirmadas);
+        }
+    }
+
+    /**
+     * Lances por posição, gravados pela thread que venceu o CAS daquela posição. Os blocos
+     * dobram de tamanho, de modo que crescer não copia nada e ler uma posição é O(1).
+     */
+    private static final class Posicoes {
+
+        private static final int BITS_DO_PRIMEIRO_BLOCO = 4;
+        private static final int PRIMEIRO_BLOCO = 1 << BITS_DO_PRIMEIRO_BLOCO;
+
+        private final AtomicReferenceArray<AtomicReferenceArray<Lance>> blocos =
+                new AtomicReferenceArray<>(32 - BITS_DO_PRIMEIRO_BLOCO);
+
+        private void grava(int posicao, Lance lance) {
+            int deslocada = posicao + PRIMEIRO_BLOCO;
+            int indice = indiceDoBloco(deslocada);
+            AtomicReferenceArray<Lance> bloco = blocos.get(indice);
+            if (bloco == null) {
+                blocos.compareAndSet(indice, null, new AtomicReferenceArray<>(PRIMEIRO_BLOCO << indice));
+                bloco = blocos.get(indice);
+            }
+            bloco.set(deslocada - Integer.highestOneBit(deslocada), lance);
+        }
+
+        /**
+         * @return o lance da posição, ou {@code null} se quem o aceitou ainda não o gravou
+         */
+        private Lance le(int posicao) {
+            int deslocada = posicao + PRIMEIRO_BLOCO;
+            AtomicReferenceArray<Lance> bloco = blocos.get(indiceDoBloco(deslocada));
+            return bloco == null ? null : bloco.get(deslocada - Integer.highestOneBit(deslocada));
+        }
+
+        private static int indiceDoBloco(int deslocada) {
+            return 31 - Integer.numberOfLeadingZeros(deslocada) - BITS_DO_PRIMEIRO_BLOCO;
+        }
+    }
+
+    /**
+     * Lances aceitos até um topo, lidos das posições sem copiar a lista. Uma posição
+     * ainda não gravada (o CAS já foi vencido, a gravação não) é lida pela pilha de nós.
+     * A contagem por usuário é a atual, não a do momento da visão. Somente leitura.
+     */
+    private final class Visao implements ArmazenamentoDeLances {
+
+        private final No topo;
+        private final int tamanho;
+        private final ArmazenamentoDeLances fotografados = LeilaoConcorrente.this.fotografados;
+
+        private Visao(No topo) {
+            this.topo = topo;
+            this.tamanho = topo == null ? 0 : topo.tamanho;
+        }
+
+        @Override
+        public int tamanho() {
+            return tamanho;
+        }
+
+        @Override
+        public double valor(int posicao) {
+            return lance(posicao).getValor();
+        }
+
+        @Override
+        public Lance lance(int posicao) {
+            if (posicao < 0 || posicao >= tamanho) {
+                throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo de " + tamanho + " lances.");
+            }
+            int inicioDaPilha = fotografados.tamanho();
+            if (posicao < inicioDaPilha) {
+                return fotografados.lance(posicao);
+            }
+            Lance lance = posicoes.le(posicao - inicioDaPilha);
+            if (lance != null) {
+                return lance;
+            }
+            No no = topo;
+            while (no.tamanho > posicao + 1) {
+                no = no.anterior;
+            }
+            return no.lance;
+        }
+
+        @Override
+        public int lancesDo(Usuario usuario) {
+            return LeilaoConcorrente.this.lancesDo(usuario);
+        }
+
+        @Override
+        public int adiciona(Lance lance) {
+            throw new UnsupportedOperationException("A visão dos lances é somente leitura.");
+        }
+
+        @Override
+        public void reserva(int adicionais) {
+            // os lances entram pelo CAS no topo, não pela visão
+        }
+
+        @Override
+        public List<Lance> comoLista() {
+            return new ListaDeLances();
+        }
+
+        private final class ListaDeLances extends AbstractList<Lance> implements RandomAccess {
+
+            @Override
+            public Lance get(int index) {
+                return lance(index);
+            }
+
+            @Override
+            public int size() {
+                return tamanho;
+            }
+        }
+    }
+
+    /**
+     * Nó imutável da pilha de lances; o topo é sempre o maior lance aceito.
+     * Um leilão encerrado sem lances tem no topo um nó vazio, de tamanho zero.
+     */
+    private static final class No {
+
+        private final Lance lance;
+        private final No anterior;
+        private final int tamanho;
+        private final boolean encerrado;
+
+        private No(Lance lance, No anterior) {
+            this(lance, anterior, anterior == null ? 1 : anterior.tamanho + 1, false);
+        }
+
+        private No(Lance lance, No anterior, int tamanho, boolean encerrado) {
+            this.lance = lance;
+            this.anterior = anterior;
+            this.tamanho = tamanho;
+            this.encerrado = encerrado;
+        }
+
+        private static No encerrado(No atual) {
+            return atual == null
+                    ? new No(null, null, 0, true)
+                    : new No(atual.lance, atual.anterior, atual.tamanho, true);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.persio;
+
+/**
+ * Recebe as medições do caminho de lances de um {@link Leilao}: cada decisão, com o
+ * tempo que levou, e o tamanho do leilão a cada lance aceito.
+ *
+ * <p>O padrão é {@link #NENHUMA}: com ela o leilão nem consulta o relógio, de modo que a
+ * instrumentação desligada custa só uma comparação por lance. As implementações são
+ * chamadas pela thread que deu o lance e devem ser seguras entre threads e baratas.</p>
+ */
+public interface MetricasDeLances {
+
+    /** Métricas desligadas. */
+    MetricasDeLances NENHUMA = new MetricasDeLances() {
+        @Override
+        public void lanceAceito(Leilao leilao, int tamanhoDoLeilao, long duracaoEmNanos) {
+        }
+
+        @Override
+        public void lanceRejeitado(Leilao leilao, ResultadoLance motivo, long duracaoEmNanos) {
+        }
+    };
+
+    /**
+     * @param tamanhoDoLeilao quantidade de lances do leilão depois deste
+     */
+    void lanceAceito(Leilao leilao, int tamanhoDoLeilao, long duracaoEmNanos);
+
+    void lanceRejeitado(Leilao leilao, ResultadoLance motivo, long duracaoEmNanos);
+
+    /**
+     * Avisa que o leilão foi encerrado e não vai mais crescer.
+     */
+    default void leilaoEncerrado(Leilao leilao) {
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.persio;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link MetricasDeLances} guardadas em memória:
+ * <ul>
+ *   <li>um {@link LongAdder} por resultado, aceito ou motivo de rejeição;</li>
+ *   <li>um histograma da duração de cada decisão, dividido em faixas com locks
+ *       independentes escolhidas pela thread, combinadas só na leitura;</li>
+ *   <li>o tamanho de cada leilão aberto, esquecido quando o leilão é encerrado.</li>
+ * </ul>
+ */
+public class MetricasEmMemoria implements MetricasDeLances {
+
+    private final LongAdder[] contagens = new LongAdder[ResultadoLance.values().length];
+    private final FaixaDeLatencia[] latencias;
+    private final int mascara;
+    private final ConcurrentHashMap<Leilao, AtomicInteger> tamanhos = new ConcurrentHashMap<>();
+
+    public MetricasEmMemoria() {
+        int faixas = Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.latencias = new FaixaDeLatencia[faixas];
+        this.mascara = faixas - 1;
+        for (int i = 0; i < faixas; i++) {
+            latencias[i] = new FaixaDeLatencia();
+        }
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void lanceAceito(Leilao leilao, int tamanhoDoLeilao, long duracaoEmNanos) {
+        contagens[ResultadoLance.ACEITO.ordinal()].increment();
+        registraLatencia(duracaoEmNanos);
+        AtomicInteger tamanho = tamanhos.get(leilao);
+        if (tamanho == null) {
+            tamanho = tamanhos.computeIfAbsent(leilao, l -> new AtomicInteger());
+        }
+        tamanho.accumulateAndGet(tamanhoDoLeilao, Math::max);
+    }
+
+    @Override
+    public void lanceRejeitado(Leilao leilao, ResultadoLance motivo, long duracaoEmNanos) {
+        contagens[motivo.ordinal()].increment();
+        registraLatencia(duracaoEmNanos);
+    }
+
+    @Override
+    public void leilaoEncerrado(Leilao leilao) {
+        tamanhos.remove(leilao);
+    }
+
+    public long getQuantidade(ResultadoLance resultado) {
+        return contagens[resultado.ordinal()].sum();
+    }
+
+    public Map<ResultadoLance, Long> getQuantidades() {
+        Map<ResultadoLance, Long> quantidades = new EnumMap<>(ResultadoLance.class);
+        for (ResultadoLance resultado : ResultadoLance.values()) {
+            quantidades.put(resultado, getQuantidade(resultado));
+        }
+        return quantidades;
+    }
+
+    /**
+     * @return a distribuição da duração das decisões, em nanossegundos
+     */
+    public Histograma getLatencias() {
+        Histograma todas = novoHistogramaDeLatencia();
+        for (FaixaDeLatencia faixa : latencias) {
+            faixa.lock.lock();
+            try {
+                todas.combina(faixa.histograma);
+            } finally {
+                faixa.lock.unlock();
+            }
+        }
+        return todas;
+    }
+
+    /**
+     * @return o tamanho de cada leilão aberto que já recebeu lances medidos
+     */
+    public Map<Leilao, Integer> getTamanhos() {
+        Map<Leilao, Integer> copia = new IdentityHashMap<>();
+        tamanhos.forEach((leilao, tamanho) -> copia.put(leilao, tamanho.get()));
+        return copia;
+    }
+
+    public int getTamanho(Leilao leilao) {
+        AtomicInteger tamanho = tamanhos.get(leilao);
+        return tamanho == null ? 0 : tamanho.get();
+    }
+
+    private void registraLatencia(long duracaoEmNanos) {
+        FaixaDeLatencia faixa = latencias[(int) Thread.currentThread().getId() & mascara];
+        faixa.lock.lock();
+        try {
+            faixa.histograma.registra(duracaoEmNanos);
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    // de 1 ns a 10 s
+    private static Histograma novoHistogramaDeLatencia() {
+        return new Histograma(1, 1e10, 2);
+    }
+
+    private static final class FaixaDeLatencia {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Histograma histograma = novoHistogramaDeLatencia();
+    }
+}
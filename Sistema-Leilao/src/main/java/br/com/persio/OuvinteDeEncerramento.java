@@ -0,0 +1,14 @@
+package br.com.persio;
+
+/**
+ * Recebe os leilões fechados por um {@link EncerradorDeLeiloes}.
+ */
+@FunctionalInterface
+public interface OuvinteDeEncerramento {
+
+    /**
+     * @param leilao    o leilão já congelado
+     * @param avaliador o resultado da avaliação, ou {@code null} se o leilão terminou sem lances
+     */
+    void leilaoEncerrado(Leilao leilao, Avaliador avaliador);
+}
@@ -0,0 +1,16 @@
+package br.com.persio;
+
+/**
+ * Recebe um aviso a cada lance aceito por um {@link Leilao}.
+ * Em um {@link LeilaoConcorrente} os avisos podem chegar de várias threads ao mesmo tempo.
+ */
+@FunctionalInterface
+public interface OuvinteDeLances {
+
+    /**
+     * @param leilao  leilão que aceitou o lance
+     * @param lance   lance aceito
+     * @param posicao posição do lance na lista de lances do leilão
+     */
+    void lanceAceito(Leilao leilao, Lance lance, int posicao);
+}
@@ -0,0 +1,179 @@
+package br.com.persio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline de lances com um único escritor: várias threads publicam lances em um
+ * buffer circular pré-alocado e uma única thread consumidora aplica as regras de
+ * {@link Leilao#propoe(Lance)} sem lock, entregando cada decisão a um {@link RetornoDeLance}.
+ *
+ * <p>Cada pipeline atende uma faixa de leilões; um mesmo leilão deve receber lances
+ * por um único pipeline. Publicar com um retorno reaproveitado não aloca nada por lance.</p>
+ */
+public class PipelineDeLances implements AutoCloseable {
+
+    public static final int CAPACIDADE_PADRAO = 1024;
+
+    // bit que marca o contador de reservas depois do fechamento
+    private static final long FECHADO = Long.MIN_VALUE;
+    private static final int TENTATIVAS_ANTES_DE_DORMIR = 100;
+
+    private final int mascara;
+    private final Leilao[] leiloes;
+    private final Lance[] lances;
+    private final RetornoDeLance[] retornos;
+    private final AtomicLongArray publicados;
+
+    private final AtomicLong reservados = new AtomicLong();
+    private final AtomicLong consumidos = new AtomicLong();
+    private final Thread consumidor;
+
+    public PipelineDeLances() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * @param capacidade quantidade de posições do buffer; deve ser potência de 2
+     */
+    public PipelineDeLances(int capacidade) {
+        if (capacidade <= 0 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("A capacidade do pipeline deve ser uma potência de 2.");
+        }
+        this.mascara = capacidade - 1;
+        this.leiloes = new Leilao[capacidade];
+        this.lances = new Lance[capacidade];
+        this.retornos = new RetornoDeLance[capacidade];
+        this.publicados = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            publicados.set(i, -1);
+        }
+
+        this.consumidor = new Thread(this::consome, "pipeline-de-lances");
+        this.consumidor.setDaemon(true);
+        this.consumidor.start();
+    }
+
+    /**
+     * Publica um lance; se o buffer estiver cheio, espera uma posição livre.
+     */
+    public void publica(Leilao leilao, Lance lance, RetornoDeLance retorno) {
+        if (leilao == null) {
+            throw new IllegalArgumentException("Leilão não pode ser nulo.");
+        }
+        if (retorno == null) {
+            throw new IllegalArgumentException("Retorno não pode ser nulo.");
+        }
+
+        long sequencia = reserva();
+        while (sequencia - leiloes.length >= consumidos.get()) {
+            Thread.onSpinWait();
+        }
+
+        int posicao = (int) (sequencia & mascara);
+        leiloes[posicao] = leilao;
+        lances[posicao] = lance;
+        retornos[posicao] = retorno;
+        publicados.lazySet(posicao, sequencia);
+    }
+
+    /**
+     * Versão de conveniência que aloca um {@link CompletableFuture} por lance. Se o leilão
+     * lançar uma exceção ao decidir, o futuro termina com ela.
+     */
+    public CompletableFuture<ResultadoLance> publica(Leilao leilao, Lance lance) {
+        CompletableFuture<ResultadoLance> futuro = new CompletableFuture<>();
+        publica(leilao, lance, new RetornoDeLance() {
+            @Override
+            public void decidido(Lance lance, ResultadoLance resultado) {
+                futuro.complete(resultado);
+            }
+
+            @Override
+            public void falhou(Lance lance, RuntimeException erro) {
+                futuro.completeExceptionally(erro);
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * Deixa de aceitar lances, espera a decisão dos que já foram publicados e encerra a thread consumidora.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        reservados.getAndUpdate(valor -> valor | FECHADO);
+        LockSupport.unpark(consumidor);
+        consumidor.join();
+    }
+
+    private long reserva() {
+        while (true) {
+            long atual = reservados.get();
+            if ((atual & FECHADO) != 0) {
+                throw new IllegalStateException("O pipeline de lances já foi fechado.");
+            }
+            if (reservados.compareAndSet(atual, atual + 1)) {
+                return atual;
+            }
+        }
+    }
+
+    private void consome() {
+        long proxima = 0;
+        int tentativas = 0;
+        while (true) {
+            int posicao = (int) (proxima & mascara);
+            if (publicados.get(posicao) == proxima) {
+                decide(posicao);
+                consumidos.lazySet(++proxima);
+                tentativas = 0;
+                continue;
+            }
+
+            long reservas = reservados.get();
+            if ((reservas & FECHADO) != 0 && proxima == (reservas & ~FECHADO)) {
+                return;
+            }
+            if (++tentativas < TENTATIVAS_ANTES_DE_DORMIR) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    private void decide(int posicao) {
+        Leilao leilao = leiloes[posicao];
+        Lance lance = lances[posicao];
+        RetornoDeLance retorno = retornos[posicao];
+        leiloes[posicao] = null;
+        lances[posicao] = null;
+        retornos[posicao] = null;
+
+        // uma falha isolada não pode parar a thread que decide todos os outros lances
+        ResultadoLance resultado;
+        try {
+            resultado = leilao.tentaPropor(lance);
+        } catch (RuntimeException e) {
+            try {
+                retorno.falhou(lance, e);
+            } catch (RuntimeException noRetorno) {
+                reporta(noRetorno);
+            }
+            return;
+        }
+        try {
+            retorno.decidido(lance, resultado);
+        } catch (RuntimeException e) {
+            reporta(e);
+        }
+    }
+
+    private static void reporta(RuntimeException erro) {
+        Thread atual = Thread.currentThread();
+        atual.getUncaughtExceptionHandler().uncaughtException(atual, erro);
+    }
+}
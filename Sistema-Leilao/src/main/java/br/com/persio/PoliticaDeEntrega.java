@@ -0,0 +1,49 @@
+package br.com.persio;
+
+/**
+ * Define como os lances aceitos por um {@link Leilao} chegam a cada assinante do seu
+ * fluxo ({@link Leilao#subscribe(java.util.concurrent.Flow.Subscriber, PoliticaDeEntrega)}).
+ */
+public final class PoliticaDeEntrega {
+
+    enum Tipo {
+        EM_FILA,
+        SO_O_MAIOR_LANCE
+    }
+
+    private final Tipo tipo;
+    private final int capacidade;
+
+    private PoliticaDeEntrega(Tipo tipo, int capacidade) {
+        this.tipo = tipo;
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Entrega todos os lances, em ordem, guardando até {@code capacidade} lances que o
+     * assinante ainda não pediu. Se a fila encher, a assinatura é encerrada com
+     * {@code onError}: o leilão nunca espera por um assinante lento.
+     */
+    public static PoliticaDeEntrega emFila(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser maior que zero.");
+        }
+        return new PoliticaDeEntrega(Tipo.EM_FILA, capacidade);
+    }
+
+    /**
+     * Guarda só o maior lance ainda não entregue: um assinante lento pula os lances
+     * intermediários e recebe sempre o topo atual. Nunca transborda.
+     */
+    public static PoliticaDeEntrega soOMaiorLance() {
+        return new PoliticaDeEntrega(Tipo.SO_O_MAIOR_LANCE, 1);
+    }
+
+    Tipo getTipo() {
+        return tipo;
+    }
+
+    int getCapacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.persio;
+
+import java.time.Duration;
+
+/**
+ * Define quando o {@link DiarioDeLances} força a gravação dos lances no disco (fsync).
+ */
+public final class PoliticaDeSincronizacao {
+
+    enum Tipo {
+        A_CADA_LANCE,
+        EM_LOTE,
+        PERIODICA
+    }
+
+    private final Tipo tipo;
+    private final int lancesPorLote;
+    private final Duration intervalo;
+
+    private PoliticaDeSincronizacao(Tipo tipo, int lancesPorLote, Duration intervalo) {
+        this.tipo = tipo;
+        this.lancesPorLote = lancesPorLote;
+        this.intervalo = intervalo;
+    }
+
+    /** Grava no disco antes de devolver cada lance aceito. */
+    public static PoliticaDeSincronizacao aCadaLance() {
+        return new PoliticaDeSincronizacao(Tipo.A_CADA_LANCE, 1, null);
+    }
+
+    /** Grava no disco a cada {@code lances} lances aceitos. */
+    public static PoliticaDeSincronizacao emLote(int lances) {
+        if (lances <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero.");
+        }
+        return new PoliticaDeSincronizacao(Tipo.EM_LOTE, lances, null);
+    }
+
+    /** Grava no disco em segundo plano, uma vez a cada intervalo. */
+    public static PoliticaDeSincronizacao periodica(Duration intervalo) {
+        if (intervalo == null || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("O intervalo de sincronização deve ser positivo.");
+        }
+        return new PoliticaDeSincronizacao(Tipo.PERIODICA, 0, intervalo);
+    }
+
+    Tipo getTipo() {
+        return tipo;
+    }
+
+    int getLancesPorLote() {
+        return lancesPorLote;
+    }
+
+    Duration getIntervalo() {
+        return intervalo;
+    }
+}
@@ -0,0 +1,246 @@
+package br.com.persio;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fluxo de lances aceitos de um {@link Leilao}, ligado a ele como um único ouvinte.
+ *
+ * <p>A thread que deu o lance só coloca o lance no buffer de cada assinatura e, se
+ * preciso, agenda a entrega no executor; quem chama {@code onNext} é o executor,
+ * respeitando a demanda pedida por {@link Flow.Subscription#request(long)}. Cada
+ * assinatura é entregue por no máximo uma thread por vez.</p>
+ *
+ * <p>Os lances entram nos buffers na ordem das suas posições no leilão, mesmo quando os
+ * avisos chegam trocados: um ouvinte que dá lance de dentro de um aviso faz o lance
+ * novo ser avisado antes do que o provocou, e em um {@link LeilaoConcorrente} threads
+ * diferentes avisam fora de ordem. Um aviso adiantado espera o que falta; se o que
+ * falta não chegar antes de {@value #LIMITE_DE_ADIANTADOS} avisos adiantados, ou até o
+ * encerramento, a posição que falta é pulada.</p>
+ */
+class PublicadorDeLances implements OuvinteDeLances {
+
+    static final int LIMITE_DE_ADIANTADOS = 1024;
+
+    private final Executor executor;
+    private final List<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+    private volatile boolean encerrado;
+
+    // guardados pelo monitor do publicador
+    private final TreeMap<Integer, Lance> adiantados = new TreeMap<>();
+    private int proximaPosicao;
+
+    PublicadorDeLances() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    PublicadorDeLances(Executor executor) {
+        this.executor = executor;
+    }
+
+    void assina(Flow.Subscriber<? super Lance> assinante, PoliticaDeEntrega politica) {
+        if (assinante == null) {
+            throw new IllegalArgumentException("Assinante não pode ser nulo.");
+        }
+        if (politica == null) {
+            throw new IllegalArgumentException("Política de entrega não pode ser nula.");
+        }
+
+        Assinatura assinatura = new Assinatura(assinante, politica);
+        assinante.onSubscribe(assinatura);
+        assinaturas.add(assinatura);
+        if (encerrado) {
+            assinatura.completa();
+        }
+    }
+
+    /**
+     * Define a posição do primeiro lance publicado; avisos de posições anteriores, de
+     * lances aceitos antes do publicador existir, são ignorados.
+     */
+    synchronized void comecaEm(int posicao) {
+        proximaPosicao = posicao;
+        adiantados.headMap(posicao).clear();
+        publicaAdiantados();
+    }
+
+    @Override
+    public synchronized void lanceAceito(Leilao leilao, Lance lance, int posicao) {
+        if (posicao < proximaPosicao) {
+            return;
+        }
+        if (posicao > proximaPosicao) {
+            adiantados.put(posicao, lance);
+            if (adiantados.size() <= LIMITE_DE_ADIANTADOS) {
+                return;
+            }
+            // o que falta não vem mais: segue a partir do primeiro adiantado
+            proximaPosicao = adiantados.firstKey();
+        } else {
+            publica(lance);
+        }
+        publicaAdiantados();
+    }
+
+    private void publicaAdiantados() {
+        Lance lance;
+        while ((lance = adiantados.remove(proximaPosicao)) != null) {
+            publica(lance);
+        }
+    }
+
+    private void publica(Lance lance) {
+        proximaPosicao++;
+        for (Assinatura assinatura : assinaturas) {
+            assinatura.oferece(lance);
+        }
+    }
+
+    /**
+     * Cada assinante recebe os lances que ainda tem no buffer e depois {@code onComplete}.
+     */
+    void encerra() {
+        synchronized (this) {
+            for (Map.Entry<Integer, Lance> adiantado : adiantados.entrySet()) {
+                proximaPosicao = adiantado.getKey();
+                publica(adiantado.getValue());
+            }
+            adiantados.clear();
+        }
+        encerrado = true;
+        for (Assinatura assinatura : assinaturas) {
+            assinatura.completa();
+        }
+    }
+
+    int getQuantidadeDeAssinaturas() {
+        return assinaturas.size();
+    }
+
+    private final class Assinatura implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Lance> assinante;
+        private final int capacidade;
+        private final ArrayBlockingQueue<Lance> fila;
+        private final AtomicReference<Lance> maiorLance;
+
+        private final AtomicLong demanda = new AtomicLong();
+        private final AtomicInteger pendencias = new AtomicInteger();
+        private volatile boolean cancelada;
+        private volatile boolean completa;
+        private volatile Throwable erro;
+
+        private Assinatura(Flow.Subscriber<? super Lance> assinante, PoliticaDeEntrega politica) {
+            this.assinante = assinante;
+            this.capacidade = politica.getCapacidade();
+            boolean emFila = politica.getTipo() == PoliticaDeEntrega.Tipo.EM_FILA;
+            this.fila = emFila ? new ArrayBlockingQueue<>(politica.getCapacidade()) : null;
+            this.maiorLance = emFila ? null : new AtomicReference<>();
+        }
+
+        private void oferece(Lance lance) {
+            if (cancelada) {
+                return;
+            }
+            if (fila != null) {
+                if (!fila.offer(lance)) {
+                    erro = new IllegalStateException("Assinante lento: a fila de " + capacidade + " lances encheu.");
+                }
+            } else {
+                maiorLance.set(lance);
+            }
+            agenda();
+        }
+
+        private void completa() {
+            completa = true;
+            agenda();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                erro = new IllegalArgumentException("A demanda deve ser maior que zero.");
+            } else {
+                demanda.getAndAccumulate(n, (atual, pedido) -> {
+                    long soma = atual + pedido;
+                    return soma < 0 ? Long.MAX_VALUE : soma;
+                });
+            }
+            agenda();
+        }
+
+        @Override
+        public void cancel() {
+            cancelada = true;
+            assinaturas.remove(this);
+        }
+
+        private void agenda() {
+            if (pendencias.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int perdidas = 1;
+            do {
+                entrega();
+                perdidas = pendencias.addAndGet(-perdidas);
+            } while (perdidas != 0);
+        }
+
+        private void entrega() {
+            while (!cancelada) {
+                if (erro != null) {
+                    cancel();
+                    assinante.onError(erro);
+                    return;
+                }
+                if (demanda.get() == 0) {
+                    if (completa && vazia()) {
+                        termina();
+                    }
+                    return;
+                }
+
+                Lance lance = fila != null ? fila.poll() : maiorLance.getAndSet(null);
+                if (lance == null) {
+                    if (completa) {
+                        termina();
+                    }
+                    return;
+                }
+                if (demanda.get() != Long.MAX_VALUE) {
+                    demanda.decrementAndGet();
+                }
+                try {
+                    assinante.onNext(lance);
+                } catch (RuntimeException e) {
+                    // um assinante que falha é tratado como cancelado
+                    cancel();
+                    return;
+                }
+            }
+        }
+
+        private boolean vazia() {
+            return fila != null ? fila.isEmpty() : maiorLance.get() == null;
+        }
+
+        private void termina() {
+            cancel();
+            assinante.onComplete();
+        }
+    }
+}
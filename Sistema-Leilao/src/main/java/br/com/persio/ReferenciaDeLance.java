@@ -0,0 +1,39 @@
+package br.com.persio;
+
+import java.time.Instant;
+
+/**
+ * Um lance aceito, indexado: o id do leilão, a posição do lance nele, o próprio lance e
+ * quando foi aceito. Não guarda o leilão, que pode ser descartado antes da referência;
+ * o id é o mesmo com que o leilão foi acompanhado ou aberto na {@link CasaDeLeiloes}.
+ */
+public final class ReferenciaDeLance {
+
+    private final String idDoLeilao;
+    private final int posicao;
+    private final Lance lance;
+    private final long instanteEmMillis;
+
+    ReferenciaDeLance(String idDoLeilao, int posicao, Lance lance, long instanteEmMillis) {
+        this.idDoLeilao = idDoLeilao;
+        this.posicao = posicao;
+        this.lance = lance;
+        this.instanteEmMillis = instanteEmMillis;
+    }
+
+    public String getIdDoLeilao() {
+        return idDoLeilao;
+    }
+
+    public int getPosicao() {
+        return posicao;
+    }
+
+    public Instant getInstante() {
+        return Instant.ofEpochMilli(instanteEmMillis);
+    }
+
+    public Lance getLance() {
+        return lance;
+    }
+}
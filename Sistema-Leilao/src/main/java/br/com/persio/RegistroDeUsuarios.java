@@ -0,0 +1,85 @@
+package br.com.persio;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro que guarda uma única instância de {@link Usuario} por nome (sem diferenciar
+ * maiúsculas) e atribui a cada uma um identificador inteiro pequeno e estável,
+ * começando em zero. Usuários canônicos podem ser comparados por identidade ({@code ==})
+ * ou pelo identificador.
+ */
+public class RegistroDeUsuarios {
+
+    private final ConcurrentHashMap<Usuario, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Usuario[] usuariosPorId = new Usuario[16];
+    private int tamanho;
+
+    /**
+     * @return a instância canônica do usuário com esse nome, registrando-o se necessário
+     */
+    public Usuario canonico(String nome) {
+        return canonico(new Usuario(nome));
+    }
+
+    /**
+     * @return a instância canônica equivalente ao usuário informado, registrando-o se necessário
+     */
+    public Usuario canonico(Usuario usuario) {
+        return usuariosPorId[idDe(usuario)];
+    }
+
+    /**
+     * @return o identificador do usuário, registrando-o se for a primeira vez que aparece
+     */
+    public int idDe(Usuario usuario) {
+        if (usuario == null) {
+            throw new IllegalArgumentException("Usuário não pode ser nulo.");
+        }
+        Integer id = ids.get(usuario);
+        return id != null ? id : registra(usuario);
+    }
+
+    /**
+     * @return o identificador do usuário, ou -1 se ele nunca foi registrado
+     */
+    public int buscaId(Usuario usuario) {
+        Integer id = usuario == null ? null : ids.get(usuario);
+        return id == null ? -1 : id;
+    }
+
+    public Usuario porId(int id) {
+        Usuario usuario = buscaPorId(id);
+        if (usuario == null) {
+            throw new IllegalArgumentException("Usuário com id " + id + " não registrado.");
+        }
+        return usuario;
+    }
+
+    /**
+     * @return o usuário com esse identificador, ou {@code null} se o id não foi atribuído
+     */
+    public Usuario buscaPorId(int id) {
+        Usuario[] usuarios = usuariosPorId;
+        return id >= 0 && id < usuarios.length ? usuarios[id] : null;
+    }
+
+    public synchronized int tamanho() {
+        return tamanho;
+    }
+
+    private synchronized int registra(Usuario usuario) {
+        Integer existente = ids.get(usuario);
+        if (existente != null) {
+            return existente;
+        }
+
+        if (tamanho == usuariosPorId.length) {
+            usuariosPorId = Arrays.copyOf(usuariosPorId, tamanho + (tamanho >> 1));
+        }
+        usuariosPorId[tamanho] = usuario;
+        // publicado no mapa só depois de estar no vetor, para que porId sempre o encontre
+        ids.put(usuario, tamanho);
+        return tamanho++;
+    }
+}
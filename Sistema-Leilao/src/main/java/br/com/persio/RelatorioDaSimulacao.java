@@ -0,0 +1,92 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de uma execução do {@link SimuladorDeLeilao}.
+ */
+public class RelatorioDaSimulacao {
+
+    private final Duration duracao;
+    private final Map<ResultadoLance, Long> resultados;
+    private final long latenciasMedidas;
+    private final long latenciaP50;
+    private final long latenciaP90;
+    private final long latenciaP99;
+    private final long latenciaMaxima;
+
+    RelatorioDaSimulacao(Duration duracao, Map<ResultadoLance, Long> resultados, long latenciasMedidas,
+                         long latenciaP50, long latenciaP90, long latenciaP99, long latenciaMaxima) {
+        this.duracao = duracao;
+        this.resultados = Collections.unmodifiableMap(new EnumMap<>(resultados));
+        this.latenciasMedidas = latenciasMedidas;
+        this.latenciaP50 = latenciaP50;
+        this.latenciaP90 = latenciaP90;
+        this.latenciaP99 = latenciaP99;
+        this.latenciaMaxima = latenciaMaxima;
+    }
+
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    public long getTotalDeLances() {
+        return resultados.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getQuantidade(ResultadoLance resultado) {
+        return resultados.getOrDefault(resultado, 0L);
+    }
+
+    public double getTaxaDeAceitacao() {
+        long total = getTotalDeLances();
+        return total == 0 ? 0.0 : (double) getQuantidade(ResultadoLance.ACEITO) / total;
+    }
+
+    public double getLancesPorSegundo() {
+        return getTotalDeLances() / (duracao.toNanos() / 1e9);
+    }
+
+    /**
+     * @return quantas latências entraram nos percentis; uma por lance da execução
+     */
+    long getLatenciasMedidas() {
+        return latenciasMedidas;
+    }
+
+    /** Latências em nanossegundos. */
+    public long getLatenciaP50() {
+        return latenciaP50;
+    }
+
+    public long getLatenciaP90() {
+        return latenciaP90;
+    }
+
+    public long getLatenciaP99() {
+        return latenciaP99;
+    }
+
+    public long getLatenciaMaxima() {
+        return latenciaMaxima;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("Lances: %d em %d ms (%.0f lances/s)%n",
+                getTotalDeLances(), duracao.toMillis(), getLancesPorSegundo()));
+        texto.append(String.format("Taxa de aceitação: %.2f%%%n", getTaxaDeAceitacao() * 100));
+        for (ResultadoLance resultado : ResultadoLance.values()) {
+            if (!resultado.isAceito()) {
+                texto.append(String.format("Rejeitados por %s: %d%n", resultado, getQuantidade(resultado)));
+            }
+        }
+        texto.append(String.format("Latência (us): p50=%.1f p90=%.1f p99=%.1f máx=%.1f",
+                latenciaP50 / 1e3, latenciaP90 / 1e3, latenciaP99 / 1e3, latenciaMaxima / 1e3));
+        return texto.toString();
+    }
+}
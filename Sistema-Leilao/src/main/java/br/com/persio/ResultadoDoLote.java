@@ -0,0 +1,48 @@
+package br.com.persio;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de um {@link AvaliadorEmLote}: a avaliação de cada leilão e a de todos juntos.
+ */
+public class ResultadoDoLote {
+
+    private final List<Avaliador> avaliadores;
+    private final Avaliador geral;
+
+    ResultadoDoLote(Avaliador[] avaliadores, Avaliador geral) {
+        this.avaliadores = Collections.unmodifiableList(Arrays.asList(avaliadores));
+        this.geral = geral;
+    }
+
+    /**
+     * @return um avaliador por leilão, na ordem em que foram passados; {@code null}
+     *         para os leilões sem lances
+     */
+    public List<Avaliador> getAvaliadores() {
+        return avaliadores;
+    }
+
+    public Avaliador getAvaliador(int indice) {
+        return avaliadores.get(indice);
+    }
+
+    /**
+     * @return a avaliação de todos os lances de todos os leilões, como se fossem um só
+     */
+    public Avaliador getGeral() {
+        return geral;
+    }
+
+    public int getLeiloesSemLances() {
+        int semLances = 0;
+        for (Avaliador avaliador : avaliadores) {
+            if (avaliador == null) {
+                semLances++;
+            }
+        }
+        return semLances;
+    }
+}
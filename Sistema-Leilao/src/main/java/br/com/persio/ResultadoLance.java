@@ -0,0 +1,34 @@
+package br.com.persio;
+
+/**
+ * Resultado da tentativa de dar um lance em um {@link Leilao}, devolvido por
+ * {@link Leilao#tentaPropor(Lance)} no lugar de uma exceção.
+ */
+public enum ResultadoLance {
+
+    ACEITO(null),
+    LANCE_NULO("Lance não pode ser nulo."),
+    VALOR_NAO_SUPERIOR("Lance deve ser maior que o anterior."),
+    LIMITE_DE_LANCES("Usuário atingiu o limite de 5 lances."),
+    LEILAO_ENCERRADO("Leilão encerrado não aceita lances."),
+    LEILAO_DIFERENTE("Lance pertence a outro leilão."),
+    USUARIO_DESCONHECIDO("Usuário do lance não está registrado."),
+    VALOR_INVALIDO("O valor do lance deve ser maior que zero.");
+
+    private final String mensagem;
+
+    ResultadoLance(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public boolean isAceito() {
+        return this == ACEITO;
+    }
+
+    /**
+     * @return a mensagem da exceção lançada por {@link Leilao#propoe(Lance)} para esta rejeição
+     */
+    public String getMensagem() {
+        return mensagem;
+    }
+}
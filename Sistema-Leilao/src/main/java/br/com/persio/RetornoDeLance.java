@@ -0,0 +1,21 @@
+package br.com.persio;
+
+/**
+ * Recebe a decisão sobre um lance publicado em um {@link PipelineDeLances}.
+ * É chamado na thread consumidora do pipeline, por isso deve ser rápido.
+ */
+@FunctionalInterface
+public interface RetornoDeLance {
+
+    void decidido(Lance lance, ResultadoLance resultado);
+
+    /**
+     * Chamado no lugar de {@link #decidido} quando o leilão lança uma exceção ao decidir o
+     * lance, como a falha de um ouvinte. Por padrão a falha vai para o tratador de exceções
+     * não capturadas da thread consumidora.
+     */
+    default void falhou(Lance lance, RuntimeException erro) {
+        Thread atual = Thread.currentThread();
+        atual.getUncaughtExceptionHandler().uncaughtException(atual, erro);
+    }
+}
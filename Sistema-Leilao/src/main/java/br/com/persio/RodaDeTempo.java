@@ -0,0 +1,280 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Agendador de prazos em roda de tempo com hash: a roda tem uma fatia por tique e cada
+ * tarefa vai para a fatia do seu prazo, com o número de voltas que ainda faltam. Agendar,
+ * cancelar e disparar custam O(1) por tarefa, independente de quantas estão pendentes.
+ *
+ * <p>Uma única thread gira a roda. Ela dorme até o tique da próxima fatia ocupada, pulando
+ * as vazias; sem nenhuma tarefa, fica parada até o próximo agendamento. Um agendamento com
+ * prazo anterior ao despertar previsto acorda a thread mais cedo. As tarefas rodam nessa
+ * thread, então devem ser curtas. Nenhuma tarefa dispara antes do prazo; o atraso é de no
+ * máximo um tique.</p>
+ */
+public class RodaDeTempo implements AutoCloseable {
+
+    private final long nanosPorTique;
+    private final Fatia[] fatias;
+    private final int mascara;
+    private final long inicio = System.nanoTime();
+
+    private final Queue<Agendamento> novos = new ConcurrentLinkedQueue<>();
+    private final Queue<Agendamento> cancelados = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final Thread trabalhador;
+
+    // instante em que a thread parada vai acordar; Long.MIN_VALUE enquanto está acordada
+    private volatile long despertar = Long.MIN_VALUE;
+    private volatile boolean fechada;
+
+    // mantidos apenas pela thread da roda
+    private long tique;
+    private volatile long despertares;
+
+    /**
+     * Roda com resolução de 1 ms e 512 fatias.
+     */
+    public RodaDeTempo() {
+        this(Duration.ofMillis(1), 512);
+    }
+
+    /**
+     * @param resolucao         duração de um tique
+     * @param quantidadeDeFatias fatias da roda; precisa ser uma potência de 2
+     */
+    public RodaDeTempo(Duration resolucao, int quantidadeDeFatias) {
+        if (resolucao == null || resolucao.isNegative() || resolucao.isZero()) {
+            throw new IllegalArgumentException("A resolução da roda deve ser positiva.");
+        }
+        if (quantidadeDeFatias <= 0 || Integer.bitCount(quantidadeDeFatias) != 1) {
+            throw new IllegalArgumentException("A quantidade de fatias deve ser uma potência de 2.");
+        }
+        this.nanosPorTique = resolucao.toNanos();
+        this.fatias = new Fatia[quantidadeDeFatias];
+        for (int i = 0; i < quantidadeDeFatias; i++) {
+            fatias[i] = new Fatia();
+        }
+        this.mascara = quantidadeDeFatias - 1;
+        this.trabalhador = new Thread(this::gira, "roda-de-tempo");
+        this.trabalhador.setDaemon(true);
+        this.trabalhador.start();
+    }
+
+    public Agendamento agenda(Runnable tarefa, Instant prazo) {
+        if (prazo == null) {
+            throw new IllegalArgumentException("Prazo não pode ser nulo.");
+        }
+        Duration atraso = Duration.between(Instant.now(), prazo);
+        return agenda(tarefa, atraso.isNegative() ? Duration.ZERO : atraso);
+    }
+
+    public Agendamento agenda(Runnable tarefa, Duration atraso) {
+        if (tarefa == null) {
+            throw new IllegalArgumentException("Tarefa não pode ser nula.");
+        }
+        if (atraso == null || atraso.isNegative()) {
+            throw new IllegalArgumentException("O atraso não pode ser nulo nem negativo.");
+        }
+        if (fechada) {
+            throw new IllegalStateException("A roda de tempo já foi fechada.");
+        }
+
+        Agendamento agendamento = new Agendamento(this, tarefa, System.nanoTime() - inicio + atraso.toNanos());
+        pendentes.incrementAndGet();
+        novos.add(agendamento);
+        if (agendamento.prazoEmNanos < despertar) {
+            LockSupport.unpark(trabalhador);
+        }
+        return agendamento;
+    }
+
+    /**
+     * @return tarefas agendadas que ainda não dispararam nem foram canceladas
+     */
+    public int getPendentes() {
+        return pendentes.get();
+    }
+
+    /**
+     * Para a roda; tarefas que ainda não dispararam são descartadas.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        fechada = true;
+        LockSupport.unpark(trabalhador);
+        trabalhador.join();
+    }
+
+    /**
+     * @return quantas vezes a thread da roda acordou
+     */
+    long getDespertares() {
+        return despertares;
+    }
+
+    void cancelado(Agendamento agendamento) {
+        pendentes.decrementAndGet();
+        cancelados.add(agendamento);
+    }
+
+    private void gira() {
+        while (!fechada) {
+            if (pendentes.get() == 0) {
+                dormeAteOProximoAgendamento();
+                continue;
+            }
+
+            transfereNovos();
+            removeCancelados();
+            long proximo = proximoTiqueOcupado();
+            long inicioDoTique = proximo * nanosPorTique;
+            long agora = System.nanoTime() - inicio;
+            if (agora < inicioDoTique) {
+                dormeAte(inicioDoTique, agora);
+                continue;
+            }
+
+            // as fatias puladas estão vazias, então não há voltas a descontar nelas
+            tique = proximo;
+            dispara(fatias[(int) (tique & mascara)]);
+            tique++;
+        }
+    }
+
+    /**
+     * @return o primeiro tique, a partir do atual, cuja fatia tem tarefas; uma volta
+     *         inteira adiante se todas estiverem vazias
+     */
+    private long proximoTiqueOcupado() {
+        for (int i = 0; i < fatias.length; i++) {
+            if (fatias[(int) ((tique + i) & mascara)].tamanho > 0) {
+                return tique + i;
+            }
+        }
+        return tique + fatias.length;
+    }
+
+    /**
+     * Publica o instante do despertar antes de conferir os novos agendamentos: quem agenda
+     * acrescenta antes de ler o despertar, então ou a roda vê o agendamento ou é acordada.
+     */
+    private void dormeAte(long inicioDoTique, long agora) {
+        despertar = inicioDoTique;
+        if (novos.isEmpty() && !fechada) {
+            LockSupport.parkNanos(this, inicioDoTique - agora);
+            despertares++;
+        }
+        despertar = Long.MIN_VALUE;
+    }
+
+    /**
+     * Sem tarefas não há o que girar: a thread fica parada e, ao voltar, pula direto
+     * para o tique atual em vez de percorrer as fatias vazias do intervalo.
+     */
+    private void dormeAteOProximoAgendamento() {
+        despertar = Long.MAX_VALUE;
+        while (pendentes.get() == 0 && !fechada) {
+            LockSupport.park(this);
+            despertares++;
+        }
+        despertar = Long.MIN_VALUE;
+        removeCancelados();
+        tique = Math.max(tique, (System.nanoTime() - inicio) / nanosPorTique);
+    }
+
+    private void transfereNovos() {
+        Agendamento agendamento;
+        while ((agendamento = novos.poll()) != null) {
+            if (agendamento.estado.get() != Agendamento.AGENDADO) {
+                continue;
+            }
+            // arredonda para cima: a tarefa nunca dispara antes do prazo
+            long tiqueDoPrazo = Math.max(tique, (agendamento.prazoEmNanos + nanosPorTique - 1) / nanosPorTique);
+            agendamento.voltas = (tiqueDoPrazo - tique) / fatias.length;
+            fatias[(int) (tiqueDoPrazo & mascara)].adiciona(agendamento);
+        }
+    }
+
+    private void removeCancelados() {
+        Agendamento agendamento;
+        while ((agendamento = cancelados.poll()) != null) {
+            if (agendamento.fatia != null) {
+                agendamento.fatia.remove(agendamento);
+            }
+        }
+    }
+
+    private void dispara(Fatia fatia) {
+        Agendamento agendamento = fatia.primeiro;
+        while (agendamento != null) {
+            Agendamento proximo = agendamento.proximo;
+            if (agendamento.voltas > 0) {
+                agendamento.voltas--;
+            } else {
+                fatia.remove(agendamento);
+                if (agendamento.estado.compareAndSet(Agendamento.AGENDADO, Agendamento.EXECUTADO)) {
+                    pendentes.decrementAndGet();
+                    executa(agendamento.tarefa);
+                }
+            }
+            agendamento = proximo;
+        }
+    }
+
+    private static void executa(Runnable tarefa) {
+        try {
+            tarefa.run();
+        } catch (RuntimeException e) {
+            // uma tarefa com defeito não pode parar a roda
+            Thread atual = Thread.currentThread();
+            atual.getUncaughtExceptionHandler().uncaughtException(atual, e);
+        }
+    }
+
+    /**
+     * Lista duplamente encadeada das tarefas de uma posição da roda.
+     */
+    static final class Fatia {
+
+        private Agendamento primeiro;
+        private Agendamento ultimo;
+        private int tamanho;
+
+        private void adiciona(Agendamento agendamento) {
+            tamanho++;
+            agendamento.fatia = this;
+            agendamento.anterior = ultimo;
+            agendamento.proximo = null;
+            if (ultimo == null) {
+                primeiro = agendamento;
+            } else {
+                ultimo.proximo = agendamento;
+            }
+            ultimo = agendamento;
+        }
+
+        private void remove(Agendamento agendamento) {
+            tamanho--;
+            if (agendamento.anterior == null) {
+                primeiro = agendamento.proximo;
+            } else {
+                agendamento.anterior.proximo = agendamento.proximo;
+            }
+            if (agendamento.proximo == null) {
+                ultimo = agendamento.anterior;
+            } else {
+                agendamento.proximo.anterior = agendamento.anterior;
+            }
+            agendamento.fatia = null;
+            agendamento.anterior = null;
+            agendamento.proximo = null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulador de carga: milhares de licitantes dão lances em vários leilões de uma
+ * {@link CasaDeLeiloes}, com intervalos sorteados por uma {@link DistribuicaoDeChegada}.
+ *
+ * <p>Cada licitante não é uma thread: é uma tarefa que se reagenda em um
+ * {@link ScheduledExecutorService} com poucas threads, de modo que dezenas de milhares
+ * de licitantes cabem em uma máquina comum. Roda sem rede e pode ser usado como teste
+ * de carga prolongada:</p>
+ *
+ * <pre>java -cp target/classes br.com.persio.SimuladorDeLeilao 20000 100 60 EXPONENCIAL</pre>
+ */
+public class SimuladorDeLeilao {
+
+    private final int licitantes;
+    private final int leiloes;
+    private final Duration duracao;
+    private final DistribuicaoDeChegada distribuicao;
+    private final Duration intervaloMedio;
+    private final int threads;
+
+    public SimuladorDeLeilao(int licitantes, int leiloes, Duration duracao, DistribuicaoDeChegada distribuicao) {
+        this(licitantes, leiloes, duracao, distribuicao, Duration.ofMillis(100),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param intervaloMedio tempo médio entre dois lances do mesmo licitante
+     * @param threads        threads que executam os licitantes
+     */
+    public SimuladorDeLeilao(int licitantes, int leiloes, Duration duracao, DistribuicaoDeChegada distribuicao,
+                             Duration intervaloMedio, int threads) {
+        if (licitantes <= 0 || leiloes <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Licitantes, leilões e threads devem ser maiores que zero.");
+        }
+        if (duracao == null || duracao.isNegative() || duracao.isZero()) {
+            throw new IllegalArgumentException("A duração da simulação deve ser positiva.");
+        }
+        if (distribuicao == null) {
+            throw new IllegalArgumentException("Distribuição de chegada não pode ser nula.");
+        }
+        if (intervaloMedio == null || intervaloMedio.isNegative() || intervaloMedio.isZero()) {
+            throw new IllegalArgumentException("O intervalo médio entre lances deve ser positivo.");
+        }
+        this.licitantes = licitantes;
+        this.leiloes = leiloes;
+        this.duracao = duracao;
+        this.distribuicao = distribuicao;
+        this.intervaloMedio = intervaloMedio;
+        this.threads = threads;
+    }
+
+    public RelatorioDaSimulacao executa() throws InterruptedException {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        String[] ids = new String[leiloes];
+        for (int i = 0; i < leiloes; i++) {
+            ids[i] = "leilao-" + i;
+            casa.abre(ids[i], "Leilão simulado " + i, TipoDeArmazenamento.COLUNAR);
+        }
+
+        LongAdder[] contagem = new LongAdder[ResultadoLance.values().length];
+        for (int i = 0; i < contagem.length; i++) {
+            contagem[i] = new LongAdder();
+        }
+
+        // um histograma por thread do executor, combinados só no fim: memória fixa mesmo em
+        // simulações longas; criados a cada execução, para uma não somar as latências da outra
+        List<Histograma> latencias = new CopyOnWriteArrayList<>();
+        ThreadLocal<Histograma> latenciasDaThread = ThreadLocal.withInitial(() -> {
+            Histograma novo = new Histograma(1, 1e10, 2);
+            latencias.add(novo);
+            return novo;
+        });
+
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(threads);
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        long media = intervaloMedio.toNanos();
+
+        for (int i = 0; i < licitantes; i++) {
+            Usuario usuario = new Usuario("licitante-" + i);
+            Runnable licitante = new Runnable() {
+                @Override
+                public void run() {
+                    long agora = System.nanoTime();
+                    if (agora >= fim) {
+                        return;
+                    }
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    // valores crescem com o tempo; lances quase simultâneos disputam o topo
+                    double valor = (agora - inicio) / 1_000.0 + aleatorio.nextDouble(1_000.0) + 1.0;
+                    Lance lance = new Lance(usuario, valor);
+
+                    long antes = System.nanoTime();
+                    ResultadoLance resultado = casa.tentaPropor(ids[aleatorio.nextInt(ids.length)], lance);
+                    latenciasDaThread.get().registra(System.nanoTime() - antes);
+                    contagem[resultado.ordinal()].increment();
+
+                    long intervalo = distribuicao.sorteiaIntervalo(media, aleatorio);
+                    if (System.nanoTime() + intervalo >= fim) {
+                        return;
+                    }
+                    try {
+                        executor.schedule(this, intervalo, TimeUnit.NANOSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // a simulação terminou entre a conta acima e o agendamento
+                        if (!executor.isShutdown()) {
+                            throw e;
+                        }
+                    }
+                }
+            };
+            long primeiroIntervalo = distribuicao.sorteiaIntervalo(media, ThreadLocalRandom.current());
+            executor.schedule(licitante, primeiroIntervalo, TimeUnit.NANOSECONDS);
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, fim - System.nanoTime()));
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        Duration decorrido = Duration.ofNanos(System.nanoTime() - inicio);
+
+        Map<ResultadoLance, Long> resultados = new EnumMap<>(ResultadoLance.class);
+        for (ResultadoLance resultado : ResultadoLance.values()) {
+            resultados.put(resultado, contagem[resultado.ordinal()].sum());
+        }
+
+        Histograma todas = new Histograma(1, 1e10, 2);
+        for (Histograma daThread : latencias) {
+            todas.combina(daThread);
+        }
+        return new RelatorioDaSimulacao(decorrido, resultados, todas.getQuantidade(),
+                percentil(todas, 50), percentil(todas, 90), percentil(todas, 99), percentil(todas, 100));
+    }
+
+    static long percentil(Histograma latencias, double percentil) {
+        return latencias.getQuantidade() == 0 ? 0 : (long) latencias.percentil(percentil);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int licitantes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int leiloes = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Duration duracao = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        DistribuicaoDeChegada distribuicao = args.length > 3
+                ? DistribuicaoDeChegada.valueOf(args[3])
+                : DistribuicaoDeChegada.EXPONENCIAL;
+
+        System.out.println(new SimuladorDeLeilao(licitantes, leiloes, duracao, distribuicao).executa());
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.persio;
+
+/**
+ * Forma como um {@link Leilao} guarda seus lances.
+ */
+public enum TipoDeArmazenamento {
+
+    /** Um objeto {@link Lance} por lance, em uma lista. */
+    LISTA,
+
+    /**
+     * Valores em um {@code double[]} e usuários em um {@code int[]} de identificadores;
+     * os objetos {@link Lance} só são criados quando alguém os lê.
+     */
+    COLUNAR
+}
@@ -8,11 +8,15 @@ public class Usuario {
 
     private String nome;
 
+    // Hash do nome sem diferenciar maiúsculas, calculado uma única vez
+    private final int hash;
+
     public Usuario(String nome) {
         if (nome == null || nome.isBlank()) {
             throw new IllegalArgumentException("O nome do usuário não pode ser vazio ou nulo.");
         }
         this.nome = nome;
+        this.hash = hashSemMaiusculas(nome);
     }
 
     public String getNome() {
@@ -29,11 +33,26 @@ public class Usuario {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Usuario outro = (Usuario) obj;
-        return nome.equalsIgnoreCase(outro.nome);
+        return hash == outro.hash && nome.equalsIgnoreCase(outro.nome);
     }
 
     @Override
     public int hashCode() {
-        return nome.toLowerCase().hashCode();
+        return hash;
+    }
+
+    /**
+     * Hash coerente com {@link String#equalsIgnoreCase}: cada caractere é reduzido como lá,
+     * passando para maiúscula e depois para minúscula, sem criar uma String nova e sem
+     * depender do idioma padrão.
+     */
+    private static int hashSemMaiusculas(String nome) {
+        int hash = 0;
+        for (int i = 0; i < nome.length(); ) {
+            int caractere = nome.codePointAt(i);
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(caractere));
+            i += Character.charCount(caractere);
+        }
+        return hash;
     }
 }
@@ -0,0 +1,125 @@
+package br.com.persio;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArquivoDeLeiloesTest {
+
+    @Test
+    void deveArquivarOsLancesEManterOLeilaoLegivel() {
+        Leilao original = new Leilao("Carro antigo", TipoDeArmazenamento.LISTA, Instant.parse("2030-01-01T00:00:00Z"));
+        original.propoe(new Lance(new Usuario("Persio"), 100.0));
+        original.propoe(new Lance(new Usuario("João"), 250.0));
+        original.propoe(new Lance(new Usuario("Persio"), 300.5));
+        original.encerra();
+
+        ArquivoDeLeiloes arquivo = new ArquivoDeLeiloes();
+        Leilao arquivado = arquivo.arquiva("carro", original);
+
+        Assertions.assertSame(arquivado, arquivo.getLeilao("carro"));
+        Assertions.assertEquals("Carro antigo", arquivado.getDescricao());
+        Assertions.assertEquals(original.getPrazo(), arquivado.getPrazo());
+        Assertions.assertTrue(arquivado.isEncerrado());
+        Assertions.assertEquals(3, arquivado.getLances().size());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(original.getLances().get(i).getUsuario(), arquivado.getLances().get(i).getUsuario());
+            Assertions.assertEquals(original.getLances().get(i).getValor(), arquivado.getLances().get(i).getValor());
+        }
+        Assertions.assertEquals(2, arquivado.lancesDo(new Usuario("persio")));
+        Assertions.assertEquals(36, arquivo.getBytesUsados());
+    }
+
+    @Test
+    void deveAvaliarOLeilaoArquivado() {
+        Leilao original = new Leilao("Moto", TipoDeArmazenamento.COLUNAR);
+        for (int i = 1; i <= 20; i++) {
+            original.propoe(new Lance(new Usuario("Usuario" + i), i * 10.0));
+        }
+        original.encerra();
+        Leilao arquivado = new ArquivoDeLeiloes().arquiva("moto", original);
+
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(arquivado);
+
+        Assertions.assertEquals(200.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(10.0, avaliador.getMenorLance());
+        Assertions.assertEquals(20, avaliador.getQuantidade());
+        Assertions.assertEquals(180.0, avaliador.getMaioresLances().get(2).getValor());
+    }
+
+    @Test
+    void naoDeveAceitarLancesNoLeilaoArquivado() {
+        Leilao original = new LeilaoConcorrente("TV");
+        original.propoe(new Lance(new Usuario("Persio"), 100.0));
+        original.encerra();
+        Leilao arquivado = new ArquivoDeLeiloes().arquiva("tv", original);
+
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO,
+                arquivado.tentaPropor(new Lance(new Usuario("João"), 200.0)));
+        Assertions.assertArrayEquals(
+                new ResultadoLance[] {ResultadoLance.LEILAO_ENCERRADO, ResultadoLance.LEILAO_ENCERRADO},
+                arquivado.propoeTodos(List.of(new Lance(new Usuario("João"), 200.0),
+                        new Lance(new Usuario("Maria"), 300.0))));
+        Assertions.assertThrows(UnsupportedOperationException.class, () ->
+                arquivado.getLances().add(new Lance(new Usuario("João"), 200.0)));
+        Assertions.assertEquals(1, arquivado.getLances().size());
+    }
+
+    @Test
+    void deveEncerrarNaCasaEArquivarPeloId() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("notebook", "Notebook");
+        casa.propoe("notebook", new Lance(new Usuario("Persio"), 500.0));
+
+        ArquivoDeLeiloes arquivo = new ArquivoDeLeiloes();
+        Leilao arquivado = arquivo.encerraEArquiva(casa, "notebook");
+
+        Assertions.assertEquals(0, casa.getQuantidadeDeLeiloes());
+        Assertions.assertEquals(1, arquivo.getQuantidadeDeLeiloes());
+        Assertions.assertEquals(500.0, arquivado.getLances().get(0).getValor());
+    }
+
+    @Test
+    void deveDividirOsBlocosEntreLeiloesEAlocarLeiloesMaioresAParte() {
+        ArquivoDeLeiloes arquivo = new ArquivoDeLeiloes(1024);
+        List<Leilao> arquivados = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Leilao leilao = new Leilao("Leilão " + i);
+            int lances = i == 29 ? 200 : 5;
+            for (int j = 0; j < lances; j++) {
+                leilao.propoe(new Lance(new Usuario("u" + j), i * 1000.0 + j + 1));
+            }
+            leilao.encerra();
+            arquivados.add(arquivo.arquiva("leilao-" + i, leilao));
+        }
+
+        // 29 leilões de 60 bytes (64 alinhados) em dois blocos, e um de 2400 bytes sozinho
+        Assertions.assertEquals(2 * 1024 + 2400, arquivo.getBytesAlocados());
+        Assertions.assertEquals(29 * 60 + 2400, arquivo.getBytesUsados());
+        for (int i = 0; i < 30; i++) {
+            Leilao arquivado = arquivados.get(i);
+            Assertions.assertEquals(i == 29 ? 200 : 5, arquivado.getLances().size());
+            Assertions.assertEquals(i * 1000.0 + 1, arquivado.getLances().get(0).getValor());
+        }
+    }
+
+    @Test
+    void naoDeveArquivarLeilaoAbertoRepetidoOuInvalido() {
+        ArquivoDeLeiloes arquivo = new ArquivoDeLeiloes();
+        Leilao aberto = new Leilao("Aberto");
+        Leilao encerrado = new Leilao("Encerrado");
+        encerrado.encerra();
+        arquivo.arquiva("encerrado", encerrado);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arquivo.arquiva("aberto", aberto));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arquivo.arquiva("encerrado", encerrado));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arquivo.arquiva(null, encerrado));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arquivo.arquiva("x", null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arquivo.getLeilao("inexistente"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ArquivoDeLeiloes(0));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.persio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AvaliadorEmLoteTest {
+
+    @Test
+    void deveAvaliarCadaLeilaoEOConjunto() {
+        List<Leilao> leiloes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Leilao leilao = i % 2 == 0 ? new Leilao("Leilão " + i, TipoDeArmazenamento.COLUNAR) : new LeilaoConcorrente("Leilão " + i);
+            for (int j = 1; j <= i % 7; j++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + j), i * 100.0 + j));
+            }
+            leiloes.add(leilao);
+        }
+
+        try (AvaliadorEmLote emLote = new AvaliadorEmLote(4, 3)) {
+            ResultadoDoLote resultado = emLote.avalia(leiloes);
+
+            long quantidade = 0;
+            double soma = 0;
+            for (int i = 0; i < leiloes.size(); i++) {
+                Avaliador avaliador = resultado.getAvaliador(i);
+                if (i % 7 == 0) {
+                    Assertions.assertNull(avaliador);
+                    continue;
+                }
+                Assertions.assertEquals(i * 100.0 + i % 7, avaliador.getMaiorLance());
+                Assertions.assertEquals(i * 100.0 + 1, avaliador.getMenorLance());
+                quantidade += avaliador.getQuantidade();
+                soma += avaliador.getSoma();
+            }
+
+            Avaliador geral = resultado.getGeral();
+            Assertions.assertEquals(15, resultado.getLeiloesSemLances());
+            Assertions.assertEquals(quantidade, geral.getQuantidade());
+            Assertions.assertEquals(soma, geral.getSoma(), 1e-6);
+            Assertions.assertEquals(99 * 100.0 + 1, geral.getMaiorLance());
+            Assertions.assertEquals(100.0 + 1, geral.getMenorLance());
+            Assertions.assertEquals(quantidade, geral.getHistograma().getQuantidade());
+            Assertions.assertEquals(99 * 100.0 + 1, geral.getMaioresLances().get(0).getValor());
+        }
+    }
+
+    @Test
+    void deveAvaliarLoteVazio() {
+        try (AvaliadorEmLote emLote = new AvaliadorEmLote()) {
+            ResultadoDoLote resultado = emLote.avalia(List.of());
+
+            Assertions.assertTrue(resultado.getAvaliadores().isEmpty());
+            Assertions.assertEquals(0, resultado.getGeral().getQuantidade());
+        }
+    }
+
+    @Test
+    void naoDeveAceitarConfiguracaoOuLeiloesInvalidos() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AvaliadorEmLote(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AvaliadorEmLote(1, 0));
+
+        try (AvaliadorEmLote emLote = new AvaliadorEmLote(1, 1)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> emLote.avalia(null));
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    emLote.avalia(Arrays.asList(new Leilao("Um"), null)));
+        }
+    }
+}
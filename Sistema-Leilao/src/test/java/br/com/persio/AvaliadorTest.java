@@ -1,5 +1,12 @@
 package br.com.persio;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +71,243 @@ class AvaliadorTest {
         Assertions.assertEquals(700.0, avaliador.getMaiorLance());
         Assertions.assertEquals(700.0, avaliador.getMenorLance());
     }
+
+    @Test
+    void deveCalcularQuantidadeSomaEMedia() {
+        Leilao leilao = new Leilao("Moto");
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 600.0));
+
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+
+        Assertions.assertEquals(3, avaliador.getQuantidade());
+        Assertions.assertEquals(900.0, avaliador.getSoma());
+        Assertions.assertEquals(300.0, avaliador.getMedia());
+    }
+
+    @Test
+    void deveAtualizarValoresAoAcompanharLeilao() {
+        Leilao leilao = new Leilao("Guitarra");
+        leilao.propoe(new Lance(new Usuario("Persio"), 250.0));
+
+        Avaliador avaliador = new Avaliador();
+        avaliador.acompanhar(leilao);
+
+        Assertions.assertEquals(250.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(250.0, avaliador.getMenorLance());
+
+        leilao.propoe(new Lance(new Usuario("João"), 400.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 550.0));
+
+        Assertions.assertEquals(550.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(250.0, avaliador.getMenorLance());
+        Assertions.assertEquals(3, avaliador.getQuantidade());
+        Assertions.assertEquals(400.0, avaliador.getMedia());
+    }
+
+    @Test
+    void devePermitirAcompanharLeilaoSemLances() {
+        Leilao leilao = new Leilao("Sofá");
+        Avaliador avaliador = new Avaliador();
+        avaliador.acompanhar(leilao);
+
+        Assertions.assertEquals(0, avaliador.getQuantidade());
+        Assertions.assertEquals(0.0, avaliador.getMedia());
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 80.0));
+
+        Assertions.assertEquals(80.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(80.0, avaliador.getMenorLance());
+    }
+
+    @Test
+    void deveContarUmaVezCadaLanceAceitoEnquantoComecaAAcompanhar() throws InterruptedException {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            LeilaoConcorrente leilao = new LeilaoConcorrente("Concorrente");
+            Thread[] threads = new Thread[2];
+            for (int t = 0; t < threads.length; t++) {
+                int deslocamento = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        leilao.tentaPropor(new Lance(new Usuario("u" + i), i * 2.0 + deslocamento + 1));
+                    }
+                });
+                threads[t].start();
+            }
+            Avaliador avaliador = new Avaliador();
+            avaliador.acompanhar(leilao);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            List<Lance> lances = leilao.getLances();
+            Assertions.assertEquals(lances.size(), avaliador.getQuantidade());
+            Assertions.assertEquals(lances.get(lances.size() - 1).getValor(), avaliador.getMaiorLance());
+        }
+    }
+
+    @Test
+    void deveLancarExcecaoAoAcompanharLeilaoNulo() {
+        Avaliador avaliador = new Avaliador();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> avaliador.acompanhar(null));
+    }
+
+    @Test
+    void deveEncontrarOsTresMaioresLances() {
+        Leilao leilao = new Leilao("Playstation");
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        leilao.propoe(new Lance(new Usuario("Persio"), 300.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 400.0));
+
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+
+        List<Lance> maiores = avaliador.getMaioresLances();
+        Assertions.assertEquals(3, maiores.size());
+        Assertions.assertEquals(400.0, maiores.get(0).getValor());
+        Assertions.assertEquals(300.0, maiores.get(1).getValor());
+        Assertions.assertEquals(200.0, maiores.get(2).getValor());
+    }
+
+    @Test
+    void deveDevolverTodosOsLancesSeHouverMenosQueN() {
+        Leilao leilao = new Leilao("Fogão");
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+
+        Avaliador avaliador = new Avaliador(5);
+        avaliador.avaliar(leilao);
+
+        List<Lance> maiores = avaliador.getMaioresLances();
+        Assertions.assertEquals(2, maiores.size());
+        Assertions.assertEquals(200.0, maiores.get(0).getValor());
+        Assertions.assertEquals(100.0, maiores.get(1).getValor());
+    }
+
+    @Test
+    void deveAtualizarMaioresLancesAoAcompanharLeilao() {
+        Leilao leilao = new Leilao("Bicicleta");
+        Avaliador avaliador = new Avaliador(2);
+        avaliador.acompanhar(leilao);
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 300.0));
+
+        List<Lance> maiores = avaliador.getMaioresLances();
+        Assertions.assertEquals(2, maiores.size());
+        Assertions.assertEquals(300.0, maiores.get(0).getValor());
+        Assertions.assertEquals("Maria", maiores.get(0).getUsuario().getNome());
+        Assertions.assertEquals(200.0, maiores.get(1).getValor());
+    }
+
+    @Test
+    void naoDevePermitirQuantidadeDeMaioresInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Avaliador(0));
+    }
+
+    @Test
+    void deveAvaliarLeilaoComArmazenamentoColunar() {
+        Leilao leilao = new Leilao("Câmera", TipoDeArmazenamento.COLUNAR);
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 300.0));
+        leilao.propoe(new Lance(new Usuario("Ana"), 400.0));
+
+        Avaliador avaliador = new Avaliador(2);
+        avaliador.avaliar(leilao);
+
+        Assertions.assertEquals(400.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(100.0, avaliador.getMenorLance());
+        Assertions.assertEquals(250.0, avaliador.getMedia());
+        Assertions.assertEquals("Ana", avaliador.getMaioresLances().get(0).getUsuario().getNome());
+        Assertions.assertEquals("Maria", avaliador.getMaioresLances().get(1).getUsuario().getNome());
+    }
+
+    @Test
+    void deveCalcularPercentisEDesvioPadrao() {
+        Leilao leilao = new Leilao("Moedas", TipoDeArmazenamento.COLUNAR);
+        for (int i = 1; i <= 100; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i * 10.0));
+        }
+
+        Avaliador avaliador = new Avaliador();
+        avaliador.avaliar(leilao);
+
+        Assertions.assertEquals(500.0, avaliador.getMediana(), 500 * 0.004);
+        Assertions.assertEquals(900.0, avaliador.getPercentil(90), 900 * 0.004);
+        Assertions.assertEquals(990.0, avaliador.getPercentil(99), 990 * 0.004);
+        Assertions.assertEquals(Math.sqrt((100 * 100 - 1) / 12.0) * 10, avaliador.getDesvioPadrao(), 1e-9);
+    }
+
+    @Test
+    void deveCombinarADistribuicaoDeVariosLeiloes() {
+        Leilao primeiro = new Leilao("Primeiro");
+        primeiro.propoe(new Lance(new Usuario("Persio"), 100.0));
+        Leilao segundo = new Leilao("Segundo");
+        segundo.propoe(new Lance(new Usuario("João"), 300.0));
+        Avaliador avaliadorDoPrimeiro = new Avaliador();
+        avaliadorDoPrimeiro.avaliar(primeiro);
+        Avaliador avaliadorDoSegundo = new Avaliador();
+        avaliadorDoSegundo.avaliar(segundo);
+
+        Histograma categoria = avaliadorDoPrimeiro.getHistograma();
+        categoria.combina(avaliadorDoSegundo.getHistograma());
+
+        Assertions.assertEquals(2, categoria.getQuantidade());
+        Assertions.assertEquals(200.0, categoria.getMedia());
+        Assertions.assertEquals(1, avaliadorDoPrimeiro.getQuantidade());
+        Assertions.assertThrows(IllegalStateException.class, () -> new Avaliador().getMediana());
+    }
+
+    @Test
+    void deveCombinarAvaliacoesComoSeFossemUmaSo() {
+        Leilao primeiro = new Leilao("Primeiro");
+        primeiro.propoe(new Lance(new Usuario("Persio"), 100.0));
+        primeiro.propoe(new Lance(new Usuario("João"), 400.0));
+        Leilao segundo = new Leilao("Segundo");
+        segundo.propoe(new Lance(new Usuario("Maria"), 50.0));
+        segundo.propoe(new Lance(new Usuario("Ana"), 300.0));
+
+        Avaliador avaliador = new Avaliador(3);
+        avaliador.avaliar(primeiro);
+        Avaliador doSegundo = new Avaliador();
+        doSegundo.avaliar(segundo);
+        avaliador.combina(doSegundo);
+
+        Assertions.assertEquals(400.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(50.0, avaliador.getMenorLance());
+        Assertions.assertEquals(4, avaliador.getQuantidade());
+        Assertions.assertEquals(212.5, avaliador.getMedia());
+        Assertions.assertEquals(List.of(400.0, 300.0, 100.0),
+                avaliador.getMaioresLances().stream().map(Lance::getValor).toList());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> avaliador.combina(avaliador));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> avaliador.combina(null));
+    }
+
+    @Test
+    void deveRecriarOsAgregadosGravados() throws IOException {
+        Leilao leilao = new Leilao("Piano");
+        for (int i = 1; i <= 50; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i * 7.5));
+        }
+        Avaliador avaliador = new Avaliador(4);
+        avaliador.avaliar(leilao);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        avaliador.grava(new DataOutputStream(bytes));
+        Avaliador lido = Avaliador.le(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assertions.assertEquals(avaliador.getMaiorLance(), lido.getMaiorLance());
+        Assertions.assertEquals(avaliador.getMenorLance(), lido.getMenorLance());
+        Assertions.assertEquals(avaliador.getQuantidade(), lido.getQuantidade());
+        Assertions.assertEquals(avaliador.getSoma(), lido.getSoma());
+        Assertions.assertEquals(avaliador.getMediana(), lido.getMediana());
+        Assertions.assertEquals(avaliador.getDesvioPadrao(), lido.getDesvioPadrao());
+        Assertions.assertEquals(4, lido.getMaioresLances().size());
+        Assertions.assertEquals("Usuario50", lido.getMaioresLances().get(0).getUsuario().getNome());
+    }
 }
@@ -0,0 +1,125 @@
+package br.com.persio;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CasaDeLeiloesTest {
+
+    @Test
+    void deveReceberLancesEAvaliarPeloId() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("carro", "Carro antigo");
+        casa.abre("moto", "Moto");
+
+        casa.propoe("carro", new Lance(new Usuario("Persio"), 100.0));
+        casa.propoe("carro", new Lance(new Usuario("João"), 300.0));
+        casa.propoe("moto", new Lance(new Usuario("Maria"), 50.0));
+
+        Avaliador avaliador = casa.avaliar("carro");
+        Assertions.assertEquals(300.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(100.0, avaliador.getMenorLance());
+        Assertions.assertEquals(50.0, casa.avaliar("moto").getMaiorLance());
+        Assertions.assertEquals(2, casa.getQuantidadeDeLeiloes());
+
+        // a avaliação devolvida é uma cópia: lances seguintes não a alteram
+        casa.propoe("carro", new Lance(new Usuario("Maria"), 400.0));
+        Assertions.assertEquals(300.0, avaliador.getMaiorLance());
+        Assertions.assertEquals(3, casa.avaliar("carro").getQuantidade());
+    }
+
+    @Test
+    void deveAplicarAsRegrasDoLeilao() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("notebook", "Notebook");
+        casa.propoe("notebook", new Lance(new Usuario("Persio"), 500.0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                casa.propoe("notebook", new Lance(new Usuario("João"), 400.0))
+        );
+    }
+
+    @Test
+    void deveDevolverOResultadoDoLanceSemLancarExcecao() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("notebook", "Notebook");
+
+        Assertions.assertEquals(ResultadoLance.ACEITO,
+                casa.tentaPropor("notebook", new Lance(new Usuario("Persio"), 500.0)));
+        Assertions.assertEquals(ResultadoLance.VALOR_NAO_SUPERIOR,
+                casa.tentaPropor("notebook", new Lance(new Usuario("João"), 400.0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                casa.tentaPropor("inexistente", new Lance(new Usuario("Persio"), 100.0)));
+    }
+
+    @Test
+    void naoDeveAbrirDoisLeiloesComOMesmoId() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("tv", "TV usada");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> casa.abre("tv", "Outra TV"));
+    }
+
+    @Test
+    void deveLancarExcecaoParaLeilaoInexistenteOuIdInvalido() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                casa.propoe("inexistente", new Lance(new Usuario("Persio"), 100.0))
+        );
+        Assertions.assertThrows(IllegalArgumentException.class, () -> casa.avaliar("inexistente"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> casa.abre(null, "Sem id"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> casa.abre(" ", "Sem id"));
+    }
+
+    @Test
+    void deveEncerrarLeilao() {
+        CasaDeLeiloes casa = new CasaDeLeiloes();
+        casa.abre("quadro", "Quadro");
+        casa.propoe("quadro", new Lance(new Usuario("Persio"), 100.0));
+
+        Leilao leilao = casa.encerra("quadro");
+
+        Assertions.assertEquals(1, leilao.getLances().size());
+        Assertions.assertTrue(leilao.isEncerrado());
+        Assertions.assertEquals(0, casa.getQuantidadeDeLeiloes());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> casa.encerra("quadro"));
+    }
+
+    @Test
+    void deveArredondarFaixasParaPotenciaDeDois() {
+        Assertions.assertEquals(8, new CasaDeLeiloes(5).getQuantidadeDeFaixas());
+        Assertions.assertEquals(1, new CasaDeLeiloes(1).getQuantidadeDeFaixas());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CasaDeLeiloes(0));
+    }
+
+    @Test
+    void deveAceitarLancesSimultaneosEmVariosLeiloes() throws InterruptedException {
+        CasaDeLeiloes casa = new CasaDeLeiloes(4);
+        int leiloes = 50;
+        for (int i = 0; i < leiloes; i++) {
+            casa.abre("leilao-" + i, "Leilão " + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < leiloes; i++) {
+            String id = "leilao-" + i;
+            executor.execute(() -> {
+                for (int lance = 1; lance <= 10; lance++) {
+                    casa.propoe(id, new Lance(new Usuario("Usuario" + lance), lance * 10.0));
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (int i = 0; i < leiloes; i++) {
+            Avaliador avaliador = casa.avaliar("leilao-" + i);
+            Assertions.assertEquals(10, avaliador.getQuantidade());
+            Assertions.assertEquals(100.0, avaliador.getMaiorLance());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CodecDeLanceTest {
+
+    @Test
+    void deveGravarELerUmLanceEmBufferNaHeap() {
+        RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+        ByteBuffer buffer = ByteBuffer.allocate(CodecDeLance.TAMANHO);
+
+        int fim = CodecDeLance.escreve(buffer, 0, 7, new Lance(new Usuario("Persio"), 150.5), 1_700_000_000_000L, usuarios);
+        Lance lido = CodecDeLance.le(buffer, 0, usuarios);
+
+        Assertions.assertEquals(CodecDeLance.TAMANHO, fim);
+        Assertions.assertEquals(0, buffer.position());
+        Assertions.assertEquals("Persio", lido.getUsuario().getNome());
+        Assertions.assertEquals(150.5, lido.getValor());
+    }
+
+    @Test
+    void deveGravarVariosLancesSeguidosEmBufferDireto() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3 * CodecDeLance.TAMANHO);
+        int posicao = 0;
+        for (int i = 0; i < 3; i++) {
+            posicao = CodecDeLance.escreve(buffer, posicao, 1, i, 1000L + i, 10.0 * (i + 1));
+        }
+
+        LanceBinario leitor = new LanceBinario();
+        for (int i = 0; i < 3; i++) {
+            leitor.aponta(buffer, i * CodecDeLance.TAMANHO);
+            Assertions.assertEquals(1, leitor.getIdDoLeilao());
+            Assertions.assertEquals(i, leitor.getIdDoUsuario());
+            Assertions.assertEquals(1000L + i, leitor.getInstante());
+            Assertions.assertEquals(10.0 * (i + 1), leitor.getValor());
+        }
+    }
+
+    @Test
+    void deveUsarLittleEndianIndependenteDaOrdemDoBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(CodecDeLance.TAMANHO + 1).order(ByteOrder.BIG_ENDIAN);
+
+        // posição ímpar: a leitura não depende de alinhamento
+        CodecDeLance.escreve(buffer, 1, 0x01020304, 5, 6L, 7.0);
+
+        Assertions.assertEquals(0x04, buffer.get(1));
+        Assertions.assertEquals(0x01, buffer.get(4));
+        Assertions.assertEquals(0x01020304, new LanceBinario().aponta(buffer, 1).getIdDoLeilao());
+    }
+
+    @Test
+    void naoDeveGravarForaDoBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(CodecDeLance.TAMANHO);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () ->
+                CodecDeLance.escreve(buffer, 8, 1, 1, 1L, 1.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                CodecDeLance.escreve(buffer, 0, 1, null, 1L, new RegistroDeUsuarios()));
+    }
+}
@@ -0,0 +1,421 @@
+package br.com.persio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiarioDeLancesTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveReconstruirLeilaoAPartirDoDiario() throws IOException {
+        Leilao leilao = new Leilao("Carro antigo");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+            leilao.propoe(new Lance(new Usuario("João"), 200.0));
+            leilao.propoe(new Lance(new Usuario("persio"), 350.5));
+        }
+
+        Leilao recuperado = new Leilao("Carro antigo");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(3, recuperado.getLances().size());
+            Assertions.assertEquals("João", recuperado.getLances().get(1).getUsuario().getNome());
+            Assertions.assertEquals(350.5, recuperado.getLances().get(2).getValor());
+
+            // continua gravando depois da recuperação
+            recuperado.propoe(new Lance(new Usuario("Maria"), 400.0));
+        }
+
+        Leilao outraVez = new Leilao("Carro antigo");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.emLote(10))) {
+            Assertions.assertEquals(4, outraVez.getLances().size());
+            Assertions.assertEquals(400.0, outraVez.getLances().get(3).getValor());
+        }
+    }
+
+    @Test
+    void deveManterRegrasDoLeilaoAposRecuperacao() throws IOException {
+        Leilao leilao = new Leilao("Relógio");
+        Usuario persio = new Usuario("Persio");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(2))) {
+            for (int i = 1; i <= 5; i++) {
+                leilao.propoe(new Lance(persio, i * 100.0));
+            }
+        }
+
+        Leilao recuperado = new Leilao("Relógio");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.emLote(2))) {
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    recuperado.propoe(new Lance(persio, 600.0))
+            );
+        }
+    }
+
+    @Test
+    void deveAbrirNovosSegmentosQuandoOAtualEnche() throws IOException {
+        Leilao leilao = new Leilao("Coleção de selos");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(100), 1024)) {
+            for (int i = 1; i <= 1_000; i++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+            }
+        }
+
+        Assertions.assertTrue(Files.exists(diretorio.resolve(DiarioDeLances.nomeDoSegmento(1))));
+
+        Leilao recuperado = new Leilao("Coleção de selos");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.emLote(100), 1024)) {
+            Assertions.assertEquals(1_000, recuperado.getLances().size());
+            Assertions.assertEquals("Usuario1000", recuperado.getLances().get(999).getUsuario().getNome());
+        }
+    }
+
+    @Test
+    void deveIgnorarRegistroInterrompidoNoMeio() throws IOException {
+        Leilao leilao = new Leilao("Vitrola");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        }
+
+        // simula um lance cujo corpo foi gravado, mas o byte de tipo não
+        Path segmento = diretorio.resolve(DiarioDeLances.nomeDoSegmento(0));
+        int fim = DiarioDeLances.CABECALHO_DO_USUARIO + "Persio".length() + DiarioDeLances.TAMANHO_DO_LANCE;
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            ByteBuffer corpo = ByteBuffer.allocate(DiarioDeLances.TAMANHO_DO_LANCE - 1).putInt(0).putDouble(999.0).flip();
+            canal.write(corpo, fim + 1);
+        }
+
+        Leilao recuperado = new Leilao("Vitrola");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(1, recuperado.getLances().size());
+            recuperado.propoe(new Lance(new Usuario("João"), 150.0));
+        }
+
+        Leilao outraVez = new Leilao("Vitrola");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(2, outraVez.getLances().size());
+            Assertions.assertEquals(150.0, outraVez.getLances().get(1).getValor());
+        }
+    }
+
+    @Test
+    void devePararNoRegistroRasgadoETruncarODiarioAli() throws IOException {
+        Leilao leilao = new Leilao("Gramofone");
+        Usuario persio = new Usuario("Persio");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(persio, 100.0));
+            leilao.propoe(new Lance(persio, 200.0));
+            leilao.propoe(new Lance(persio, 300.0));
+        }
+
+        // a página com o corpo do 2º lance não chegou ao disco, mas a do byte de tipo sim
+        Path segmento = diretorio.resolve(DiarioDeLances.nomeDoSegmento(0));
+        int segundo = DiarioDeLances.CABECALHO_DO_USUARIO + "Persio".length() + DiarioDeLances.TAMANHO_DO_LANCE;
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(DiarioDeLances.TAMANHO_DO_LANCE - 1), segundo + 1);
+        }
+
+        Leilao recuperado = new Leilao("Gramofone");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(1, recuperado.getLances().size());
+            recuperado.propoe(new Lance(new Usuario("João"), 150.0));
+        }
+
+        // o 3º lance, íntegro mas posterior ao rasgo, foi descartado junto com ele
+        Leilao outraVez = new Leilao("Gramofone");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(2, outraVez.getLances().size());
+            Assertions.assertEquals(150.0, outraVez.getLances().get(1).getValor());
+        }
+    }
+
+    @Test
+    void deveApagarSegmentosPosterioresAoRegistroRasgado() throws IOException {
+        Leilao leilao = new Leilao("Coleção de moedas");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(100), 1024)) {
+            for (int i = 1; i <= 200; i++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+            }
+        }
+        Assertions.assertTrue(Files.exists(diretorio.resolve(DiarioDeLances.nomeDoSegmento(2))));
+
+        // corrompe o valor do primeiro lance, logo depois do primeiro usuário
+        Path primeiro = diretorio.resolve(DiarioDeLances.nomeDoSegmento(0));
+        int lance = DiarioDeLances.CABECALHO_DO_USUARIO + "Usuario1".length();
+        try (FileChannel canal = FileChannel.open(primeiro, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Double.BYTES).putDouble(-1.0).flip(),
+                    lance + DiarioDeLances.TAMANHO_DO_LANCE - Double.BYTES);
+        }
+
+        Leilao recuperado = new Leilao("Coleção de moedas");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.emLote(100), 1024)) {
+            Assertions.assertTrue(recuperado.getLances().isEmpty());
+            Assertions.assertFalse(Files.exists(diretorio.resolve(DiarioDeLances.nomeDoSegmento(1))));
+            recuperado.propoe(new Lance(new Usuario("Persio"), 10.0));
+        }
+
+        Leilao outraVez = new Leilao("Coleção de moedas");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.emLote(100), 1024)) {
+            Assertions.assertEquals(1, outraVez.getLances().size());
+            Assertions.assertEquals("Persio", outraVez.getLances().get(0).getUsuario().getNome());
+        }
+    }
+
+    @Test
+    void deveSincronizarPeriodicamente() throws IOException {
+        Leilao leilao = new Leilao("Piano");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao,
+                PoliticaDeSincronizacao.periodica(Duration.ofMillis(10)))) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+            diario.sincroniza();
+        }
+
+        Leilao recuperado = new Leilao("Piano");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(1, recuperado.getLances().size());
+        }
+    }
+
+    @Test
+    void naoDeveGravarDepoisDeFechado() throws IOException {
+        Leilao leilao = new Leilao("Sofá");
+        DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance());
+        diario.close();
+        diario.close();
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        Assertions.assertDoesNotThrow(() ->
+                diario.lanceAceito(leilao, new Lance(new Usuario("João"), 200.0), 1)
+        );
+        Assertions.assertInstanceOf(IllegalStateException.class, diario.getFalha());
+    }
+
+    @Test
+    void umaFalhaAoGravarNaoDeveRecusarOLanceJaAceito() throws IOException {
+        Leilao leilao = new Leilao("Sofá");
+        DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance(), 1024);
+        List<Double> avisados = new ArrayList<>();
+        leilao.adicionaOuvinte((origem, lance, posicao) -> avisados.add(lance.getValor()));
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+
+        // o nome não cabe em um segmento: a gravação falha depois do lance aceito
+        leilao.propoe(new Lance(new Usuario("J".repeat(2000)), 200.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 300.0));
+
+        Assertions.assertEquals(3, leilao.getLances().size());
+        Assertions.assertEquals(List.of(100.0, 200.0, 300.0), avisados);
+        Assertions.assertInstanceOf(IllegalArgumentException.class, diario.getFalha());
+        IOException erro = Assertions.assertThrows(IOException.class, diario::close);
+        Assertions.assertSame(diario.getFalha(), erro.getCause());
+
+        // nada depois da falha foi gravado: a história recuperada não tem buracos
+        Leilao recuperado = new Leilao("Sofá");
+        try (DiarioDeLances outro = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance(), 1024)) {
+            Assertions.assertEquals(1, recuperado.getLances().size());
+        }
+    }
+
+    @Test
+    void deveValidarParametros() {
+        Leilao comLance = new Leilao("Mesa");
+        comLance.propoe(new Lance(new Usuario("Persio"), 100.0));
+        PoliticaDeSincronizacao politica = PoliticaDeSincronizacao.aCadaLance();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiarioDeLances(null, new Leilao("Mesa"), politica));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiarioDeLances(diretorio, null, politica));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiarioDeLances(diretorio, comLance, politica));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiarioDeLances(diretorio, new Leilao("Mesa"), null));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new DiarioDeLances(diretorio, new Leilao("Mesa"), politica, 10)
+        );
+    }
+
+    @Test
+    void deveRecuperarAPartirDaFotografiaEDosSegmentosPosteriores() throws IOException {
+        Leilao leilao = new Leilao("Moeda rara");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+            leilao.propoe(new Lance(new Usuario("João"), 200.0));
+            diario.fotografa();
+            leilao.propoe(new Lance(new Usuario("Maria"), 300.0));
+        }
+
+        Assertions.assertFalse(Files.exists(diretorio.resolve(DiarioDeLances.nomeDoSegmento(0))));
+        Assertions.assertTrue(Files.exists(diretorio.resolve(DiarioDeLances.nomeDaFotografia(1))));
+
+        Leilao recuperado = new Leilao("Moeda rara");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(3, recuperado.getLances().size());
+            Assertions.assertEquals("João", recuperado.getLances().get(1).getUsuario().getNome());
+            Assertions.assertEquals(300.0, recuperado.getLances().get(2).getValor());
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    recuperado.propoe(new Lance(new Usuario("Ana"), 250.0))
+            );
+            recuperado.propoe(new Lance(new Usuario("Persio"), 400.0));
+        }
+
+        Leilao outraVez = new Leilao("Moeda rara");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(4, outraVez.getLances().size());
+        }
+    }
+
+    @Test
+    void deveFotografarSozinhoACadaIntervalo() throws IOException {
+        Leilao leilao = new Leilao("Selos", TipoDeArmazenamento.COLUNAR);
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(50), 1024)) {
+            diario.setIntervaloDeFotografias(100);
+            for (int i = 1; i <= 250; i++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + (i % 60)), i));
+            }
+        }
+
+        try (var arquivos = Files.list(diretorio)) {
+            Assertions.assertEquals(1, arquivos.filter(a -> a.getFileName().toString().startsWith("fotografia-")).count());
+        }
+
+        Leilao recuperado = new Leilao("Selos");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.emLote(50), 1024)) {
+            Assertions.assertEquals(250, recuperado.getLances().size());
+            Assertions.assertEquals(250.0, recuperado.getLances().get(249).getValor());
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    recuperado.propoe(new Lance(new Usuario("Usuario10"), 1000.0))
+            );
+        }
+    }
+
+    @Test
+    void deveIgnorarSegmentosQueAFotografiaJaCobre() throws IOException {
+        Leilao leilao = new Leilao("Anel");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        }
+        Path segmentoAntigo = diretorio.resolve(DiarioDeLances.nomeDoSegmento(0));
+        byte[] copia = Files.readAllBytes(segmentoAntigo);
+
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, new Leilao("Anel"), PoliticaDeSincronizacao.aCadaLance())) {
+            diario.fotografa();
+        }
+        // simula uma queda entre gravar a fotografia e apagar o segmento antigo
+        Files.write(segmentoAntigo, copia);
+
+        Leilao recuperado = new Leilao("Anel");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(1, recuperado.getLances().size());
+        }
+        Assertions.assertFalse(Files.exists(segmentoAntigo));
+    }
+
+    @Test
+    void deveRestaurarFotografiaEmLeilaoConcorrente() throws IOException {
+        Leilao leilao = new Leilao("Bicicleta");
+        Usuario persio = new Usuario("Persio");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            for (int i = 1; i <= 5; i++) {
+                leilao.propoe(new Lance(persio, i * 10.0));
+            }
+            diario.fotografa();
+        }
+
+        Leilao recuperado = new LeilaoConcorrente("Bicicleta");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(5, recuperado.getLances().size());
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    recuperado.propoe(new Lance(persio, 100.0))
+            );
+        }
+    }
+
+    @Test
+    void naoDeveFotografarDepoisDeFechadoNemAceitarIntervaloNegativo() throws IOException {
+        DiarioDeLances diario = new DiarioDeLances(diretorio, new Leilao("Cama"), PoliticaDeSincronizacao.aCadaLance());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> diario.setIntervaloDeFotografias(-1));
+        diario.close();
+
+        Assertions.assertThrows(IllegalStateException.class, diario::fotografa);
+    }
+
+    @Test
+    void deveFotografarSoOsLancesNovosERecuperarOsAgregados() throws IOException {
+        Leilao leilao = new Leilao("Tapete");
+        Usuario persio = new Usuario("Persio");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.emLote(10))) {
+            for (int i = 1; i <= 100; i++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+            }
+            leilao.propoe(new Lance(persio, 101));
+            diario.fotografa();
+            Assertions.assertEquals(101L * Integer.BYTES, Files.size(diretorio.resolve("colunas-ids.bin")));
+
+            for (int i = 102; i <= 150; i++) {
+                leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+            }
+            leilao.propoe(new Lance(persio, 151));
+            diario.fotografa();
+            // a segunda fotografia só acrescentou os 50 lances novos
+            Assertions.assertEquals(151L * Double.BYTES, Files.size(diretorio.resolve("colunas-valores.bin")));
+
+            leilao.propoe(new Lance(persio, 152));
+        }
+
+        Leilao recuperado = new Leilao("Tapete");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.emLote(10))) {
+            Assertions.assertEquals(152, recuperado.getLances().size());
+            Assertions.assertEquals("Usuario42", recuperado.getLances().get(41).getUsuario().getNome());
+            Assertions.assertEquals(151.0, recuperado.getLances().get(150).getValor());
+
+            Avaliador avaliador = diario.getAvaliador();
+            Assertions.assertEquals(152, avaliador.getQuantidade());
+            Assertions.assertEquals(1.0, avaliador.getMenorLance());
+            Assertions.assertEquals(152.0, avaliador.getMaiorLance());
+            Assertions.assertEquals(152.0 * 153 / 2, avaliador.getSoma());
+
+            // dois lances do Persio estão na fotografia e um depois dela
+            recuperado.propoe(new Lance(persio, 153));
+            recuperado.propoe(new Lance(persio, 154));
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    recuperado.propoe(new Lance(persio, 155))
+            );
+        }
+    }
+
+    @Test
+    void deveDescartarSobrasDasColunasDeUmaFotografiaInterrompida() throws IOException {
+        Leilao leilao = new Leilao("Abajur");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+            diario.fotografa();
+            leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        }
+
+        // simula uma fotografia que acrescentou às colunas, mas caiu antes de gravar o resumo
+        Files.write(diretorio.resolve("colunas-valores.bin"), new byte[Double.BYTES * 3], StandardOpenOption.APPEND);
+
+        Leilao recuperado = new Leilao("Abajur");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(2, recuperado.getLances().size());
+            Assertions.assertEquals(Double.BYTES, Files.size(diretorio.resolve("colunas-valores.bin")));
+            diario.fotografa();
+        }
+
+        Leilao outraVez = new LeilaoConcorrente("Abajur");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, outraVez, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(List.of(100.0, 200.0),
+                    outraVez.getLances().stream().map(Lance::getValor).collect(Collectors.toList()));
+            outraVez.propoe(new Lance(new Usuario("Maria"), 300.0));
+            Assertions.assertEquals(300.0, outraVez.getLances().get(2).getValor());
+        }
+    }
+}
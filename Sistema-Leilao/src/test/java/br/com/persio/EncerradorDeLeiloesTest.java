@@ -0,0 +1,119 @@
+package br.com.persio;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EncerradorDeLeiloesTest {
+
+    @Test
+    void deveEncerrarEAvaliarLeilaoNoPrazo() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            EncerradorDeLeiloes encerrador = new EncerradorDeLeiloes(roda);
+            Leilao leilao = new LeilaoConcorrente("Piano", Instant.now().plusMillis(50));
+            leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+            leilao.propoe(new Lance(new Usuario("João"), 300.0));
+
+            CountDownLatch encerrado = new CountDownLatch(1);
+            AtomicReference<Avaliador> resultado = new AtomicReference<>();
+            encerrador.agenda(leilao, (l, avaliador) -> {
+                resultado.set(avaliador);
+                encerrado.countDown();
+            });
+
+            Assertions.assertTrue(encerrado.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(leilao.isEncerrado());
+            Assertions.assertEquals(300.0, resultado.get().getMaiorLance());
+            Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO,
+                    leilao.tentaPropor(new Lance(new Usuario("Maria"), 500.0)));
+        }
+    }
+
+    @Test
+    void deveEncerrarLeilaoSemLancesSemAvaliador() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            CountDownLatch encerrado = new CountDownLatch(1);
+            AtomicReference<Avaliador> resultado = new AtomicReference<>(new Avaliador());
+
+            new EncerradorDeLeiloes(roda).agenda(new Leilao("Vaso", TipoDeArmazenamento.LISTA, Instant.now()),
+                    (leilao, avaliador) -> {
+                        resultado.set(avaliador);
+                        encerrado.countDown();
+                    });
+
+            Assertions.assertTrue(encerrado.await(5, TimeUnit.SECONDS));
+            Assertions.assertNull(resultado.get());
+        }
+    }
+
+    @Test
+    void deveRetirarLeilaoDaCasaNoPrazo() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            CasaDeLeiloes casa = new CasaDeLeiloes();
+            casa.abre("quadro", "Quadro");
+            casa.propoe("quadro", new Lance(new Usuario("Persio"), 100.0));
+
+            CountDownLatch encerrado = new CountDownLatch(1);
+            AtomicReference<Leilao> retirado = new AtomicReference<>();
+            new EncerradorDeLeiloes(roda).agenda(casa, "quadro", Instant.now().plusMillis(20), (leilao, avaliador) -> {
+                retirado.set(leilao);
+                encerrado.countDown();
+            });
+
+            Assertions.assertTrue(encerrado.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(retirado.get().isEncerrado());
+            Assertions.assertEquals(0, casa.getQuantidadeDeLeiloes());
+        }
+    }
+
+    @Test
+    void umOuvinteLentoNaoDeveAtrasarOsOutrosPrazosDaRoda() throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            EncerradorDeLeiloes encerrador = new EncerradorDeLeiloes(roda, executor);
+            CountDownLatch segundoEncerrado = new CountDownLatch(1);
+            CountDownLatch primeiroLiberado = new CountDownLatch(1);
+
+            // o primeiro ouvinte só termina depois que o segundo leilão for encerrado
+            encerrador.agenda(new Leilao("Vaso", TipoDeArmazenamento.LISTA, Instant.now().plusMillis(10)),
+                    (leilao, avaliador) -> {
+                        try {
+                            primeiroLiberado.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            Leilao segundo = new Leilao("Quadro", TipoDeArmazenamento.LISTA, Instant.now().plusMillis(50));
+            encerrador.agenda(segundo, (leilao, avaliador) -> segundoEncerrado.countDown());
+
+            Assertions.assertTrue(segundoEncerrado.await(2, TimeUnit.SECONDS));
+            Assertions.assertTrue(segundo.isEncerrado());
+            primeiroLiberado.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void naoDeveAgendarLeilaoSemPrazoOuSemId() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            EncerradorDeLeiloes encerrador = new EncerradorDeLeiloes(roda);
+            CasaDeLeiloes casa = new CasaDeLeiloes();
+
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    encerrador.agenda(new Leilao("Sem prazo"), (leilao, avaliador) -> { }));
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    encerrador.agenda(casa, null, Instant.now(), (leilao, avaliador) -> { }));
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    encerrador.agenda(casa, " ", Instant.now(), (leilao, avaliador) -> { }));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EncerradorDeLeiloes(null));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new EncerradorDeLeiloes(roda, null));
+        }
+    }
+}
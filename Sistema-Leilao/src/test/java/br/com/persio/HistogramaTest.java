@@ -0,0 +1,125 @@
+package br.com.persio;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HistogramaTest {
+
+    @Test
+    void deveResponderPercentisDentroDaPrecisao() {
+        Histograma histograma = new Histograma();
+        double[] valores = new double[100_000];
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < valores.length; i++) {
+            // distribuição assimétrica, com valores de centavos a milhões
+            valores[i] = Math.exp(aleatorio.nextGaussian() * 3 + 6);
+            histograma.registra(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        for (double percentil : new double[] {1, 50, 90, 99, 99.9}) {
+            double exato = valores[(int) Math.ceil(percentil / 100 * valores.length) - 1];
+            Assertions.assertEquals(exato, histograma.percentil(percentil), exato * 0.004, "p" + percentil);
+        }
+        Assertions.assertEquals(valores[0], histograma.percentil(0));
+        Assertions.assertEquals(valores[valores.length - 1], histograma.percentil(100));
+    }
+
+    @Test
+    void deveCalcularMediaEDesvioPadrao() {
+        Histograma histograma = new Histograma();
+        for (double valor : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            histograma.registra(valor);
+        }
+
+        Assertions.assertEquals(8, histograma.getQuantidade());
+        Assertions.assertEquals(5.0, histograma.getMedia(), 1e-12);
+        Assertions.assertEquals(2.0, histograma.getDesvioPadrao(), 1e-12);
+        Assertions.assertEquals(2.0, histograma.getMinimo());
+        Assertions.assertEquals(9.0, histograma.getMaximo());
+    }
+
+    @Test
+    void deveCombinarComoSeTivesseRegistradoTudoJunto() {
+        Histograma junto = new Histograma();
+        Histograma primeiro = new Histograma();
+        Histograma segundo = new Histograma();
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double valor = 100 + aleatorio.nextDouble() * 900;
+            junto.registra(valor);
+            (i % 3 == 0 ? primeiro : segundo).registra(valor);
+        }
+
+        primeiro.combina(segundo);
+
+        Assertions.assertEquals(junto.getQuantidade(), primeiro.getQuantidade());
+        Assertions.assertEquals(junto.getMedia(), primeiro.getMedia(), 1e-9);
+        Assertions.assertEquals(junto.getDesvioPadrao(), primeiro.getDesvioPadrao(), 1e-9);
+        Assertions.assertEquals(junto.percentil(90), primeiro.percentil(90));
+        Assertions.assertEquals(junto.getMaximo(), primeiro.getMaximo());
+    }
+
+    @Test
+    void deveManterValoresForaDaFaixaNasPontas() {
+        Histograma histograma = new Histograma(1, 1000, 2);
+        histograma.registra(0.5);
+        histograma.registra(50);
+        histograma.registra(5000);
+
+        Assertions.assertEquals(0.5, histograma.percentil(0));
+        Assertions.assertEquals(5000.0, histograma.percentil(100));
+        Assertions.assertEquals(50.0, histograma.percentil(50), 50 * 0.004);
+    }
+
+    @Test
+    void deveOcuparMemoriaFixa() {
+        // 2 dígitos: 128 subfaixas por potência de 2, de 2^0 a 2^9
+        Histograma histograma = new Histograma(1, 1000, 2);
+        for (int i = 0; i < 1_000_000; i++) {
+            histograma.registra(i);
+        }
+        Assertions.assertEquals(10 * 128, histograma.getQuantidadeDeFaixas());
+    }
+
+    @Test
+    void deveCopiarELimpar() {
+        Histograma histograma = new Histograma();
+        histograma.registra(10);
+        Histograma copia = histograma.copia();
+
+        histograma.limpa();
+
+        Assertions.assertEquals(0, histograma.getQuantidade());
+        Assertions.assertEquals(1, copia.getQuantidade());
+        Assertions.assertThrows(IllegalStateException.class, () -> histograma.percentil(50));
+    }
+
+    @Test
+    void naoDeveAceitarConfiguracaoOuOperacaoInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Histograma(0, 10, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Histograma(10, 1, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Histograma(1, 10, 5));
+
+        Histograma histograma = new Histograma();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histograma.registra(Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histograma.percentil(101));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histograma.combina(new Histograma(1, 10, 2)));
+    }
+
+    @Test
+    void deveAlocarSomenteAsPotenciasDeDoisUsadas() {
+        Histograma histograma = new Histograma();
+        for (int i = 0; i < 1000; i++) {
+            histograma.registra(100 + i % 100);
+        }
+
+        // 100 a 199 ocupam 2^6 e 2^7
+        Assertions.assertEquals(2, histograma.getOitavasAlocadas());
+        histograma.limpa();
+        Assertions.assertEquals(0, histograma.getOitavasAlocadas());
+    }
+}
@@ -0,0 +1,219 @@
+package br.com.persio;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IndiceDeLancesPorUsuarioTest {
+
+    private final RelogioManual relogio = new RelogioManual();
+
+    @Test
+    void deveListarOsLancesDoUsuarioEmTodosOsLeiloesEmOrdemDeTempo() {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(24), 100, relogio);
+        Leilao carro = new Leilao("Carro");
+        Leilao moto = new Leilao("Moto");
+        indice.acompanha("carro", carro);
+        indice.acompanha("moto", moto);
+
+        Usuario persio = new Usuario("Persio");
+        carro.propoe(new Lance(persio, 100.0));
+        relogio.avanca(Duration.ofMinutes(1));
+        moto.propoe(new Lance(new Usuario("Maria"), 50.0));
+        moto.propoe(new Lance(persio, 60.0));
+        relogio.avanca(Duration.ofMinutes(1));
+        carro.propoe(new Lance(new Usuario("João"), 200.0));
+        carro.propoe(new Lance(new Usuario("PERSIO"), 300.0));
+
+        List<ReferenciaDeLance> lances = indice.lancesDe(new Usuario("persio"), Duration.ofHours(1));
+
+        Assertions.assertEquals(3, lances.size());
+        Assertions.assertEquals("carro", lances.get(0).getIdDoLeilao());
+        Assertions.assertEquals(0, lances.get(0).getPosicao());
+        Assertions.assertEquals("moto", lances.get(1).getIdDoLeilao());
+        Assertions.assertSame(moto.getLances().get(1), lances.get(1).getLance());
+        Assertions.assertEquals(2, lances.get(2).getPosicao());
+        Assertions.assertEquals(300.0, lances.get(2).getLance().getValor());
+        Assertions.assertEquals(relogio.instant(), lances.get(2).getInstante());
+        Assertions.assertEquals(1, indice.lancesDe(new Usuario("Maria"), Duration.ofHours(1)).size());
+    }
+
+    @Test
+    void deveDevolverSoOsLancesAPartirDoInstante() {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(24), 100, relogio);
+        Leilao leilao = new Leilao("Carro");
+        indice.acompanha("leilao", leilao);
+        Usuario persio = new Usuario("Persio");
+        Usuario joao = new Usuario("João");
+
+        for (int i = 0; i < 4; i++) {
+            leilao.propoe(new Lance(persio, 10.0 * i + 10));
+            leilao.propoe(new Lance(joao, 10.0 * i + 15));
+            relogio.avanca(Duration.ofMinutes(30));
+        }
+
+        // lances aos 0, 30, 60 e 90 minutos; agora são 120
+        Assertions.assertEquals(2, indice.lancesDe(persio, Duration.ofHours(1)).size());
+        Assertions.assertEquals(4, indice.lancesDe(persio, Duration.ofHours(3)).size());
+        Assertions.assertEquals(0, indice.lancesDe(persio, relogio.instant()).size());
+        Assertions.assertTrue(indice.lancesDe(new Usuario("Ninguém"), Duration.ofHours(1)).isEmpty());
+    }
+
+    @Test
+    void deveGuardarNoMaximoOsLancesMaisRecentesDeCadaUsuario() {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(24), 3, relogio);
+        Usuario persio = new Usuario("Persio");
+        for (int i = 0; i < 10; i++) {
+            Leilao leilao = new Leilao("Leilão " + i);
+            indice.acompanha("leilao-" + i, leilao);
+            leilao.propoe(new Lance(persio, i + 1.0));
+            relogio.avanca(Duration.ofSeconds(1));
+        }
+
+        List<ReferenciaDeLance> lances = indice.lancesDe(persio, Duration.ofHours(1));
+
+        Assertions.assertEquals(3, lances.size());
+        Assertions.assertEquals(8.0, lances.get(0).getLance().getValor());
+        Assertions.assertEquals(10.0, lances.get(2).getLance().getValor());
+    }
+
+    @Test
+    void deveDescartarOsLancesForaDaRetencao() {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(1), 100, relogio);
+        Leilao leilao = new Leilao("Carro");
+        indice.acompanha("leilao", leilao);
+        Usuario persio = new Usuario("Persio");
+        Usuario maria = new Usuario("Maria");
+
+        leilao.propoe(new Lance(persio, 100.0));
+        leilao.propoe(new Lance(maria, 110.0));
+        relogio.avanca(Duration.ofMinutes(50));
+        leilao.propoe(new Lance(persio, 120.0));
+        relogio.avanca(Duration.ofMinutes(20));
+
+        // mesmo pedindo um período maior, o que passou da retenção não aparece
+        Assertions.assertEquals(1, indice.lancesDe(persio, Duration.ofHours(5)).size());
+        Assertions.assertEquals(2, indice.getQuantidadeDeUsuarios());
+
+        Assertions.assertEquals(2, indice.expurga());
+        Assertions.assertEquals(1, indice.getQuantidadeDeUsuarios());
+        Assertions.assertTrue(indice.lancesDe(maria, Duration.ofHours(5)).isEmpty());
+    }
+
+    @Test
+    void deveIndexarOsLeiloesDaCasaPeloIdInclusiveOsAbertosDepois() {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(1), 100, relogio);
+        CasaDeLeiloes casa = new CasaDeLeiloes(2);
+        casa.abre("carro-1", "Carro");
+        indice.acompanha(casa);
+        casa.abre("carro-2", "Carro");
+        casa.abre("tv", "TV");
+
+        Usuario persio = new Usuario("Persio");
+        casa.propoe("carro-1", new Lance(persio, 100.0));
+        casa.propoe("carro-2", new Lance(persio, 50.0));
+        casa.propoe("tv", new Lance(new Usuario("Maria"), 80.0));
+
+        // mesma descrição, leilões diferentes: a referência leva o id da casa
+        List<ReferenciaDeLance> lances = indice.lancesDe(persio, Duration.ofHours(1));
+        Assertions.assertEquals(2, lances.size());
+        Assertions.assertEquals("carro-1", lances.get(0).getIdDoLeilao());
+        Assertions.assertEquals("carro-2", lances.get(1).getIdDoLeilao());
+    }
+
+    @Test
+    void deveIndexarLancesDeVariasThreads() throws InterruptedException {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(1), 10_000, relogio);
+        LeilaoConcorrente leilao = new LeilaoConcorrente("Concorrente");
+        indice.acompanha("leilao", leilao);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int deslocamento = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    leilao.tentaPropor(new Lance(new Usuario("u" + (i % 50)), i * 4.0 + deslocamento + 1));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int indexados = 0;
+        for (int u = 0; u < 50; u++) {
+            indexados += indice.lancesDe(new Usuario("u" + u), Duration.ofHours(1)).size();
+        }
+        Assertions.assertEquals(leilao.getLances().size(), indexados);
+    }
+
+    @Test
+    void naoDevePerderOLanceIndexadoDuranteUmExpurgo() throws InterruptedException {
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario(Duration.ofHours(1), 100, relogio);
+        Usuario persio = new Usuario("Persio");
+        for (int rodada = 0; rodada < 500; rodada++) {
+            Leilao leilao = new Leilao("Carro");
+            indice.acompanha("carro-" + rodada, leilao);
+            leilao.propoe(new Lance(persio, 1.0));
+            // o histórico fica só com lances vencidos: o expurgo vai esvaziá-lo e removê-lo
+            relogio.avanca(Duration.ofHours(2));
+
+            Thread expurgo = new Thread(indice::expurga);
+            expurgo.start();
+            leilao.propoe(new Lance(persio, 2.0));
+            expurgo.join();
+
+            List<ReferenciaDeLance> lances = indice.lancesDe(persio, Duration.ofHours(1));
+            Assertions.assertEquals(1, lances.size(), "rodada " + rodada);
+            Assertions.assertEquals(2.0, lances.get(0).getLance().getValor());
+        }
+    }
+
+    @Test
+    void deveRejeitarConfiguracaoOuConsultaInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new IndiceDeLancesPorUsuario(Duration.ZERO, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new IndiceDeLancesPorUsuario(Duration.ofHours(1), 0));
+
+        IndiceDeLancesPorUsuario indice = new IndiceDeLancesPorUsuario();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> indice.acompanha("carro", null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> indice.acompanha(" ", new Leilao("Carro")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> indice.acompanha((CasaDeLeiloes) null));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                indice.lancesDe(null, Duration.ofHours(1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                indice.lancesDe(new Usuario("Persio"), (Instant) null));
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        private Instant agora = Instant.parse("2024-01-01T10:00:00Z");
+
+        void avanca(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
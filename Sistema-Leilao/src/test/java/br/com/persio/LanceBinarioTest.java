@@ -0,0 +1,86 @@
+package br.com.persio;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LanceBinarioTest {
+
+    @Test
+    void leilaoDeveValidarLancesDiretoDoBuffer() {
+        RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+        int persio = usuarios.idDe(new Usuario("Persio"));
+        int joao = usuarios.idDe(new Usuario("João"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3 * CodecDeLance.TAMANHO);
+        CodecDeLance.escreve(buffer, 0, 1, persio, 1L, 100.0);
+        CodecDeLance.escreve(buffer, CodecDeLance.TAMANHO, 1, joao, 2L, 90.0);
+        CodecDeLance.escreve(buffer, 2 * CodecDeLance.TAMANHO, 1, joao, 3L, 120.0);
+
+        for (TipoDeArmazenamento tipo : TipoDeArmazenamento.values()) {
+            Leilao leilao = new Leilao("Bicicleta", tipo);
+            LanceBinario leitor = new LanceBinario();
+
+            Assertions.assertEquals(ResultadoLance.ACEITO, leilao.tentaPropor(leitor.aponta(buffer, 0), 1, usuarios));
+            Assertions.assertEquals(ResultadoLance.VALOR_NAO_SUPERIOR,
+                    leilao.tentaPropor(leitor.aponta(buffer, CodecDeLance.TAMANHO), 1, usuarios));
+            Assertions.assertEquals(ResultadoLance.ACEITO,
+                    leilao.tentaPropor(leitor.aponta(buffer, 2 * CodecDeLance.TAMANHO), 1, usuarios));
+
+            Assertions.assertEquals(2, leilao.getLances().size());
+            Assertions.assertEquals("João", leilao.getLances().get(1).getUsuario().getNome());
+        }
+    }
+
+    @Test
+    void leilaoConcorrenteDeveValidarLancesDiretoDoBuffer() {
+        RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+        ByteBuffer buffer = ByteBuffer.allocate(CodecDeLance.TAMANHO);
+        CodecDeLance.escreve(buffer, 0, 1, usuarios.idDe(new Usuario("Persio")), 1L, 100.0);
+        LanceBinario lance = new LanceBinario().aponta(buffer, 0);
+        Leilao leilao = new LeilaoConcorrente("Luminária");
+
+        Assertions.assertEquals(ResultadoLance.ACEITO, leilao.tentaPropor(lance, 1, usuarios));
+        Assertions.assertEquals(ResultadoLance.VALOR_NAO_SUPERIOR, leilao.tentaPropor(lance, 1, usuarios));
+        leilao.encerra();
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO, leilao.tentaPropor(lance, 1, usuarios));
+        Assertions.assertEquals(ResultadoLance.LANCE_NULO, leilao.tentaPropor(null, 1, usuarios));
+    }
+
+    @Test
+    void deveRejeitarSemExcecaoLanceDeOutroLeilaoDeUsuarioDesconhecidoOuSemValor() {
+        RegistroDeUsuarios usuarios = new RegistroDeUsuarios();
+        int persio = usuarios.idDe(new Usuario("Persio"));
+        ByteBuffer buffer = ByteBuffer.allocate(4 * CodecDeLance.TAMANHO);
+        CodecDeLance.escreve(buffer, 0, 2, persio, 1L, 100.0);
+        CodecDeLance.escreve(buffer, CodecDeLance.TAMANHO, 1, 99, 2L, 100.0);
+        CodecDeLance.escreve(buffer, 2 * CodecDeLance.TAMANHO, 1, persio, 3L, 0.0);
+        CodecDeLance.escreve(buffer, 3 * CodecDeLance.TAMANHO, 1, persio, 4L, -5.0);
+        LanceBinario leitor = new LanceBinario();
+
+        for (TipoDeArmazenamento tipo : TipoDeArmazenamento.values()) {
+            Leilao leilao = new Leilao("Bicicleta", tipo);
+
+            Assertions.assertEquals(ResultadoLance.LEILAO_DIFERENTE,
+                    leilao.tentaPropor(leitor.aponta(buffer, 0), 1, usuarios));
+            Assertions.assertEquals(ResultadoLance.USUARIO_DESCONHECIDO,
+                    leilao.tentaPropor(leitor.aponta(buffer, CodecDeLance.TAMANHO), 1, usuarios));
+            Assertions.assertEquals(ResultadoLance.VALOR_INVALIDO,
+                    leilao.tentaPropor(leitor.aponta(buffer, 2 * CodecDeLance.TAMANHO), 1, usuarios));
+            Assertions.assertEquals(ResultadoLance.VALOR_INVALIDO,
+                    leilao.tentaPropor(leitor.aponta(buffer, 3 * CodecDeLance.TAMANHO), 1, usuarios));
+            Assertions.assertTrue(leilao.getLances().isEmpty());
+        }
+    }
+
+    @Test
+    void naoDeveApontarParaLanceIncompleto() {
+        ByteBuffer buffer = ByteBuffer.allocate(CodecDeLance.TAMANHO + 4);
+        LanceBinario leitor = new LanceBinario();
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> leitor.aponta(buffer, 8));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> leitor.aponta(buffer, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leitor.aponta(null, 0));
+        Assertions.assertEquals(4, leitor.aponta(buffer, 4).getPosicao());
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.persio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LancesAutomaticosTest {
+
+    private final Usuario persio = new Usuario("Persio");
+    private final Usuario joao = new Usuario("João");
+
+    @Test
+    void deveCobrirOLanceAtualPorUmIncrementoAteOTeto() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+        leilao.propoe(new Lance(new Usuario("Maria"), 100.0));
+
+        automaticos.define(persio, 500.0);
+        Assertions.assertEquals(110.0, ultimo(leilao).getValor());
+
+        leilao.propoe(new Lance(new Usuario("Ana"), 200.0));
+        Assertions.assertEquals(persio, ultimo(leilao).getUsuario());
+        Assertions.assertEquals(210.0, ultimo(leilao).getValor());
+
+        leilao.propoe(new Lance(new Usuario("Ana"), 495.0));
+        Assertions.assertEquals(500.0, ultimo(leilao).getValor());
+
+        leilao.propoe(new Lance(new Usuario("Bia"), 600.0));
+        Assertions.assertEquals(600.0, ultimo(leilao).getValor());
+        Assertions.assertNull(automaticos.getTeto(persio));
+    }
+
+    @Test
+    void deveResolverDisputaEntreProcuracoesComUmUnicoLance() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+
+        automaticos.define(persio, 300.0);
+        automaticos.define(joao, 500.0);
+
+        List<Lance> lances = leilao.getLances();
+        Assertions.assertEquals(2, lances.size());
+        Assertions.assertEquals(persio, lances.get(0).getUsuario());
+        Assertions.assertEquals(10.0, lances.get(0).getValor());
+        Assertions.assertEquals(joao, lances.get(1).getUsuario());
+        Assertions.assertEquals(310.0, lances.get(1).getValor());
+        Assertions.assertEquals(1, automaticos.getQuantidadeDeProcuracoes());
+    }
+
+    @Test
+    void deveSubirOLiderQuandoChegaUmaProcuracaoMenor() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+
+        automaticos.define(joao, 500.0);
+        automaticos.define(persio, 300.0);
+
+        Assertions.assertEquals(2, leilao.getLances().size());
+        Assertions.assertEquals(joao, ultimo(leilao).getUsuario());
+        Assertions.assertEquals(310.0, ultimo(leilao).getValor());
+    }
+
+    @Test
+    void deveDarOTetoAProcuracaoMaisAntigaNoEmpate() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+
+        automaticos.define(persio, 300.0);
+        automaticos.define(joao, 300.0);
+
+        Assertions.assertEquals(persio, ultimo(leilao).getUsuario());
+        Assertions.assertEquals(300.0, ultimo(leilao).getValor());
+        Assertions.assertEquals(0, automaticos.getQuantidadeDeProcuracoes());
+    }
+
+    @Test
+    void deveGerarPoucosLancesMesmoComMuitasProcuracoes() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao);
+
+        for (int i = 100; i >= 1; i--) {
+            automaticos.define(new Usuario("u" + i), i * 10.0);
+        }
+
+        // o primeiro lance abre o leilão; o segundo cobre a segunda maior procuração
+        Assertions.assertEquals(2, leilao.getLances().size());
+        Assertions.assertEquals(new Usuario("u100"), ultimo(leilao).getUsuario());
+        Assertions.assertEquals(991.0, ultimo(leilao).getValor());
+    }
+
+    @Test
+    void deveRespeitarOLimiteDeLancesPorUsuario() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+        automaticos.define(persio, 10_000.0);
+
+        for (int i = 1; i <= 5; i++) {
+            leilao.propoe(new Lance(new Usuario("u" + i), i * 50.0));
+        }
+
+        Assertions.assertEquals(new Usuario("u5"), ultimo(leilao).getUsuario());
+        Assertions.assertEquals(5, leilao.lancesDo(persio));
+        Assertions.assertEquals(0, automaticos.getQuantidadeDeProcuracoes());
+    }
+
+    @Test
+    void devePararDeDarLancesDepoisDeEncerrado() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+        automaticos.define(persio, 500.0);
+        leilao.encerra();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> automaticos.define(joao, 800.0));
+        Assertions.assertEquals(1, leilao.getLances().size());
+    }
+
+    @Test
+    void deveFuncionarNoLeilaoConcorrente() {
+        LeilaoConcorrente leilao = new LeilaoConcorrente("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao, 10.0);
+
+        automaticos.define(persio, 300.0);
+        automaticos.define(joao, 500.0);
+        leilao.propoe(new Lance(new Usuario("Maria"), 400.0));
+
+        Assertions.assertEquals(joao, ultimo(leilao).getUsuario());
+        Assertions.assertEquals(410.0, ultimo(leilao).getValor());
+    }
+
+    @Test
+    void deveRejeitarTetoInvalidoOuMenorQueOAnterior() {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao);
+        automaticos.define(persio, 100.0);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> automaticos.define(persio, 90.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> automaticos.define(null, 90.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> automaticos.define(joao, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LancesAutomaticos(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LancesAutomaticos(leilao, -1));
+
+        automaticos.define(persio, 200.0);
+        Assertions.assertEquals(200.0, automaticos.getTeto(persio));
+    }
+
+    @Test
+    void ouvintesRegistradosDepoisDevemReceberOLanceManualAntesDoAutomatico(@TempDir Path diretorio)
+            throws IOException, InterruptedException {
+        Leilao leilao = new Leilao("Carro");
+        LancesAutomaticos automaticos = new LancesAutomaticos(leilao);
+        PublicadorDeLancesTest.Coletor coletor = new PublicadorDeLancesTest.Coletor(Long.MAX_VALUE);
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, leilao, PoliticaDeSincronizacao.aCadaLance())) {
+            leilao.subscribe(coletor);
+            automaticos.define(persio, 500.0);
+
+            leilao.propoe(new Lance(joao, 100.0));
+            leilao.propoe(new Lance(joao, 200.0));
+            leilao.encerra();
+        }
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(1.0, 100.0, 101.0, 200.0, 201.0), coletor.valores);
+        Leilao recuperado = new Leilao("Carro");
+        try (DiarioDeLances diario = new DiarioDeLances(diretorio, recuperado, PoliticaDeSincronizacao.aCadaLance())) {
+            Assertions.assertEquals(List.of(1.0, 100.0, 101.0, 200.0, 201.0),
+                    recuperado.getLances().stream().map(Lance::getValor).toList());
+        }
+    }
+
+    private static Lance ultimo(Leilao leilao) {
+        List<Lance> lances = leilao.getLances();
+        return lances.get(lances.size() - 1);
+    }
+}
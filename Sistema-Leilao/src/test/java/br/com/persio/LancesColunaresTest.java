@@ -0,0 +1,64 @@
+package br.com.persio;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LancesColunaresTest {
+
+    @Test
+    void deveGuardarValoresEUsuariosNasPosicoesCorretas() {
+        LancesColunares lances = new LancesColunares();
+        Usuario persio = new Usuario("Persio");
+        Usuario joao = new Usuario("João");
+
+        Assertions.assertEquals(0, lances.adiciona(new Lance(persio, 100.0)));
+        Assertions.assertEquals(1, lances.adiciona(new Lance(joao, 200.0)));
+
+        Assertions.assertEquals(2, lances.tamanho());
+        Assertions.assertEquals(200.0, lances.valor(1));
+        Assertions.assertEquals(persio, lances.lance(0).getUsuario());
+        Assertions.assertEquals(100.0, lances.lance(0).getValor());
+    }
+
+    @Test
+    void deveContarLancesPorUsuarioIgnorandoMaiusculas() {
+        LancesColunares lances = new LancesColunares();
+        lances.adiciona(new Lance(new Usuario("Persio"), 100.0));
+        lances.adiciona(new Lance(new Usuario("João"), 200.0));
+        lances.adiciona(new Lance(new Usuario("PERSIO"), 300.0));
+
+        Assertions.assertEquals(2, lances.lancesDo(new Usuario("persio")));
+        Assertions.assertEquals(1, lances.lancesDo(new Usuario("João")));
+        Assertions.assertEquals(0, lances.lancesDo(new Usuario("Maria")));
+    }
+
+    @Test
+    void deveCrescerAlemDaCapacidadeInicial() {
+        LancesColunares lances = new LancesColunares();
+        for (int i = 1; i <= 1_000; i++) {
+            lances.adiciona(new Lance(new Usuario("Usuario" + i), i));
+        }
+
+        Assertions.assertEquals(1_000, lances.tamanho());
+        Assertions.assertEquals(1_000.0, lances.valor(999));
+        Assertions.assertEquals("Usuario500", lances.lance(499).getUsuario().getNome());
+    }
+
+    @Test
+    void deveOferecerVisaoSomenteLeitura() {
+        LancesColunares lances = new LancesColunares();
+        lances.adiciona(new Lance(new Usuario("Persio"), 100.0));
+        List<Lance> visao = lances.comoLista();
+
+        lances.adiciona(new Lance(new Usuario("João"), 200.0));
+
+        Assertions.assertEquals(2, visao.size());
+        Assertions.assertEquals(200.0, visao.get(1).getValor());
+        Assertions.assertThrows(UnsupportedOperationException.class, () ->
+                visao.add(new Lance(new Usuario("Maria"), 300.0))
+        );
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> lances.valor(2));
+    }
+}
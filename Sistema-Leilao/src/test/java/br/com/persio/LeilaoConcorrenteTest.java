@@ -0,0 +1,212 @@
+package br.com.persio;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LeilaoConcorrenteTest {
+
+    @Test
+    void deveAceitarLancesCrescentes() {
+        Leilao leilao = new LeilaoConcorrente("Carro antigo");
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+
+        Assertions.assertEquals(2, leilao.getLances().size());
+        Assertions.assertEquals(100.0, leilao.getLances().get(0).getValor());
+        Assertions.assertEquals(200.0, leilao.getLances().get(1).getValor());
+    }
+
+    @Test
+    void naoDeveAceitarLanceMenorQueUltimo() {
+        Leilao leilao = new LeilaoConcorrente("Notebook");
+        leilao.propoe(new Lance(new Usuario("Persio"), 500.0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(new Usuario("João"), 500.0))
+        );
+        Assertions.assertEquals(1, leilao.getLances().size());
+    }
+
+    @Test
+    void naoDeveAceitarMaisDeCincoLancesDoMesmoUsuario() {
+        Leilao leilao = new LeilaoConcorrente("Relógio de ouro");
+        Usuario usuario = new Usuario("Persio");
+
+        for (int i = 1; i <= 5; i++) {
+            leilao.propoe(new Lance(usuario, i * 100.0));
+        }
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(usuario, 600.0))
+        );
+    }
+
+    @Test
+    void deveLancarErroSeLanceForNulo() {
+        Leilao leilao = new LeilaoConcorrente("Cadeira antiga");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.propoe(null));
+    }
+
+    @Test
+    void naoDeveQuebrarAsRegrasComLancesSimultaneos() throws InterruptedException {
+        Leilao leilao = new LeilaoConcorrente("Leilão disputado");
+        int threads = 8;
+        Usuario[] usuarios = new Usuario[20];
+        for (int i = 0; i < usuarios.length; i++) {
+            usuarios[i] = new Usuario("Usuario" + i);
+        }
+
+        AtomicInteger aceitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 1; i <= 2_000; i++) {
+                    Usuario usuario = usuarios[aleatorio.nextInt(usuarios.length)];
+                    try {
+                        leilao.propoe(new Lance(usuario, i + aleatorio.nextDouble()));
+                        aceitos.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // rejeição esperada
+                    }
+                }
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Lance> lances = leilao.getLances();
+        Assertions.assertEquals(aceitos.get(), lances.size());
+
+        Map<Usuario, Integer> porUsuario = new HashMap<>();
+        for (int i = 0; i < lances.size(); i++) {
+            if (i > 0) {
+                Assertions.assertTrue(lances.get(i).getValor() > lances.get(i - 1).getValor());
+            }
+            porUsuario.merge(lances.get(i).getUsuario(), 1, Integer::sum);
+        }
+        porUsuario.values().forEach(total -> Assertions.assertTrue(total <= 5));
+    }
+
+    @Test
+    void deveRejeitarPorLimiteSemEsperarAReservaEmDisputa() throws InterruptedException {
+        Usuario persio = new Usuario("Persio");
+        Usuario joao = new Usuario("João");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int rodada = 0; rodada < 500; rodada++) {
+                LeilaoConcorrente leilao = new LeilaoConcorrente("Rodada " + rodada);
+                for (int i = 1; i <= 4; i++) {
+                    leilao.propoe(new Lance(persio, i));
+                    leilao.propoe(new Lance(joao, i + 0.5));
+                }
+
+                // o 5º lance do Persio disputa o topo com o do João; o lance maior do Persio
+                // que chega junto pode ser rejeitado por limite pela vaga em disputa, mas
+                // nunca fica esperando por ela nem passa de 5 lances aceitos
+                CountDownLatch largada = new CountDownLatch(1);
+                ResultadoLance[] resultados = new ResultadoLance[3];
+                CountDownLatch fim = new CountDownLatch(3);
+                double[] valores = { 10.0, 20.0, 30.0 };
+                Usuario[] autores = { persio, joao, persio };
+                for (int t = 0; t < 3; t++) {
+                    int indice = t;
+                    executor.execute(() -> {
+                        try {
+                            largada.await();
+                            resultados[indice] = leilao.tentaPropor(new Lance(autores[indice], valores[indice]));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            fim.countDown();
+                        }
+                    });
+                }
+                largada.countDown();
+                Assertions.assertTrue(fim.await(10, TimeUnit.SECONDS));
+
+                if (resultados[0] == ResultadoLance.ACEITO) {
+                    Assertions.assertNotEquals(ResultadoLance.ACEITO, resultados[2]);
+                }
+                if (resultados[2] == ResultadoLance.ACEITO) {
+                    Assertions.assertNotEquals(ResultadoLance.ACEITO, resultados[0]);
+                }
+                Assertions.assertTrue(leilao.lancesDo(persio) <= 5);
+                Assertions.assertEquals(leilao.getLances().stream().filter(l -> l.getUsuario().equals(persio)).count(),
+                        leilao.lancesDo(persio));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deveLerLancesPelaVisaoSemCopiarALista() {
+        LeilaoConcorrente leilao = new LeilaoConcorrente("Quadro");
+        for (int i = 1; i <= 100; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+        }
+
+        List<Lance> antes = leilao.getLances();
+        leilao.propoe(new Lance(new Usuario("Persio"), 101));
+
+        Assertions.assertEquals(100, antes.size());
+        Assertions.assertEquals(101, leilao.getLances().size());
+        Assertions.assertEquals(1.0, leilao.lances().valor(0));
+        Assertions.assertEquals(101.0, leilao.lances().valor(100));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> leilao.getLances().add(new Lance(new Usuario("João"), 200)));
+    }
+
+    @Test
+    void deveProporLoteSemLancarExcecao() {
+        Leilao leilao = new LeilaoConcorrente("Luminária");
+
+        ResultadoLance[] resultados = leilao.propoeTodos(List.of(
+                new Lance(new Usuario("Persio"), 100.0),
+                new Lance(new Usuario("João"), 80.0),
+                new Lance(new Usuario("Maria"), 120.0)
+        ));
+
+        Assertions.assertArrayEquals(new ResultadoLance[] {
+                ResultadoLance.ACEITO, ResultadoLance.VALOR_NAO_SUPERIOR, ResultadoLance.ACEITO
+        }, resultados);
+        Assertions.assertEquals(2, leilao.getLances().size());
+    }
+
+    @Test
+    void naoDeveAceitarLancesDepoisDeEncerrado() {
+        Leilao vazio = new LeilaoConcorrente("Vazio");
+        vazio.encerra();
+        Assertions.assertTrue(vazio.isEncerrado());
+        Assertions.assertTrue(vazio.getLances().isEmpty());
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO, vazio.tentaPropor(new Lance(new Usuario("Persio"), 1.0)));
+
+        Leilao leilao = new LeilaoConcorrente("Luminária");
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.encerra();
+        leilao.encerra();
+
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO, leilao.tentaPropor(new Lance(new Usuario("João"), 200.0)));
+        Assertions.assertEquals(1, leilao.getLances().size());
+        Assertions.assertEquals(100.0, leilao.getLances().get(0).getValor());
+    }
+}
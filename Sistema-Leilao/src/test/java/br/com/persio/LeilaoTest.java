@@ -1,5 +1,14 @@
 package br.com.persio;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -44,9 +53,211 @@ class LeilaoTest {
         );
     }
 
+    @Test
+    void deveContarLimiteDeLancesIgnorandoMaiusculasNoNome() {
+        Leilao leilao = new Leilao("Quadro raro");
+        Usuario joao = new Usuario("João");
+
+        for (int i = 1; i <= 5; i++) {
+            leilao.propoe(new Lance(new Usuario(i % 2 == 0 ? "persio" : "PERSIO"), i * 100.0));
+            leilao.propoe(new Lance(joao, i * 100.0 + 50.0));
+        }
+
+        Assertions.assertEquals(10, leilao.getLances().size());
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(new Usuario("Persio"), 2000.0))
+        );
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(joao, 2000.0))
+        );
+    }
+
     @Test
     void deveLancarErroSeLanceForNulo() {
         Leilao leilao = new Leilao("Cadeira antiga");
         Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.propoe(null));
     }
+
+    @Test
+    void deveAvisarOuvintesSomenteDosLancesAceitos() {
+        Leilao leilao = new Leilao("Vaso chinês");
+        List<Integer> posicoes = new ArrayList<>();
+        leilao.adicionaOuvinte((l, lance, posicao) -> posicoes.add(posicao));
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(new Usuario("João"), 50.0))
+        );
+        leilao.propoe(new Lance(new Usuario("João"), 150.0));
+
+        Assertions.assertEquals(List.of(0, 1), posicoes);
+    }
+
+    @Test
+    void naoDeveAvisarOuvinteRemovido() {
+        Leilao leilao = new Leilao("Mesa de jantar");
+        List<Lance> recebidos = new ArrayList<>();
+        OuvinteDeLances ouvinte = (l, lance, posicao) -> recebidos.add(lance);
+        leilao.adicionaOuvinte(ouvinte);
+        leilao.removeOuvinte(ouvinte);
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+
+        Assertions.assertTrue(recebidos.isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.adicionaOuvinte(null));
+    }
+
+    @Test
+    void deveAplicarAsMesmasRegrasNoArmazenamentoColunar() {
+        Leilao leilao = new Leilao("Relógio de bolso", TipoDeArmazenamento.COLUNAR);
+        Usuario usuario = new Usuario("Persio");
+
+        for (int i = 1; i <= 5; i++) {
+            leilao.propoe(new Lance(usuario, i * 100.0));
+        }
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(usuario, 600.0))
+        );
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(new Usuario("João"), 500.0))
+        );
+        Assertions.assertEquals(5, leilao.getLances().size());
+        Assertions.assertEquals(500.0, leilao.getLances().get(4).getValor());
+    }
+
+    @Test
+    void naoDevePermitirTipoDeArmazenamentoNulo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Leilao("Abajur", null));
+    }
+
+    @Test
+    void deveProporLoteDevolvendoResultadoDeCadaLance() {
+        Leilao leilao = new Leilao("Coleção de discos");
+        Usuario persio = new Usuario("Persio");
+        leilao.propoe(new Lance(persio, 50.0));
+
+        List<Lance> lote = new ArrayList<>();
+        lote.add(new Lance(new Usuario("João"), 100.0));
+        lote.add(new Lance(new Usuario("Maria"), 90.0));
+        lote.add(null);
+        for (int i = 1; i <= 5; i++) {
+            lote.add(new Lance(persio, 100.0 + i * 10));
+        }
+
+        ResultadoLance[] resultados = leilao.propoeTodos(lote);
+
+        Assertions.assertArrayEquals(new ResultadoLance[] {
+                ResultadoLance.ACEITO,
+                ResultadoLance.VALOR_NAO_SUPERIOR,
+                ResultadoLance.LANCE_NULO,
+                ResultadoLance.ACEITO,
+                ResultadoLance.ACEITO,
+                ResultadoLance.ACEITO,
+                ResultadoLance.ACEITO,
+                ResultadoLance.LIMITE_DE_LANCES
+        }, resultados);
+        Assertions.assertEquals(6, leilao.getLances().size());
+        Assertions.assertEquals(140.0, leilao.getLances().get(5).getValor());
+    }
+
+    @Test
+    void deveProporLoteNoArmazenamentoColunar() {
+        Leilao leilao = new Leilao("Selos antigos", TipoDeArmazenamento.COLUNAR);
+        List<Lance> lote = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            lote.add(new Lance(new Usuario("Usuario" + i), i));
+        }
+
+        ResultadoLance[] resultados = leilao.propoeTodos(lote);
+
+        Assertions.assertEquals(100, resultados.length);
+        Assertions.assertTrue(resultados[99].isAceito());
+        Assertions.assertEquals(100, leilao.getLances().size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.propoeTodos(null));
+    }
+
+    @Test
+    void deveDevolverOResultadoSemLancarExcecao() {
+        Leilao leilao = new Leilao("Violão");
+        Usuario persio = new Usuario("Persio");
+
+        Assertions.assertEquals(ResultadoLance.ACEITO, leilao.tentaPropor(new Lance(persio, 100.0)));
+        Assertions.assertEquals(ResultadoLance.VALOR_NAO_SUPERIOR,
+                leilao.tentaPropor(new Lance(new Usuario("João"), 100.0)));
+        Assertions.assertEquals(ResultadoLance.LANCE_NULO, leilao.tentaPropor(null));
+        for (int i = 2; i <= 5; i++) {
+            Assertions.assertEquals(ResultadoLance.ACEITO, leilao.tentaPropor(new Lance(persio, i * 100.0)));
+        }
+        Assertions.assertEquals(ResultadoLance.LIMITE_DE_LANCES, leilao.tentaPropor(new Lance(persio, 600.0)));
+        leilao.encerra();
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO,
+                leilao.tentaPropor(new Lance(new Usuario("Maria"), 700.0)));
+
+        Assertions.assertEquals(5, leilao.getLances().size());
+    }
+
+    @Test
+    void naoDeveAceitarLancesDepoisDeEncerrado() {
+        Leilao leilao = new Leilao("Relógio", TipoDeArmazenamento.LISTA, Instant.parse("2030-01-01T00:00:00Z"));
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+
+        leilao.encerra();
+
+        Assertions.assertTrue(leilao.isEncerrado());
+        Assertions.assertEquals(Instant.parse("2030-01-01T00:00:00Z"), leilao.getPrazo());
+        IllegalArgumentException erro = Assertions.assertThrows(IllegalArgumentException.class, () ->
+                leilao.propoe(new Lance(new Usuario("João"), 200.0))
+        );
+        Assertions.assertEquals("Leilão encerrado não aceita lances.", erro.getMessage());
+        Assertions.assertEquals(1, leilao.getLances().size());
+    }
+
+    @Test
+    void deveAvisarOEncerramentoUmaUnicaVezMesmoComThreadsSimultaneas() throws InterruptedException {
+        for (int rodada = 0; rodada < 200; rodada++) {
+            Leilao leilao = new Leilao("Relógio");
+            AtomicInteger avisos = new AtomicInteger();
+            leilao.setMetricas(new MetricasDeLances() {
+                @Override
+                public void lanceAceito(Leilao leilao, int tamanhoDoLeilao, long duracaoEmNanos) {
+                }
+
+                @Override
+                public void lanceRejeitado(Leilao leilao, ResultadoLance motivo, long duracaoEmNanos) {
+                }
+
+                @Override
+                public void leilaoEncerrado(Leilao leilao) {
+                    avisos.incrementAndGet();
+                }
+            });
+
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    try {
+                        largada.await();
+                        leilao.encerra();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            largada.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            Assertions.assertEquals(1, avisos.get());
+        }
+    }
+
+    @Test
+    void naoDeveCriarLeilaoComPrazoNulo() {
+        Assertions.assertNull(new Leilao("Sem prazo").getPrazo());
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new Leilao("Relógio", TipoDeArmazenamento.LISTA, null)
+        );
+    }
 }
@@ -0,0 +1,82 @@
+package br.com.persio;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MetricasEmMemoriaTest {
+
+    @Test
+    void deveContarAceitosERejeitadosPorMotivo() {
+        MetricasEmMemoria metricas = new MetricasEmMemoria();
+        Leilao leilao = new Leilao("Guitarra");
+        leilao.setMetricas(metricas);
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("João"), 200.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.propoe(new Lance(new Usuario("Maria"), 150.0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.propoe(null));
+
+        Assertions.assertEquals(2, metricas.getQuantidade(ResultadoLance.ACEITO));
+        Assertions.assertEquals(1, metricas.getQuantidade(ResultadoLance.VALOR_NAO_SUPERIOR));
+        Assertions.assertEquals(1, metricas.getQuantidade(ResultadoLance.LANCE_NULO));
+        Assertions.assertEquals(0, metricas.getQuantidades().get(ResultadoLance.LIMITE_DE_LANCES));
+        Assertions.assertEquals(4, metricas.getLatencias().getQuantidade());
+        Assertions.assertEquals(2, metricas.getTamanho(leilao));
+    }
+
+    @Test
+    void deveEsquecerOTamanhoDoLeilaoEncerrado() {
+        MetricasEmMemoria metricas = new MetricasEmMemoria();
+        Leilao leilao = new LeilaoConcorrente("Luminária");
+        leilao.setMetricas(metricas);
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        Assertions.assertEquals(1, metricas.getTamanhos().get(leilao));
+
+        leilao.encerra();
+
+        Assertions.assertTrue(metricas.getTamanhos().isEmpty());
+        Assertions.assertEquals(ResultadoLance.LEILAO_ENCERRADO, leilao.tentaPropor(new Lance(new Usuario("João"), 200.0)));
+        Assertions.assertEquals(1, metricas.getQuantidade(ResultadoLance.LEILAO_ENCERRADO));
+    }
+
+    @Test
+    void deveMedirLancesDeTodosOsLeiloesDaCasa() throws InterruptedException {
+        MetricasEmMemoria metricas = new MetricasEmMemoria();
+        CasaDeLeiloes casa = new CasaDeLeiloes(4, metricas);
+        for (int i = 0; i < 8; i++) {
+            casa.abre("leilao-" + i, "Leilão " + i, TipoDeArmazenamento.COLUNAR);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    casa.tentaPropor("leilao-" + (i % 8), new Lance(new Usuario("u" + thread + "-" + i), i * 4 + thread + 1));
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        long total = metricas.getQuantidades().values().stream().mapToLong(Long::longValue).sum();
+        Assertions.assertEquals(4000, total);
+        Assertions.assertEquals(4000, metricas.getLatencias().getQuantidade());
+        Assertions.assertEquals(8, metricas.getTamanhos().size());
+        Assertions.assertEquals(metricas.getQuantidade(ResultadoLance.ACEITO),
+                metricas.getTamanhos().values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void metricasDesligadasPorPadrao() {
+        Leilao leilao = new Leilao("Sem métricas");
+
+        Assertions.assertSame(MetricasDeLances.NENHUMA, leilao.getMetricas());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.setMetricas(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CasaDeLeiloes(4, null));
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.persio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PipelineDeLancesTest {
+
+    @Test
+    void deveDecidirLancesNaOrdemEmQueForamPublicados() throws Exception {
+        Leilao leilao = new Leilao("Carro antigo");
+        try (PipelineDeLances pipeline = new PipelineDeLances(8)) {
+            CompletableFuture<ResultadoLance> primeiro = pipeline.publica(leilao, new Lance(new Usuario("Persio"), 100.0));
+            CompletableFuture<ResultadoLance> segundo = pipeline.publica(leilao, new Lance(new Usuario("João"), 90.0));
+            CompletableFuture<ResultadoLance> terceiro = pipeline.publica(leilao, null);
+
+            Assertions.assertEquals(ResultadoLance.ACEITO, primeiro.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(ResultadoLance.VALOR_NAO_SUPERIOR, segundo.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(ResultadoLance.LANCE_NULO, terceiro.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, leilao.getLances().size());
+    }
+
+    @Test
+    void deveDecidirTodosOsLancesDeVariosProdutores() throws Exception {
+        Leilao leilao = new Leilao("Leilão disputado");
+        int produtores = 4;
+        int lancesPorProdutor = 10_000;
+        AtomicInteger aceitos = new AtomicInteger();
+        AtomicInteger decididos = new AtomicInteger();
+        RetornoDeLance retorno = (lance, resultado) -> {
+            decididos.incrementAndGet();
+            if (resultado.isAceito()) {
+                aceitos.incrementAndGet();
+            }
+        };
+
+        // capacidade pequena para obrigar os produtores a esperar posições livres
+        PipelineDeLances pipeline = new PipelineDeLances(64);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        for (int p = 0; p < produtores; p++) {
+            int produtor = p;
+            executor.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 1; i <= lancesPorProdutor; i++) {
+                    Usuario usuario = new Usuario("Produtor" + produtor + "-" + i % 1000);
+                    pipeline.publica(leilao, new Lance(usuario, i * produtores + produtor), retorno);
+                }
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        pipeline.close();
+
+        Assertions.assertEquals(produtores * lancesPorProdutor, decididos.get());
+        Assertions.assertEquals(aceitos.get(), leilao.getLances().size());
+        for (int i = 1; i < leilao.getLances().size(); i++) {
+            Assertions.assertTrue(leilao.getLances().get(i).getValor() > leilao.getLances().get(i - 1).getValor());
+        }
+    }
+
+    @Test
+    void deveContinuarDecidindoDepoisDeFalhaEmUmRetorno() throws Exception {
+        Leilao leilao = new Leilao("Vaso");
+        try (PipelineDeLances pipeline = new PipelineDeLances(8)) {
+            pipeline.publica(leilao, new Lance(new Usuario("Persio"), 100.0), (lance, resultado) -> {
+                throw new IllegalStateException("falha proposital");
+            });
+            CompletableFuture<ResultadoLance> seguinte = pipeline.publica(leilao, new Lance(new Usuario("João"), 200.0));
+
+            Assertions.assertEquals(ResultadoLance.ACEITO, seguinte.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void deveTerminarOFuturoComAFalhaDoLeilaoEContinuarDecidindo() throws Exception {
+        Leilao leilao = new Leilao("Vaso");
+        leilao.adicionaOuvinte((origem, lance, posicao) -> {
+            if (posicao == 0) {
+                throw new IllegalStateException("falha proposital");
+            }
+        });
+        try (PipelineDeLances pipeline = new PipelineDeLances(8)) {
+            CompletableFuture<ResultadoLance> falho = pipeline.publica(leilao, new Lance(new Usuario("Persio"), 100.0));
+            CompletableFuture<ResultadoLance> seguinte = pipeline.publica(leilao, new Lance(new Usuario("João"), 200.0));
+
+            ExecutionException erro = Assertions.assertThrows(ExecutionException.class, () ->
+                    falho.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalStateException.class, erro.getCause());
+            Assertions.assertEquals(ResultadoLance.ACEITO, seguinte.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void naoDevePublicarDepoisDeFechado() throws InterruptedException {
+        PipelineDeLances pipeline = new PipelineDeLances();
+        pipeline.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () ->
+                pipeline.publica(new Leilao("Sofá"), new Lance(new Usuario("Persio"), 100.0))
+        );
+    }
+
+    @Test
+    void deveValidarParametros() throws InterruptedException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PipelineDeLances(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PipelineDeLances(100));
+
+        try (PipelineDeLances pipeline = new PipelineDeLances(2)) {
+            Lance lance = new Lance(new Usuario("Persio"), 100.0);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> pipeline.publica(null, lance));
+            Assertions.assertThrows(IllegalArgumentException.class, () ->
+                    pipeline.publica(new Leilao("Mesa"), lance, null)
+            );
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.persio;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PoliticaDeEntregaTest {
+
+    @Test
+    void deveCriarAsDuasPoliticas() {
+        Assertions.assertEquals(PoliticaDeEntrega.Tipo.EM_FILA, PoliticaDeEntrega.emFila(64).getTipo());
+        Assertions.assertEquals(64, PoliticaDeEntrega.emFila(64).getCapacidade());
+        Assertions.assertEquals(PoliticaDeEntrega.Tipo.SO_O_MAIOR_LANCE, PoliticaDeEntrega.soOMaiorLance().getTipo());
+    }
+
+    @Test
+    void naoDevePermitirFilaSemCapacidade() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PoliticaDeEntrega.emFila(0));
+    }
+}
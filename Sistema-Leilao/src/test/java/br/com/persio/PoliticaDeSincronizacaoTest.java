@@ -0,0 +1,24 @@
+package br.com.persio;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PoliticaDeSincronizacaoTest {
+
+    @Test
+    void deveCriarAsTresPoliticas() {
+        Assertions.assertEquals(PoliticaDeSincronizacao.Tipo.A_CADA_LANCE, PoliticaDeSincronizacao.aCadaLance().getTipo());
+        Assertions.assertEquals(50, PoliticaDeSincronizacao.emLote(50).getLancesPorLote());
+        Assertions.assertEquals(Duration.ofSeconds(1), PoliticaDeSincronizacao.periodica(Duration.ofSeconds(1)).getIntervalo());
+    }
+
+    @Test
+    void naoDevePermitirLoteOuIntervaloInvalido() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PoliticaDeSincronizacao.emLote(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PoliticaDeSincronizacao.periodica(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PoliticaDeSincronizacao.periodica(Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PoliticaDeSincronizacao.periodica(Duration.ofMillis(-1)));
+    }
+}
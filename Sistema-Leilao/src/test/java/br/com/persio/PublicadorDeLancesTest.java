@@ -0,0 +1,236 @@
+package br.com.persio;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PublicadorDeLancesTest {
+
+    /**
+     * Assinante que pede {@code pedidoInicial} lances ao assinar e guarda o que recebe.
+     */
+    static class Coletor implements Flow.Subscriber<Lance> {
+
+        final List<Double> valores = new CopyOnWriteArrayList<>();
+        final CountDownLatch terminou = new CountDownLatch(1);
+        final long pedidoInicial;
+        volatile Flow.Subscription assinatura;
+        volatile Throwable erro;
+        volatile boolean completo;
+
+        Coletor(long pedidoInicial) {
+            this.pedidoInicial = pedidoInicial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+            if (pedidoInicial > 0) {
+                assinatura.request(pedidoInicial);
+            }
+        }
+
+        @Override
+        public void onNext(Lance lance) {
+            valores.add(lance.getValor());
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            this.erro = erro;
+            terminou.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completo = true;
+            terminou.countDown();
+        }
+    }
+
+    @Test
+    void deveEntregarOsLancesAceitosEmOrdemECompletarAoEncerrar() throws InterruptedException {
+        Leilao leilao = new Leilao("Carro antigo");
+        Coletor coletor = new Coletor(Long.MAX_VALUE);
+        leilao.subscribe(coletor);
+
+        for (int i = 1; i <= 100; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+        }
+        leilao.encerra();
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(coletor.completo);
+        Assertions.assertEquals(100, coletor.valores.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i + 1.0, coletor.valores.get(i));
+        }
+    }
+
+    @Test
+    void deveEntregarEmOrdemOLanceDadoDeDentroDeUmAviso() throws InterruptedException {
+        Leilao leilao = new Leilao("Carro antigo");
+        Usuario joao = new Usuario("João");
+        // avisado antes do publicador: cobre cada lance de outro usuário, de dentro do aviso
+        leilao.adicionaOuvinte((origem, lance, posicao) -> {
+            if (!lance.getUsuario().equals(joao)) {
+                origem.propoe(new Lance(joao, lance.getValor() + 1));
+            }
+        });
+        Coletor coletor = new Coletor(Long.MAX_VALUE);
+        leilao.subscribe(coletor);
+
+        leilao.propoe(new Lance(new Usuario("Persio"), 100.0));
+        leilao.propoe(new Lance(new Usuario("Maria"), 200.0));
+        leilao.encerra();
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(100.0, 101.0, 200.0, 201.0), coletor.valores);
+    }
+
+    @Test
+    void deveEntregarTodosOsLancesMesmoComUmOuvinteAnteriorQueFalha() throws InterruptedException {
+        Leilao leilao = new Leilao("Carro antigo");
+        leilao.adicionaOuvinte((origem, lance, posicao) -> {
+            if (posicao == 0) {
+                throw new IllegalStateException("falha proposital");
+            }
+        });
+        Coletor coletor = new Coletor(Long.MAX_VALUE);
+        leilao.subscribe(coletor);
+
+        Assertions.assertThrows(IllegalStateException.class, () ->
+                leilao.tentaPropor(new Lance(new Usuario("Persio"), 100.0)));
+        leilao.propoe(new Lance(new Usuario("Maria"), 200.0));
+        leilao.propoe(new Lance(new Usuario("João"), 300.0));
+
+        // sem esperar o encerramento: nenhuma posição ficou faltando
+        for (int i = 0; i < 500 && coletor.valores.size() < 3; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(List.of(100.0, 200.0, 300.0), coletor.valores);
+        leilao.encerra();
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void devePularAPosicaoQueNuncaChegaQuandoOsAdiantadosPassamDoLimite() {
+        PublicadorDeLances publicador = new PublicadorDeLances(Runnable::run);
+        Coletor coletor = new Coletor(Long.MAX_VALUE);
+        publicador.assina(coletor, PoliticaDeEntrega.emFila(2 * PublicadorDeLances.LIMITE_DE_ADIANTADOS));
+        Leilao leilao = new Leilao("Carro antigo");
+        Usuario persio = new Usuario("Persio");
+
+        // a posição 0 nunca é avisada
+        for (int posicao = 1; posicao <= PublicadorDeLances.LIMITE_DE_ADIANTADOS; posicao++) {
+            publicador.lanceAceito(leilao, new Lance(persio, posicao), posicao);
+        }
+        Assertions.assertTrue(coletor.valores.isEmpty());
+
+        int ultima = PublicadorDeLances.LIMITE_DE_ADIANTADOS + 1;
+        publicador.lanceAceito(leilao, new Lance(persio, ultima), ultima);
+        Assertions.assertEquals(ultima, coletor.valores.size());
+        Assertions.assertEquals(1.0, coletor.valores.get(0));
+        Assertions.assertEquals((double) ultima, coletor.valores.get(ultima - 1));
+    }
+
+    @Test
+    void deveRespeitarADemandaPedida() throws InterruptedException {
+        Leilao leilao = new Leilao("Relógio");
+        Coletor coletor = new Coletor(2);
+        leilao.subscribe(coletor);
+
+        for (int i = 1; i <= 5; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+        }
+        Thread.sleep(100);
+        Assertions.assertEquals(List.of(1.0, 2.0), coletor.valores);
+
+        coletor.assinatura.request(3);
+        leilao.encerra();
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 5.0), coletor.valores);
+        Assertions.assertTrue(coletor.completo);
+    }
+
+    @Test
+    void deveEncerrarComErroQuandoAFilaDoAssinanteLentoEnche() throws InterruptedException {
+        Leilao leilao = new Leilao("Piano");
+        Coletor lento = new Coletor(0);
+        leilao.subscribe(lento, PoliticaDeEntrega.emFila(4));
+
+        for (int i = 1; i <= 10; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+        }
+
+        Assertions.assertTrue(lento.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, lento.erro);
+        Assertions.assertTrue(lento.valores.isEmpty());
+        // o leilão continua aceitando lances normalmente
+        leilao.propoe(new Lance(new Usuario("Outro"), 11));
+    }
+
+    @Test
+    void deveEntregarSoOMaiorLanceAoAssinanteLento() throws InterruptedException {
+        Leilao leilao = new LeilaoConcorrente("Quadro");
+        Coletor lento = new Coletor(0);
+        leilao.subscribe(lento, PoliticaDeEntrega.soOMaiorLance());
+
+        for (int i = 1; i <= 1000; i++) {
+            leilao.propoe(new Lance(new Usuario("Usuario" + i), i));
+        }
+        lento.assinatura.request(1);
+        leilao.encerra();
+
+        Assertions.assertTrue(lento.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(1000.0), lento.valores);
+        Assertions.assertTrue(lento.completo);
+    }
+
+    @Test
+    void naoDeveEntregarDepoisDeCancelar() throws InterruptedException {
+        Leilao leilao = new Leilao("Vaso");
+        Coletor coletor = new Coletor(Long.MAX_VALUE);
+        leilao.subscribe(coletor);
+        leilao.propoe(new Lance(new Usuario("Persio"), 1));
+
+        coletor.assinatura.cancel();
+        leilao.propoe(new Lance(new Usuario("João"), 2));
+        Thread.sleep(100);
+
+        Assertions.assertTrue(coletor.valores.size() <= 1);
+        Assertions.assertFalse(coletor.valores.contains(2.0));
+    }
+
+    @Test
+    void deveCompletarAssinaturaDeLeilaoJaEncerrado() throws InterruptedException {
+        Leilao leilao = new Leilao("Encerrado");
+        leilao.encerra();
+        Coletor coletor = new Coletor(1);
+
+        leilao.subscribe(coletor);
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(coletor.completo);
+    }
+
+    @Test
+    void deveRecusarDemandaInvalida() throws InterruptedException {
+        Leilao leilao = new Leilao("Selos");
+        Coletor coletor = new Coletor(0);
+        leilao.subscribe(coletor);
+
+        coletor.assinatura.request(0);
+
+        Assertions.assertTrue(coletor.terminou.await(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalArgumentException.class, coletor.erro);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.subscribe(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> leilao.subscribe(new Coletor(1), null));
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.persio;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RegistroDeUsuariosTest {
+
+    @Test
+    void deveDevolverSempreAMesmaInstanciaParaOMesmoNome() {
+        RegistroDeUsuarios registro = new RegistroDeUsuarios();
+
+        Usuario persio = registro.canonico("Persio");
+
+        Assertions.assertSame(persio, registro.canonico("PERSIO"));
+        Assertions.assertSame(persio, registro.canonico(new Usuario("persio")));
+        Assertions.assertEquals(1, registro.tamanho());
+    }
+
+    @Test
+    void deveAtribuirIdentificadoresSequenciaisEEstaveis() {
+        RegistroDeUsuarios registro = new RegistroDeUsuarios();
+
+        Assertions.assertEquals(0, registro.idDe(new Usuario("Persio")));
+        Assertions.assertEquals(1, registro.idDe(new Usuario("João")));
+        Assertions.assertEquals(0, registro.idDe(new Usuario("persio")));
+        Assertions.assertEquals("João", registro.porId(1).getNome());
+    }
+
+    @Test
+    void deveCrescerAlemDaCapacidadeInicial() {
+        RegistroDeUsuarios registro = new RegistroDeUsuarios();
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, registro.idDe(new Usuario("Usuario" + i)));
+        }
+
+        Assertions.assertEquals(100, registro.tamanho());
+        Assertions.assertEquals("Usuario99", registro.porId(99).getNome());
+    }
+
+    @Test
+    void deveInformarMenosUmParaUsuarioNaoRegistrado() {
+        RegistroDeUsuarios registro = new RegistroDeUsuarios();
+        registro.canonico("Persio");
+
+        Assertions.assertEquals(-1, registro.buscaId(new Usuario("Maria")));
+        Assertions.assertEquals(-1, registro.buscaId(null));
+        Assertions.assertEquals(1, registro.tamanho());
+    }
+
+    @Test
+    void deveLancarExcecaoParaIdInexistenteOuUsuarioNulo() {
+        RegistroDeUsuarios registro = new RegistroDeUsuarios();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registro.porId(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registro.porId(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registro.idDe(null));
+        Assertions.assertNull(registro.buscaPorId(0));
+        Assertions.assertNull(registro.buscaPorId(-1));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.persio;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ResultadoLanceTest {
+
+    @Test
+    void somenteAceitoDeveSerAceito() {
+        Assertions.assertTrue(ResultadoLance.ACEITO.isAceito());
+        Assertions.assertFalse(ResultadoLance.LANCE_NULO.isAceito());
+        Assertions.assertFalse(ResultadoLance.VALOR_NAO_SUPERIOR.isAceito());
+        Assertions.assertFalse(ResultadoLance.LIMITE_DE_LANCES.isAceito());
+        Assertions.assertFalse(ResultadoLance.LEILAO_ENCERRADO.isAceito());
+    }
+
+    @Test
+    void rejeicoesDevemTerMensagem() {
+        Assertions.assertNull(ResultadoLance.ACEITO.getMensagem());
+        Assertions.assertEquals("Lance deve ser maior que o anterior.", ResultadoLance.VALOR_NAO_SUPERIOR.getMensagem());
+        Assertions.assertEquals("Usuário atingiu o limite de 5 lances.", ResultadoLance.LIMITE_DE_LANCES.getMensagem());
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RodaDeTempoTest {
+
+    @Test
+    void naoDeveDispararAntesDoPrazo() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            CountDownLatch disparou = new CountDownLatch(1);
+            long antes = System.nanoTime();
+            long[] decorrido = new long[1];
+
+            roda.agenda(() -> {
+                decorrido[0] = System.nanoTime() - antes;
+                disparou.countDown();
+            }, Duration.ofMillis(50));
+
+            Assertions.assertTrue(disparou.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(decorrido[0] >= TimeUnit.MILLISECONDS.toNanos(50));
+            Assertions.assertEquals(0, roda.getPendentes());
+        }
+    }
+
+    @Test
+    void deveDormirAteAProximaFatiaOcupadaEmVezDeAcordarACadaTique() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            CountDownLatch disparou = new CountDownLatch(2);
+            roda.agenda(disparou::countDown, Duration.ofMillis(300));
+            // um prazo mais curto agendado depois acorda a roda mais cedo
+            roda.agenda(disparou::countDown, Duration.ofMillis(100));
+
+            Assertions.assertTrue(disparou.await(5, TimeUnit.SECONDS));
+            // com um tique de 1 ms, acordar a cada tique daria umas 300 vezes
+            Assertions.assertTrue(roda.getDespertares() < 30, "despertares: " + roda.getDespertares());
+        }
+    }
+
+    @Test
+    void deveDispararPrazosMaioresQueUmaVoltaDaRoda() throws InterruptedException {
+        // 8 fatias de 1 ms: 30 ms exigem várias voltas
+        try (RodaDeTempo roda = new RodaDeTempo(Duration.ofMillis(1), 8)) {
+            CountDownLatch disparou = new CountDownLatch(1);
+            long antes = System.nanoTime();
+            Agendamento agendamento = roda.agenda(disparou::countDown, Duration.ofMillis(30));
+
+            Assertions.assertTrue(disparou.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(System.nanoTime() - antes >= TimeUnit.MILLISECONDS.toNanos(30));
+            Assertions.assertTrue(agendamento.isExecutado());
+            Assertions.assertFalse(agendamento.cancela());
+        }
+    }
+
+    @Test
+    void naoDeveDispararAgendamentoCancelado() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            AtomicInteger disparos = new AtomicInteger();
+            Agendamento cancelado = roda.agenda(disparos::incrementAndGet, Duration.ofMillis(20));
+            CountDownLatch depois = new CountDownLatch(1);
+            roda.agenda(depois::countDown, Duration.ofMillis(40));
+
+            Assertions.assertTrue(cancelado.cancela());
+            Assertions.assertFalse(cancelado.cancela());
+
+            Assertions.assertTrue(depois.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(cancelado.isCancelado());
+            Assertions.assertEquals(0, disparos.get());
+        }
+    }
+
+    @Test
+    void deveDispararMuitosPrazosPendentes() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            int total = 200_000;
+            CountDownLatch disparos = new CountDownLatch(total);
+            for (int i = 0; i < total; i++) {
+                roda.agenda(disparos::countDown, Duration.ofMillis(i % 1_000));
+            }
+
+            Assertions.assertTrue(disparos.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(0, roda.getPendentes());
+        }
+    }
+
+    @Test
+    void deveContinuarGirandoDepoisDeFalhaEmUmaTarefa() throws InterruptedException {
+        try (RodaDeTempo roda = new RodaDeTempo()) {
+            CountDownLatch disparou = new CountDownLatch(1);
+            roda.agenda(() -> {
+                throw new IllegalStateException("falha proposital");
+            }, Duration.ZERO);
+            roda.agenda(disparou::countDown, Duration.ofMillis(10));
+
+            Assertions.assertTrue(disparou.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void naoDeveAceitarConfiguracaoOuAgendamentoInvalido() throws InterruptedException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RodaDeTempo(Duration.ofMillis(1), 100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RodaDeTempo(Duration.ZERO, 8));
+
+        RodaDeTempo roda = new RodaDeTempo();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> roda.agenda(null, Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> roda.agenda(() -> { }, Duration.ofMillis(-1)));
+        roda.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> roda.agenda(() -> { }, Duration.ZERO));
+    }
+}
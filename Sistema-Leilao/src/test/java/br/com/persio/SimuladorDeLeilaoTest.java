@@ -0,0 +1,81 @@
+package br.com.persio;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SimuladorDeLeilaoTest {
+
+    @Test
+    void deveContabilizarTodosOsLancesDaSimulacao() throws InterruptedException {
+        SimuladorDeLeilao simulador = new SimuladorDeLeilao(500, 5, Duration.ofMillis(300),
+                DistribuicaoDeChegada.EXPONENCIAL, Duration.ofMillis(10), 2);
+
+        RelatorioDaSimulacao relatorio = simulador.executa();
+
+        long somaDosResultados = 0;
+        for (ResultadoLance resultado : ResultadoLance.values()) {
+            somaDosResultados += relatorio.getQuantidade(resultado);
+        }
+        Assertions.assertTrue(relatorio.getTotalDeLances() > 0);
+        Assertions.assertEquals(relatorio.getTotalDeLances(), somaDosResultados);
+        Assertions.assertTrue(relatorio.getQuantidade(ResultadoLance.ACEITO) > 0);
+        Assertions.assertEquals(0, relatorio.getQuantidade(ResultadoLance.LANCE_NULO));
+        Assertions.assertTrue(relatorio.getTaxaDeAceitacao() > 0 && relatorio.getTaxaDeAceitacao() <= 1);
+        Assertions.assertTrue(relatorio.getLatenciaP50() <= relatorio.getLatenciaP90());
+        Assertions.assertTrue(relatorio.getLatenciaP90() <= relatorio.getLatenciaP99());
+        Assertions.assertTrue(relatorio.getLatenciaP99() <= relatorio.getLatenciaMaxima());
+    }
+
+    @Test
+    void naoDeveMisturarAsLatenciasDeExecucoesDiferentes() throws InterruptedException {
+        SimuladorDeLeilao simulador = new SimuladorDeLeilao(200, 3, Duration.ofMillis(200),
+                DistribuicaoDeChegada.CONSTANTE, Duration.ofMillis(5), 2);
+
+        RelatorioDaSimulacao primeira = simulador.executa();
+        RelatorioDaSimulacao segunda = simulador.executa();
+
+        Assertions.assertEquals(primeira.getTotalDeLances(), primeira.getLatenciasMedidas());
+        Assertions.assertEquals(segunda.getTotalDeLances(), segunda.getLatenciasMedidas());
+    }
+
+    @Test
+    void deveCalcularPercentisPeloHistograma() {
+        Histograma latencias = new Histograma(1, 1e10, 2);
+        Assertions.assertEquals(0, SimuladorDeLeilao.percentil(latencias, 50));
+
+        for (int i = 1; i <= 1000; i++) {
+            latencias.registra(i * 1_000);
+        }
+
+        Assertions.assertEquals(500_000, SimuladorDeLeilao.percentil(latencias, 50), 500_000 * 0.004);
+        Assertions.assertEquals(990_000, SimuladorDeLeilao.percentil(latencias, 99), 990_000 * 0.004);
+        Assertions.assertEquals(1_000_000, SimuladorDeLeilao.percentil(latencias, 100));
+    }
+
+    @Test
+    void deveSortearIntervalosComAMediaPedida() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (DistribuicaoDeChegada distribuicao : DistribuicaoDeChegada.values()) {
+            long soma = 0;
+            for (int i = 0; i < 100_000; i++) {
+                long intervalo = distribuicao.sorteiaIntervalo(1_000, aleatorio);
+                Assertions.assertTrue(intervalo >= 0);
+                soma += intervalo;
+            }
+            Assertions.assertEquals(1_000.0, soma / 100_000.0, 30.0, distribuicao.name());
+        }
+    }
+
+    @Test
+    void naoDeveAceitarConfiguracaoInvalida() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new SimuladorDeLeilao(0, 1, Duration.ofSeconds(1), DistribuicaoDeChegada.CONSTANTE));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new SimuladorDeLeilao(1, 1, Duration.ZERO, DistribuicaoDeChegada.CONSTANTE));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new SimuladorDeLeilao(1, 1, Duration.ofSeconds(1), null));
+    }
+}
@@ -23,4 +23,31 @@ class UsuarioTest {
         Usuario u2 = new Usuario("persio");
         Assertions.assertEquals(u1, u2);
     }
+
+    @Test
+    void usuariosIguaisDevemTerOMesmoHashCode() {
+        Usuario u1 = new Usuario("Persio");
+        Usuario u2 = new Usuario("PERSIO");
+        Usuario u3 = new Usuario("João");
+
+        Assertions.assertEquals(u1.hashCode(), u2.hashCode());
+        Assertions.assertNotEquals(u1, u3);
+        Assertions.assertNotEquals(u1, null);
+        Assertions.assertNotEquals(u1, "Persio");
+    }
+
+    @Test
+    void deveCompararNomesComoEqualsIgnoreCaseMesmoEmUnicode() {
+        // toLowerCase trocaria o sigma final por ς; equalsIgnoreCase compara letra a letra
+        Usuario maiusculas = new Usuario("ΟΔΥΣΣΕΥΣ");
+        Usuario minusculas = new Usuario("οδυσσευσ");
+        Assertions.assertEquals(maiusculas, minusculas);
+        Assertions.assertEquals(maiusculas.hashCode(), minusculas.hashCode());
+
+        // o I com ponto do turco vira "i" seguido de um ponto combinante em toLowerCase
+        Usuario comPonto = new Usuario("İrem");
+        Usuario semPonto = new Usuario("irem");
+        Assertions.assertEquals("İrem".equalsIgnoreCase("irem"), comPonto.equals(semPonto));
+        Assertions.assertEquals(comPonto.hashCode(), semPonto.hashCode());
+    }
 }
@@ -0,0 +1,52 @@
+package br.com.persio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo e alocação de uma cotação de frete. Rode com {@code -prof gc} para ver
+ * {@code gc.alloc.rate.norm}, os bytes alocados por chamada.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CalculadoraFreteBenchmark {
+
+    @Param({"SUL", "Centro-Oeste"})
+    String nomeDaRegiao;
+
+    CalculadoraFrete calculadora;
+    Regiao regiao;
+    double peso;
+
+    @Setup
+    public void prepara() {
+        calculadora = new CalculadoraFrete();
+        regiao = Regiao.deNome(nomeDaRegiao);
+        peso = 3.7;
+    }
+
+    @Benchmark
+    public double porNome() {
+        return calculadora.calcular(peso, nomeDaRegiao);
+    }
+
+    @Benchmark
+    public double porRegiao() {
+        return calculadora.calcular(peso, regiao);
+    }
+}
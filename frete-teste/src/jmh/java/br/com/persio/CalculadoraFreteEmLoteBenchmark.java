@@ -0,0 +1,82 @@
+package br.com.persio;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Frete de um carrinho ou manifesto inteiro: chamando {@code calcular(peso, regiao)}
+ * pacote a pacote contra os cálculos em lote sobre arrays primitivos.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CalculadoraFreteEmLoteBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int pacotes;
+
+    CalculadoraFrete calculadora;
+    double[] pesos;
+    Regiao[] regioes;
+    byte[] codigos;
+    double[] resultado;
+
+    @Setup
+    public void prepara() {
+        Random aleatorio = new Random(42);
+        Regiao[] todas = Regiao.values();
+        calculadora = new CalculadoraFrete();
+        pesos = new double[pacotes];
+        regioes = new Regiao[pacotes];
+        codigos = new byte[pacotes];
+        resultado = new double[pacotes];
+        for (int i = 0; i < pacotes; i++) {
+            pesos[i] = 0.1 + aleatorio.nextDouble() * 30;
+            regioes[i] = todas[aleatorio.nextInt(todas.length)];
+            codigos[i] = regioes[i].getCodigo();
+        }
+    }
+
+    @Benchmark
+    public double[] porPacoteMesmaRegiao() {
+        for (int i = 0; i < pesos.length; i++) {
+            resultado[i] = calculadora.calcular(pesos[i], Regiao.SUDESTE);
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] emLoteMesmaRegiao() {
+        calculadora.calcular(pesos, Regiao.SUDESTE, resultado);
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] porPacote() {
+        for (int i = 0; i < pesos.length; i++) {
+            resultado[i] = calculadora.calcular(pesos[i], regioes[i]);
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] emLotePorCodigo() {
+        calculadora.calcular(pesos, codigos, resultado);
+        return resultado;
+    }
+}
@@ -2,6 +2,20 @@ package br.com.persio;
 
 public class CalculadoraFrete {
 
+    // taxa base de cada região, indexada pelo ordinal de Regiao
+    private static final double[] TAXA_BASE = new double[Regiao.values().length];
+
+    // pacotes por bloco no cálculo em lote: pesos e resultados de um bloco ocupam 16 KB
+    private static final int BLOCO = 1024;
+
+    static {
+        TAXA_BASE[Regiao.SUL.ordinal()] = 10.0;
+        TAXA_BASE[Regiao.SUDESTE.ordinal()] = 12.0;
+        TAXA_BASE[Regiao.CENTRO_OESTE.ordinal()] = 15.0;
+        TAXA_BASE[Regiao.NORDESTE.ordinal()] = 18.0;
+        TAXA_BASE[Regiao.NORTE.ordinal()] = 20.0;
+    }
+
     /**
      * Calcula o frete com base no peso e na região de destino.
      *
@@ -14,33 +28,100 @@ public class CalculadoraFrete {
             throw new IllegalArgumentException("Peso inválido!");
         }
 
-        if (regiao == null || regiao.isEmpty()) {
+        return calcular(peso, Regiao.deNome(regiao));
+    }
+
+    /**
+     * Calcula o frete com base no peso e na região de destino, sem converter nomes.
+     *
+     * @param peso   peso do pacote em quilogramas
+     * @param regiao região de destino
+     * @return valor do frete em reais
+     */
+    public double calcular(double peso, Regiao regiao) {
+        if (peso <= 0) {
+            throw new IllegalArgumentException("Peso inválido!");
+        }
+
+        if (regiao == null) {
             throw new IllegalArgumentException("Região não informada!");
         }
 
-        double taxaBase;
-
-        switch (regiao.toUpperCase()) {
-            case "SUL":
-                taxaBase = 10.0;
-                break;
-            case "SUDESTE":
-                taxaBase = 12.0;
-                break;
-            case "CENTRO-OESTE":
-                taxaBase = 15.0;
-                break;
-            case "NORDESTE":
-                taxaBase = 18.0;
-                break;
-            case "NORTE":
-                taxaBase = 20.0;
-                break;
-            default:
+        // cálculo simples: taxaBase + (peso * 2.5)
+        return TAXA_BASE[regiao.ordinal()] + (peso * 2.5);
+    }
+
+    /**
+     * Calcula o frete de vários pacotes para a mesma região, gravando em {@code resultado}.
+     * O laço é linear sobre arrays primitivos, de modo que o JIT pode vetorizá-lo (SIMD).
+     * Os pacotes são processados em blocos que cabem no cache L1: cada bloco é validado
+     * e então calculado, lendo a memória uma só vez. Se um peso for inválido, os blocos
+     * anteriores a ele já podem ter sido gravados.
+     *
+     * @param pesos     peso de cada pacote em quilogramas
+     * @param regiao    região de destino de todos os pacotes
+     * @param resultado recebe o frete de cada pacote, na mesma posição do peso
+     */
+    public void calcular(double[] pesos, Regiao regiao, double[] resultado) {
+        verificaLote(pesos, resultado);
+        if (regiao == null) {
+            throw new IllegalArgumentException("Região não informada!");
+        }
+
+        double taxaBase = TAXA_BASE[regiao.ordinal()];
+        for (int inicio = 0; inicio < pesos.length; inicio += BLOCO) {
+            int fim = Math.min(pesos.length, inicio + BLOCO);
+            verificaPesos(pesos, inicio, fim);
+            for (int i = inicio; i < fim; i++) {
+                resultado[i] = taxaBase + (pesos[i] * 2.5);
+            }
+        }
+    }
+
+    /**
+     * Calcula o frete de vários pacotes, cada um para a sua região, gravando em {@code resultado}.
+     * Se um pacote for inválido, os anteriores a ele já podem ter sido gravados.
+     *
+     * @param pesos     peso de cada pacote em quilogramas
+     * @param regioes   código da região de cada pacote ({@link Regiao#getCodigo()})
+     * @param resultado recebe o frete de cada pacote, na mesma posição do peso
+     */
+    public void calcular(double[] pesos, byte[] regioes, double[] resultado) {
+        verificaLote(pesos, resultado);
+        if (regioes == null || regioes.length != pesos.length) {
+            throw new IllegalArgumentException("Informe uma região para cada pacote!");
+        }
+
+        // a taxa de cada pacote vem de uma consulta indireta à tabela, que o JIT não vetoriza;
+        // por isso a validação fica no mesmo laço, em uma única passada
+        double[] taxas = TAXA_BASE;
+        for (int i = 0; i < pesos.length; i++) {
+            double peso = pesos[i];
+            int codigo = regioes[i];
+            if (peso <= 0) {
+                throw new IllegalArgumentException("Peso inválido!");
+            }
+            if (codigo < 0 || codigo >= taxas.length) {
                 throw new IllegalArgumentException("Região inválida!");
+            }
+            resultado[i] = taxas[codigo] + (peso * 2.5);
         }
+    }
 
-        // cálculo simples: taxaBase + (peso * 2.5)
-        return taxaBase + (peso * 2.5);
+    private static void verificaLote(double[] pesos, double[] resultado) {
+        if (pesos == null || resultado == null) {
+            throw new IllegalArgumentException("Pesos e resultado não podem ser nulos!");
+        }
+        if (resultado.length < pesos.length) {
+            throw new IllegalArgumentException("O resultado não comporta todos os pacotes!");
+        }
+    }
+
+    private static void verificaPesos(double[] pesos, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if (pesos[i] <= 0) {
+                throw new IllegalArgumentException("Peso inválido!");
+            }
+        }
     }
 }
@@ -0,0 +1,53 @@
+package br.com.persio;
+
+/**
+ * Regiões de destino aceitas pela {@link CalculadoraFrete}.
+ */
+public enum Regiao {
+
+    SUL("SUL"),
+    SUDESTE("SUDESTE"),
+    CENTRO_OESTE("CENTRO-OESTE"),
+    NORDESTE("NORDESTE"),
+    NORTE("NORTE");
+
+    // values() cria um array novo a cada chamada; a busca usa esta cópia
+    private static final Regiao[] TODAS = values();
+
+    private final String nome;
+
+    Regiao(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return o nome da região como aparece nas cotações, por exemplo {@code CENTRO-OESTE}
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return o código da região para o cálculo em lote, um {@code byte} por pacote
+     */
+    public byte getCodigo() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @param nome nome da região, sem diferenciar maiúsculas (SUL, sudeste, Centro-Oeste...)
+     */
+    public static Regiao deNome(String nome) {
+        if (nome == null || nome.isEmpty()) {
+            throw new IllegalArgumentException("Região não informada!");
+        }
+        // compara caractere a caractere sem diferenciar maiúsculas, sem criar Strings;
+        // o tamanho descarta quase todas as regiões antes de comparar
+        for (Regiao regiao : TODAS) {
+            if (regiao.nome.length() == nome.length() && regiao.nome.equalsIgnoreCase(nome)) {
+                return regiao;
+            }
+        }
+        throw new IllegalArgumentException("Região inválida!");
+    }
+}
@@ -27,7 +27,7 @@ class CalculadoraFreteTest {
     @Test
     void deveLancarErroParaRegiaoNulaOuVazia() {
         CalculadoraFrete calc = new CalculadoraFrete();
-        Assertions.assertThrows(IllegalArgumentException.class, () -> calc.calcular(5, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> calc.calcular(5, (String) null));
         Assertions.assertThrows(IllegalArgumentException.class, () -> calc.calcular(5, ""));
     }
 
@@ -45,4 +45,67 @@ class CalculadoraFreteTest {
         Assertions.assertEquals(25.0, valor); // 20.0 + (2.0 * 2.5)
     }
 
+    @Test
+    void deveCalcularFretePelaRegiao() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        Assertions.assertEquals(20.0, calc.calcular(4.0, Regiao.SUL));
+        Assertions.assertEquals(17.0, calc.calcular(2.0, Regiao.SUDESTE)); // 12.0 + (2.0 * 2.5)
+        Assertions.assertEquals(20.0, calc.calcular(2.0, Regiao.CENTRO_OESTE)); // 15.0 + (2.0 * 2.5)
+    }
+
+    @Test
+    void deveAceitarNomeDaRegiaoEmMinusculas() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        Assertions.assertEquals(20.0, calc.calcular(2.0, "centro-oeste"));
+        Assertions.assertEquals(20.0, calc.calcular(4.0, "Sul"));
+    }
+
+    @Test
+    void deveLancarErroParaRegiaoNulaOuPesoInvalidoPeloEnum() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> calc.calcular(5, (Regiao) null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> calc.calcular(-1, Regiao.NORTE));
+    }
+
+    @Test
+    void deveCalcularFreteEmLoteParaAMesmaRegiao() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        double[] pesos = {4.0, 2.0, 1.0};
+        double[] resultado = new double[3];
+        calc.calcular(pesos, Regiao.SUL, resultado);
+        Assertions.assertArrayEquals(new double[] {20.0, 15.0, 12.5}, resultado);
+    }
+
+    @Test
+    void deveCalcularFreteEmLoteComRegiaoPorPacote() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        double[] pesos = {4.0, 3.0, 2.0, 2.0};
+        byte[] regioes = {
+                Regiao.SUL.getCodigo(), Regiao.NORDESTE.getCodigo(),
+                Regiao.NORTE.getCodigo(), Regiao.CENTRO_OESTE.getCodigo()
+        };
+        double[] resultado = new double[5];
+        calc.calcular(pesos, regioes, resultado);
+        Assertions.assertArrayEquals(new double[] {20.0, 25.5, 25.0, 20.0, 0.0}, resultado);
+    }
+
+    @Test
+    void deveLancarErroParaPacoteInvalidoNoLote() {
+        CalculadoraFrete calc = new CalculadoraFrete();
+        double[] resultado = new double[2];
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(new double[] {4.0, 0.0}, Regiao.SUL, resultado));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(new double[] {4.0, 2.0}, new byte[] {0, 9}, resultado));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(new double[] {4.0, 2.0}, Regiao.SUL, new double[1]));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(new double[] {4.0, 2.0}, new byte[] {0}, resultado));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(new double[] {4.0}, (Regiao) null, resultado));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                calc.calcular(null, Regiao.SUL, resultado));
+    }
+
 }
@@ -0,0 +1,24 @@
+package br.com.persio;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RegiaoTest {
+
+    @Test
+    void deveEncontrarRegiaoPeloNomeSemDiferenciarMaiusculas() {
+        Assertions.assertEquals(Regiao.SUL, Regiao.deNome("SUL"));
+        Assertions.assertEquals(Regiao.SUDESTE, Regiao.deNome("sudeste"));
+        Assertions.assertEquals(Regiao.CENTRO_OESTE, Regiao.deNome("Centro-Oeste"));
+        Assertions.assertEquals("CENTRO-OESTE", Regiao.CENTRO_OESTE.getNome());
+        Assertions.assertEquals(Regiao.NORTE, Regiao.values()[Regiao.NORTE.getCodigo()]);
+    }
+
+    @Test
+    void deveLancarErroParaNomeInvalido() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Regiao.deNome("OESTE"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Regiao.deNome("CENTRO_OESTE"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Regiao.deNome(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Regiao.deNome(""));
+    }
+}